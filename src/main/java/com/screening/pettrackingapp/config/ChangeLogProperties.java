@@ -0,0 +1,21 @@
+package com.screening.pettrackingapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "pettracker.changes")
+public class ChangeLogProperties {
+
+    /**
+     * Changes kept for GET /api/pets/changes; clients further behind have to resync.
+     */
+    private int capacity = 100_000;
+
+    /**
+     * Changes older than this are dropped even when the log is not full.
+     */
+    private Duration retention = Duration.ofDays(1);
+}
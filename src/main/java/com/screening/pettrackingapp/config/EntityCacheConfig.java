@@ -0,0 +1,49 @@
+package com.screening.pettrackingapp.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.screening.pettrackingapp.entity.Pet;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level cache for {@link Pet} lookups by id, held in a bounded Caffeine cache behind JCache.
+ * <p>
+ * Every application context gets its own cache manager rather than the provider's shared default one, so contexts
+ * on different databases never see each other's pets. Hibernate closes it with the session factory.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(EntityCacheProperties properties) {
+        if (!properties.isEnabled()) {
+            // Hibernate would otherwise pick up the JCache region factory from the classpath on its own
+            return hibernateProperties -> hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+        }
+        return hibernateProperties -> {
+            CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+            cacheManager.createCache(Pet.CACHE_REGION, petRegion(properties));
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            // Only the bounded region above may be used
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY,
+                    MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> petRegion(EntityCacheProperties properties) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(properties.getMaximumSize()));
+        configuration.setExpireAfterWrite(OptionalLong.of(properties.getTimeToLive().toNanos()));
+        return configuration;
+    }
+}
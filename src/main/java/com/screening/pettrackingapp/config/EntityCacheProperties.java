@@ -0,0 +1,26 @@
+package com.screening.pettrackingapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "pettracker.entity-cache")
+public class EntityCacheProperties {
+
+    /**
+     * Whether pets loaded by id are kept in Hibernate's second-level cache.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of pets kept in the cache.
+     */
+    private long maximumSize = 100_000;
+
+    /**
+     * How long a cached pet is served after it was loaded or last written.
+     */
+    private Duration timeToLive = Duration.ofHours(1);
+}
@@ -0,0 +1,19 @@
+package com.screening.pettrackingapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "pettracker.geofence")
+public class GeofenceProperties {
+
+    /**
+     * Side of the grid cells zones are indexed in, in degrees (0.01 is about 1.1 km north to south).
+     */
+    private double cellSize = 0.01;
+
+    /**
+     * Zones overlapping more cells than this are not put in the grid but checked against every reading of the owner.
+     */
+    private int maxCellsPerZone = 1024;
+}
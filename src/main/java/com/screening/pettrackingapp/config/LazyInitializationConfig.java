@@ -0,0 +1,26 @@
+package com.screening.pettrackingapp.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Arrays;
+
+/**
+ * Keeps beans with event listener methods eager under {@code spring.main.lazy-initialization}. They hold state
+ * derived from the store (outside-zone counts, owner cache, reading log, SSE subscribers), and one created by the
+ * first change event would miss or double count it.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eventListenerBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(beanType))
+                .anyMatch(method -> AnnotatedElementUtils.hasAnnotation(method, EventListener.class));
+    }
+}
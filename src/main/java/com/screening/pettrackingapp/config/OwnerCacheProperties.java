@@ -0,0 +1,21 @@
+package com.screening.pettrackingapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "pettracker.owner-cache")
+public class OwnerCacheProperties {
+
+    /**
+     * Maximum number of owners whose pet lists are kept in memory.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * How long a cached pet list is served after it was loaded.
+     */
+    private Duration timeToLive = Duration.ofMinutes(5);
+}
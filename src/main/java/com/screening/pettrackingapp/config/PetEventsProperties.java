@@ -0,0 +1,31 @@
+package com.screening.pettrackingapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "pettracker.events")
+public class PetEventsProperties {
+
+    /**
+     * Events published but not yet fanned out to subscribers; further events are dropped when it is full.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Events buffered per subscriber. A subscriber that falls this far behind is disconnected and has to reconnect.
+     */
+    private int subscriberQueueCapacity = 256;
+
+    /**
+     * Interval of the keep-alive comment that also detects closed connections.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(30);
+
+    /**
+     * Lifetime of one event stream connection before the client has to reconnect.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+}
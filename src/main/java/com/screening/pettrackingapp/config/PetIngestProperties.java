@@ -0,0 +1,52 @@
+package com.screening.pettrackingapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "pettracker.ingest")
+public class PetIngestProperties {
+
+    /**
+     * Number of pets persisted per transaction by the batch endpoint.
+     */
+    private int chunkSize = 500;
+
+    private WriteBehind writeBehind = new WriteBehind();
+
+    @Data
+    public static class WriteBehind {
+
+        /**
+         * Accept single creates with 202 and a reserved id, and commit them in groups on a background writer.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Pets accepted but not yet committed; further creates are rejected with 429 while it is full.
+         */
+        private int capacity = 10_000;
+
+        /**
+         * Most pets committed in one transaction.
+         */
+        private int maxGroupSize = 500;
+
+        /**
+         * How long the writer keeps collecting a group after its first pet arrives.
+         */
+        private Duration maxGroupDelay = Duration.ofMillis(5);
+
+        /**
+         * How long a read of a reserved id waits for the pet to be committed before answering 503.
+         */
+        private Duration readTimeout = Duration.ofSeconds(5);
+
+        /**
+         * How long shutdown waits for accepted pets to be committed.
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+    }
+}
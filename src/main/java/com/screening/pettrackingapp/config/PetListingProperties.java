@@ -0,0 +1,19 @@
+package com.screening.pettrackingapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "pettracker.listing")
+public class PetListingProperties {
+
+    /**
+     * Page size used when a listing is requested with a cursor but without a limit.
+     */
+    private int defaultPageSize = 100;
+
+    /**
+     * Upper bound for the limit of a single page.
+     */
+    private int maxPageSize = 1000;
+}
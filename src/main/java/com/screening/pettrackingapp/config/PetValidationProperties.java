@@ -0,0 +1,52 @@
+package com.screening.pettrackingapp.config;
+
+import com.screening.pettrackingapp.entity.PetField;
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "pettracker.validation")
+public class PetValidationProperties {
+
+    /**
+     * Tracker types each pet type may carry. Pet types that are not listed accept any tracker type.
+     */
+    private Map<PetType, Set<TrackerType>> trackerTypes = new EnumMap<>(Map.of(
+            PetType.CAT, EnumSet.of(TrackerType.SMALL, TrackerType.BIG),
+            PetType.DOG, EnumSet.of(TrackerType.SMALL, TrackerType.MEDIUM, TrackerType.BIG)));
+
+    /**
+     * Per field, the pet types that may set it and the pet types that must set it.
+     */
+    private Map<PetField, FieldRule> fields = new EnumMap<>(Map.of(
+            PetField.LOST_TRACKER, new FieldRule(EnumSet.of(PetType.CAT), EnumSet.noneOf(PetType.class))));
+
+    @Data
+    public static class FieldRule {
+
+        /**
+         * Pet types that may set the field.
+         */
+        private Set<PetType> allowedFor = EnumSet.allOf(PetType.class);
+
+        /**
+         * Pet types that must set the field.
+         */
+        private Set<PetType> requiredFor = EnumSet.noneOf(PetType.class);
+
+        public FieldRule() {
+        }
+
+        public FieldRule(Set<PetType> allowedFor, Set<PetType> requiredFor) {
+            this.allowedFor = allowedFor;
+            this.requiredFor = requiredFor;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.screening.pettrackingapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "pettracker.history")
+public class ReadingHistoryProperties {
+
+    /**
+     * Time span covered by one segment of the reading log.
+     */
+    private Duration segmentDuration = Duration.ofHours(1);
+
+    /**
+     * Readings older than this are folded into a single last known reading per pet.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Segments older than this keep only the last reading per pet in each downsample resolution window.
+     */
+    private Duration downsampleAfter = Duration.ofDays(1);
+
+    private Duration downsampleResolution = Duration.ofMinutes(1);
+
+    /**
+     * How often retention and downsampling run; zero disables the background task.
+     */
+    private Duration maintenanceInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,28 @@
+package com.screening.pettrackingapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "pettracker.sharding")
+public class ShardingProperties {
+
+    /**
+     * Databases used with {@code pettracker.store=sharded}. A pet lives on the shard picked by a hash of its
+     * ownerId, so the list must not be reordered or resized once pets are stored.
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
@@ -0,0 +1,17 @@
+package com.screening.pettrackingapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "pettracker.zone-heartbeat")
+public class ZoneHeartbeatProperties {
+
+    /**
+     * Window in which repeated zone heartbeats for the same pet are collapsed into one write.
+     * Zero disables the write-behind buffer and applies every heartbeat immediately.
+     */
+    private Duration coalesceWindow = Duration.ZERO;
+}
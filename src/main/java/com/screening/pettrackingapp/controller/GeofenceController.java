@@ -0,0 +1,49 @@
+package com.screening.pettrackingapp.controller;
+
+import com.screening.pettrackingapp.dto.Geofence;
+import com.screening.pettrackingapp.service.GeofenceIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/pets/owner/{ownerId}/zones")
+public class GeofenceController {
+
+    private final GeofenceIndex geofenceIndex;
+
+    @Autowired
+    public GeofenceController(GeofenceIndex geofenceIndex) {
+        this.geofenceIndex = geofenceIndex;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Geofence> addZone(@PathVariable Integer ownerId, @RequestBody Geofence zone) {
+        return ResponseEntity.ok(geofenceIndex.addZone(ownerId, zone));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Geofence>> getZones(@PathVariable Integer ownerId) {
+        return ResponseEntity.ok(geofenceIndex.getZones(ownerId));
+    }
+
+    @GetMapping("/{zoneId}")
+    public ResponseEntity<Geofence> getZone(@PathVariable Integer ownerId, @PathVariable Long zoneId) {
+        return ResponseEntity.ok(geofenceIndex.getZone(ownerId, zoneId));
+    }
+
+    @PutMapping(value = "/{zoneId}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Geofence> replaceZone(@PathVariable Integer ownerId, @PathVariable Long zoneId,
+                                                @RequestBody Geofence zone) {
+        return ResponseEntity.ok(geofenceIndex.replaceZone(ownerId, zoneId, zone));
+    }
+
+    @DeleteMapping("/{zoneId}")
+    public ResponseEntity<Void> removeZone(@PathVariable Integer ownerId, @PathVariable Long zoneId) {
+        geofenceIndex.removeZone(ownerId, zoneId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,116 @@
+package com.screening.pettrackingapp.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.screening.pettrackingapp.config.BinaryFormatsConfig;
+import com.screening.pettrackingapp.dto.BatchItem;
+import com.screening.pettrackingapp.entity.Pet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Incrementally decodes a JSON array or an NDJSON stream of polymorphic pets, or their CBOR and Smile
+ * equivalents (an array or a sequence of root values). Items that cannot be mapped are reported
+ * individually and reading resumes with the next item; a syntax error ends the stream.
+ */
+@Component
+public class PetBatchReader {
+
+    private final ObjectReader petReader;
+    private final ObjectReader cborPetReader;
+    private final ObjectReader smilePetReader;
+
+    @Autowired
+    public PetBatchReader(ObjectMapper objectMapper, MappingJackson2CborHttpMessageConverter cborConverter,
+                          MappingJackson2SmileHttpMessageConverter smileConverter) {
+        this.petReader = objectMapper.readerFor(Pet.class);
+        this.cborPetReader = cborConverter.getObjectMapper().readerFor(Pet.class);
+        this.smilePetReader = smileConverter.getObjectMapper().readerFor(Pet.class);
+    }
+
+    public Iterator<BatchItem> read(InputStream body, MediaType contentType) throws IOException {
+        ObjectReader reader = petReader;
+        if (MediaType.APPLICATION_CBOR.isCompatibleWith(contentType)) {
+            reader = cborPetReader;
+        } else if (BinaryFormatsConfig.APPLICATION_SMILE.isCompatibleWith(contentType)) {
+            reader = smilePetReader;
+        }
+        return new ItemIterator(reader.readValues(body));
+    }
+
+    private static String describe(JsonMappingException ex) {
+        if (ex instanceof UnrecognizedPropertyException unrecognized) {
+            return "Unknown property '" + unrecognized.getPropertyName() + "' found in request";
+        }
+        return ex.getOriginalMessage();
+    }
+
+    private static final class ItemIterator implements Iterator<BatchItem> {
+        private final MappingIterator<Pet> pets;
+        private int index;
+        private boolean finished;
+        private BatchItem terminalError;
+
+        private ItemIterator(MappingIterator<Pet> pets) {
+            this.pets = pets;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (terminalError != null) {
+                return true;
+            }
+            if (finished) {
+                return false;
+            }
+            try {
+                finished = !pets.hasNextValue();
+            } catch (IOException ex) {
+                stop("Malformed payload: " + ex.getMessage());
+                return true;
+            }
+            return !finished;
+        }
+
+        @Override
+        public BatchItem next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (terminalError != null) {
+                BatchItem error = terminalError;
+                terminalError = null;
+                return error;
+            }
+            int current = index++;
+            try {
+                return BatchItem.of(current, pets.nextValue());
+            } catch (JsonMappingException ex) {
+                return BatchItem.failed(current, describe(ex));
+            } catch (JsonProcessingException ex) {
+                finished = true;
+                return BatchItem.failed(current, "Malformed payload: " + ex.getOriginalMessage());
+            } catch (IOException ex) {
+                finished = true;
+                return BatchItem.failed(current, "Could not read payload: " + ex.getMessage());
+            }
+        }
+
+        private void stop(String message) {
+            finished = true;
+            terminalError = BatchItem.failed(index++, message);
+        }
+    }
+}
@@ -1,14 +1,50 @@
 package com.screening.pettrackingapp.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.screening.pettrackingapp.config.BinaryFormatsConfig;
+import com.screening.pettrackingapp.config.PetListingProperties;
+import com.screening.pettrackingapp.dto.BatchIngestResult;
+import com.screening.pettrackingapp.dto.BulkPetUpdate;
+import com.screening.pettrackingapp.dto.BulkWriteResult;
+import com.screening.pettrackingapp.dto.OwnerTimeOutsideZone;
+import com.screening.pettrackingapp.dto.PetChanges;
+import com.screening.pettrackingapp.dto.PetTimeOutsideZone;
+import com.screening.pettrackingapp.dto.TypeTimeOutsideZone;
+import com.screening.pettrackingapp.dto.GeoPoint;
+import com.screening.pettrackingapp.dto.ZoneUpdate;
 import com.screening.pettrackingapp.entity.*;
+import com.screening.pettrackingapp.exception.PetValidationException;
+import com.screening.pettrackingapp.repository.PetSelection;
+import com.screening.pettrackingapp.repository.PetStats;
+import com.screening.pettrackingapp.repository.PetStatsQuery;
+import com.screening.pettrackingapp.repository.PetView;
+import com.screening.pettrackingapp.service.PetChangeLog;
+import com.screening.pettrackingapp.service.PetEventBroadcaster;
 import com.screening.pettrackingapp.service.PetService;
+import com.screening.pettrackingapp.service.PetWriteBehindBuffer;
+import com.screening.pettrackingapp.service.ZoneHeartbeatBuffer;
+import com.screening.pettrackingapp.service.ZoneHistoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 
 @RestController
@@ -16,26 +52,65 @@ import java.util.Map;
 public class PetController {
 
     private final PetService petService;
+    private final PetBatchReader petBatchReader;
+    private final ZoneHeartbeatBuffer zoneHeartbeatBuffer;
+    private final PetWriteBehindBuffer petWriteBehindBuffer;
+    private final PetEventBroadcaster petEventBroadcaster;
+    private final ZoneHistoryService zoneHistoryService;
+    private final PetChangeLog petChangeLog;
+    private final PetListingProperties listingProperties;
+    private final ObjectWriter ndjsonWriter;
 
     @Autowired
-    public PetController(PetService petService) {
+    public PetController(PetService petService, PetBatchReader petBatchReader, ZoneHeartbeatBuffer zoneHeartbeatBuffer,
+                         PetWriteBehindBuffer petWriteBehindBuffer, PetEventBroadcaster petEventBroadcaster, ZoneHistoryService zoneHistoryService,
+                         PetChangeLog petChangeLog, PetListingProperties listingProperties, ObjectMapper objectMapper) {
         this.petService = petService;
-
+        this.petBatchReader = petBatchReader;
+        this.zoneHeartbeatBuffer = zoneHeartbeatBuffer;
+        this.petWriteBehindBuffer = petWriteBehindBuffer;
+        this.petEventBroadcaster = petEventBroadcaster;
+        this.zoneHistoryService = zoneHistoryService;
+        this.petChangeLog = petChangeLog;
+        this.listingProperties = listingProperties;
+        this.ndjsonWriter = objectMapper.writerFor(Pet.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
-    @PostMapping(value = "/cat", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/cat", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatsConfig.APPLICATION_SMILE_VALUE})
     public ResponseEntity<Pet> addCat(@RequestBody Cat cat) {
-        return ResponseEntity.ok(petService.savePet(cat));
+        return create(cat);
     }
 
-    @PostMapping(value = "/dog", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/dog", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatsConfig.APPLICATION_SMILE_VALUE})
     public ResponseEntity<Pet> addDog(@RequestBody Dog dog) {
-        return ResponseEntity.ok(petService.savePet(dog));
+        return create(dog);
+    }
+
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, BinaryFormatsConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<BatchIngestResult> addPets(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                     InputStream body) throws IOException {
+        return ResponseEntity.ok(petService.savePets(petBatchReader.read(body, contentType)));
     }
 
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<Pet>> getAllPets() {
-        return ResponseEntity.ok(petService.getAllPets());
+    public ResponseEntity<List<PetView>> getAllPets(@RequestParam(required = false) Long after,
+                                                    @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return ResponseEntity.ok(petService.getAllPets());
+        }
+        int pageSize = pageSize(limit);
+        return page(petService.getPets(after, pageSize), pageSize);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllPets() {
+        return ndjson(petService::forEachPet);
     }
 
     @GetMapping("/outside-zone")
@@ -43,6 +118,45 @@ public class PetController {
         return ResponseEntity.ok(petService.getPetsOutsideZone());
     }
 
+    @GetMapping("/stats")
+    public ResponseEntity<List<PetStats>> getStats(@RequestParam(required = false) PetType petType,
+                                                   @RequestParam(required = false) TrackerType trackerType,
+                                                   @RequestParam(required = false) Integer ownerId,
+                                                   @RequestParam(required = false) Boolean inZone,
+                                                   @RequestParam(required = false) Boolean lostTracker,
+                                                   @RequestParam(required = false) List<String> groupBy) {
+        List<PetStatsQuery.Dimension> dimensions = groupBy == null ? List.of() : groupBy.stream()
+                .map(name -> PetStatsQuery.Dimension.fromPropertyName(name)
+                        .orElseThrow(() -> new PetValidationException("Cannot group by '" + name + "'.")))
+                .toList();
+        return ResponseEntity.ok(petService.getStats(
+                new PetStatsQuery(petType, trackerType, ownerId, inZone, lostTracker, dimensions)));
+    }
+
+    @GetMapping("/time-outside-zone")
+    public ResponseEntity<TypeTimeOutsideZone> getTimeOutsideZone(@RequestParam(required = false) PetType petType,
+                                                                  @RequestParam(required = false) TrackerType trackerType,
+                                                                  @RequestParam(required = false) Instant from,
+                                                                  @RequestParam(required = false) Instant to) {
+        return ResponseEntity.ok(zoneHistoryService.getTimeOutsideZoneByType(petType, trackerType, from, to));
+    }
+
+    // Without a version only the current one is returned, for clients about to load the full listing
+    @GetMapping("/changes")
+    public ResponseEntity<PetChanges> getChanges(@RequestParam(required = false) Long since,
+                                                 @RequestParam(required = false) Integer ownerId,
+                                                 @RequestParam(required = false) Integer limit) {
+        if (since == null) {
+            return ResponseEntity.ok(new PetChanges(petChangeLog.currentVersion(), false, List.of()));
+        }
+        return ResponseEntity.ok(petChangeLog.changesSince(since, ownerId, pageSize(limit)));
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        return petEventBroadcaster.subscribe();
+    }
+
     @GetMapping("/lost-trackers")
     public ResponseEntity<List<Cat>> getLostTrackersPets() {
         List<Cat> lostTrackerCats = petService.getLostTrackerCats();
@@ -51,32 +165,156 @@ public class PetController {
 
     @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Pet> updatePet(@PathVariable Long id, @RequestBody Pet pet) {
+        petWriteBehindBuffer.awaitCommitted(id);
         return ResponseEntity.ok(petService.updatePet(id, pet));
     }
 
+    @PatchMapping(value = "/{id}/zone", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Void> updateZone(@PathVariable Long id, @RequestBody ZoneUpdate zoneUpdate) {
+        petWriteBehindBuffer.awaitCommitted(id);
+        if (zoneHeartbeatBuffer.isEnabled() && zoneUpdate.inZone() != null) {
+            zoneHeartbeatBuffer.submit(id, zoneUpdate.inZone());
+            return ResponseEntity.accepted().build();
+        }
+        petService.updateZone(id, zoneUpdate.inZone());
+        return ResponseEntity.noContent().build();
+    }
+
+    // The zone is computed from the owner's zones; with heartbeat coalescing only the result is queued
+    @PostMapping(value = "/{id}/location", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ZoneUpdate> updateLocation(@PathVariable Long id, @RequestBody GeoPoint location) {
+        petWriteBehindBuffer.awaitCommitted(id);
+        if (zoneHeartbeatBuffer.isEnabled()) {
+            boolean inZone = petService.isInZone(id, location);
+            zoneHeartbeatBuffer.submit(id, inZone);
+            return ResponseEntity.accepted().body(new ZoneUpdate(inZone));
+        }
+        return ResponseEntity.ok(new ZoneUpdate(petService.updateLocation(id, location)));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePet(@PathVariable Long id) {
+        petWriteBehindBuffer.awaitCommitted(id);
         petService.deletePet(id);
         return ResponseEntity.noContent().build();
     }
 
+    // Pets matching all the criteria change together; listed ids still queued by write-behind are waited for
+    @PatchMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkWriteResult> updatePets(@RequestBody BulkPetUpdate update) {
+        awaitCommitted(update.ids());
+        return ResponseEntity.ok(petService.updatePets(
+                new PetSelection(update.ids(), update.ownerId(), update.petType()), update.inZone(),
+                update.trackerType()));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<BulkWriteResult> deletePets(@RequestParam(required = false) List<Long> ids,
+                                                      @RequestParam(required = false) Integer ownerId,
+                                                      @RequestParam(required = false) PetType petType) {
+        awaitCommitted(ids);
+        return ResponseEntity.ok(petService.deletePets(new PetSelection(ids, ownerId, petType)));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Pet> getPetById(@PathVariable Long id) {
+        petWriteBehindBuffer.awaitCommitted(id);
         return ResponseEntity.ok(petService.getPetById(id));
     }
 
-    @GetMapping("/owner/{ownerId}")
-    public ResponseEntity<List<Pet>> getPetsByOwnerId(@PathVariable Integer ownerId) {
-        return ResponseEntity.ok(petService.getPetsByOwnerId(ownerId));
+    @GetMapping(value = "/owner/{ownerId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<PetView>> getPetsByOwnerId(@PathVariable Integer ownerId,
+                                                          @RequestParam(required = false) Long after,
+                                                          @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return ResponseEntity.ok(petService.getPetsByOwnerId(ownerId));
+        }
+        int pageSize = pageSize(limit);
+        return page(petService.getPetsByOwnerId(ownerId, after, pageSize), pageSize);
+    }
+
+    @GetMapping("/{id}/time-outside-zone")
+    public ResponseEntity<PetTimeOutsideZone> getPetTimeOutsideZone(@PathVariable Long id,
+                                                                    @RequestParam(required = false) Instant from,
+                                                                    @RequestParam(required = false) Instant to) {
+        return ResponseEntity.ok(zoneHistoryService.getTimeOutsideZone(id, from, to));
+    }
+
+    @GetMapping("/owner/{ownerId}/time-outside-zone")
+    public ResponseEntity<OwnerTimeOutsideZone> getOwnerTimeOutsideZone(@PathVariable Integer ownerId,
+                                                                        @RequestParam(required = false) Instant from,
+                                                                        @RequestParam(required = false) Instant to) {
+        return ResponseEntity.ok(zoneHistoryService.getTimeOutsideZoneByOwner(ownerId, from, to));
+    }
+
+    @GetMapping(value = "/owner/{ownerId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPetsByOwnerId(@PathVariable Integer ownerId) {
+        return ndjson(action -> petService.forEachPetByOwnerId(ownerId, action));
     }
 
     @GetMapping("/cats")
-    public ResponseEntity<List<Cat>> getAllCats() {
+    public ResponseEntity<List<PetView>> getAllCats() {
         return ResponseEntity.ok(petService.getAllCats());
     }
 
     @GetMapping("/dogs")
-    public ResponseEntity<List<Dog>> getAllDogs() {
+    public ResponseEntity<List<PetView>> getAllDogs() {
         return ResponseEntity.ok(petService.getAllDogs());
     }
+
+    // With write-behind the pet is only queued; its id is already final, so clients can poll it right away
+    private ResponseEntity<Pet> create(Pet pet) {
+        if (!petWriteBehindBuffer.isEnabled()) {
+            return ResponseEntity.ok(petService.savePet(pet));
+        }
+        Pet accepted = petWriteBehindBuffer.submit(pet);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/api/pets/{id}")
+                        .buildAndExpand(accepted.getId())
+                        .toUri())
+                .body(accepted);
+    }
+
+    private void awaitCommitted(List<Long> ids) {
+        if (ids != null) {
+            ids.stream().filter(Objects::nonNull).forEach(petWriteBehindBuffer::awaitCommitted);
+        }
+    }
+
+    private int pageSize(Integer limit) {
+        int requested = limit == null ? listingProperties.getDefaultPageSize() : limit;
+        return Math.max(1, Math.min(requested, listingProperties.getMaxPageSize()));
+    }
+
+    // A full page means there may be more rows; the next page starts after the last id returned
+    private ResponseEntity<List<PetView>> page(List<PetView> pets, int pageSize) {
+        if (pets.size() < pageSize) {
+            return ResponseEntity.ok(pets);
+        }
+        Long lastId = pets.getLast().id();
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", lastId)
+                .replaceQueryParam("limit", pageSize)
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(pets);
+    }
+
+    // Pets are written as they are read, so the response never holds more than one pet in memory
+    private ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<Pet>> source) {
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = ndjsonWriter.writeValues(out)) {
+                source.accept(pet -> {
+                    try {
+                        writer.write(pet);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
 }
@@ -0,0 +1,10 @@
+package com.screening.pettrackingapp.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch ingest. {@code ids} holds the ids of the saved pets in payload order,
+ * {@code errors} holds one entry per rejected item.
+ */
+public record BatchIngestResult(int received, int saved, int failed, List<Long> ids, List<BatchItemError> errors) {
+}
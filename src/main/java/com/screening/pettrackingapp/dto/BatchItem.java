@@ -0,0 +1,17 @@
+package com.screening.pettrackingapp.dto;
+
+import com.screening.pettrackingapp.entity.Pet;
+
+/**
+ * One decoded element of a batch payload: either a pet or the reason it could not be read.
+ */
+public record BatchItem(int index, Pet pet, String error) {
+
+    public static BatchItem of(int index, Pet pet) {
+        return new BatchItem(index, pet, null);
+    }
+
+    public static BatchItem failed(int index, String error) {
+        return new BatchItem(index, null, error);
+    }
+}
@@ -0,0 +1,14 @@
+package com.screening.pettrackingapp.dto;
+
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+
+import java.util.List;
+
+/**
+ * Body of a bulk update: the pets with the given ids, owner and pet type get the given {@code inZone} and
+ * {@code trackerType}. Criteria and values left out are not applied.
+ */
+public record BulkPetUpdate(List<Long> ids, Integer ownerId, PetType petType, Boolean inZone,
+                            TrackerType trackerType) {
+}
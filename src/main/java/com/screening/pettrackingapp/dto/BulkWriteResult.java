@@ -0,0 +1,8 @@
+package com.screening.pettrackingapp.dto;
+
+/**
+ * Outcome of a bulk write: {@code matched} pets were selected and {@code affected} of them were changed, pets that
+ * already had the requested values being left alone.
+ */
+public record BulkWriteResult(int matched, int affected) {
+}
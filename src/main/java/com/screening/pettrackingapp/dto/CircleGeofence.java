@@ -0,0 +1,10 @@
+package com.screening.pettrackingapp.dto;
+
+public record CircleGeofence(Long id, Integer ownerId, Double latitude, Double longitude, Double radiusMeters)
+        implements Geofence {
+
+    @Override
+    public CircleGeofence withId(Long id, Integer ownerId) {
+        return new CircleGeofence(id, ownerId, latitude, longitude, radiusMeters);
+    }
+}
@@ -0,0 +1,7 @@
+package com.screening.pettrackingapp.dto;
+
+/**
+ * A WGS84 position in decimal degrees: a tracker reading or a polygon vertex.
+ */
+public record GeoPoint(Double latitude, Double longitude) {
+}
@@ -0,0 +1,22 @@
+package com.screening.pettrackingapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * A power-saving zone of an owner; pets of that owner are in their zone while their readings fall inside one.
+ * Ids are assigned by the service.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "shape")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = CircleGeofence.class, name = "CIRCLE"),
+        @JsonSubTypes.Type(value = PolygonGeofence.class, name = "POLYGON")
+})
+public sealed interface Geofence permits CircleGeofence, PolygonGeofence {
+
+    Long id();
+
+    Integer ownerId();
+
+    Geofence withId(Long id, Integer ownerId);
+}
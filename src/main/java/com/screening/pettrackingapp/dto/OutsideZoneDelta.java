@@ -0,0 +1,7 @@
+package com.screening.pettrackingapp.dto;
+
+/**
+ * Change of one outside-zone count; {@code count} is the value after the change was applied.
+ */
+public record OutsideZoneDelta(String key, long delta, long count) {
+}
@@ -0,0 +1,11 @@
+package com.screening.pettrackingapp.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Time the owner's pets spent outside the zone, in total and per pet id.
+ */
+public record OwnerTimeOutsideZone(Integer ownerId, Instant from, Instant to, long outsideMillis,
+                                   Map<Long, Long> pets) {
+}
@@ -0,0 +1,10 @@
+package com.screening.pettrackingapp.dto;
+
+import com.screening.pettrackingapp.repository.PetView;
+
+/**
+ * The latest change to a pet. {@code removed} marks a tombstone: the pet was deleted or, in an owner's changes,
+ * moved to another owner; {@code pet} is then {@code null}.
+ */
+public record PetChange(long version, Long id, boolean removed, PetView pet) {
+}
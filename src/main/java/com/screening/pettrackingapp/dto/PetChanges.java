@@ -0,0 +1,10 @@
+package com.screening.pettrackingapp.dto;
+
+import java.util.List;
+
+/**
+ * Changes after the requested version, at most one per pet. {@code version} is where the next request continues;
+ * {@code more} is set when changes beyond it are already waiting.
+ */
+public record PetChanges(long version, boolean more, List<PetChange> changes) {
+}
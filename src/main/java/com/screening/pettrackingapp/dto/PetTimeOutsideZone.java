@@ -0,0 +1,6 @@
+package com.screening.pettrackingapp.dto;
+
+import java.time.Instant;
+
+public record PetTimeOutsideZone(Long petId, Instant from, Instant to, long outsideMillis) {
+}
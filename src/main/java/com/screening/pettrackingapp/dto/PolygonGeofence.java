@@ -0,0 +1,14 @@
+package com.screening.pettrackingapp.dto;
+
+import java.util.List;
+
+/**
+ * A simple polygon; the edge from the last vertex back to the first is implied.
+ */
+public record PolygonGeofence(Long id, Integer ownerId, List<GeoPoint> vertices) implements Geofence {
+
+    @Override
+    public PolygonGeofence withId(Long id, Integer ownerId) {
+        return new PolygonGeofence(id, ownerId, vertices);
+    }
+}
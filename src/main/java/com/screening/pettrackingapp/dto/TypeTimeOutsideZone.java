@@ -0,0 +1,10 @@
+package com.screening.pettrackingapp.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Time spent outside the zone keyed by pet type and tracker type, e.g. {@code CAT-SMALL}.
+ */
+public record TypeTimeOutsideZone(Instant from, Instant to, Map<String, Long> outsideMillis) {
+}
@@ -0,0 +1,7 @@
+package com.screening.pettrackingapp.dto;
+
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+
+public record ZoneTransition(Long petId, PetType petType, TrackerType trackerType, Integer ownerId, Boolean inZone) {
+}
@@ -0,0 +1,4 @@
+package com.screening.pettrackingapp.dto;
+
+public record ZoneUpdate(Boolean inZone) {
+}
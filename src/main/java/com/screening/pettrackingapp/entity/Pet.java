@@ -1,5 +1,7 @@
 package com.screening.pettrackingapp.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import jakarta.persistence.*;
@@ -7,6 +9,11 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 @Entity
 @Data
@@ -14,6 +21,14 @@ import lombok.experimental.SuperBuilder;
 @NoArgsConstructor
 @AllArgsConstructor
 @Inheritance(strategy = InheritanceType.JOINED)
+// The composite indexes cover the fleet statistics, fleet-wide and per owner, so they are counted from the index alone
+@Table(indexes = {
+        @Index(name = "idx_pet_owner_id", columnList = "ownerId, id"),
+        @Index(name = "idx_pet_type_tracker_zone", columnList = "petType, trackerType, inZone"),
+        @Index(name = "idx_pet_owner_type_tracker_zone", columnList = "ownerId, petType, trackerType, inZone")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Pet.CACHE_REGION)
 @JsonTypeInfo(
         use = JsonTypeInfo.Id.NAME,
         include = JsonTypeInfo.As.EXISTING_PROPERTY,
@@ -24,8 +39,17 @@ import lombok.experimental.SuperBuilder;
         @JsonSubTypes.Type(value = Dog.class, name = "DOG")
 })
 public abstract class Pet {
+    // Cats and dogs share the root's region, entries remember their subclass
+    public static final String CACHE_REGION = "pet";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "pet_seq")
+    @GenericGenerator(name = "pet_seq", type = PetIdGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "pet_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50")
+    })
+    // Written but never read: ids come from the sequence, or from a reservation by write-behind ingest
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private Long id;
     @Enumerated(EnumType.STRING)
     private PetType petType;
@@ -33,5 +57,8 @@ public abstract class Pet {
     private TrackerType trackerType;
     private Integer ownerId;
     private Boolean inZone;
+    @Version
+    @JsonIgnore
+    private Long version;
 
 }
\ No newline at end of file
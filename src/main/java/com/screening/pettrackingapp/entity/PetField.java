@@ -0,0 +1,30 @@
+package com.screening.pettrackingapp.entity;
+
+/**
+ * Optional pet fields that compatibility rules can require or forbid per {@link PetType}.
+ */
+public enum PetField {
+    TRACKER_TYPE("trackerType"),
+    OWNER_ID("ownerId"),
+    IN_ZONE("inZone"),
+    LOST_TRACKER("lostTracker");
+
+    private final String propertyName;
+
+    PetField(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    public String propertyName() {
+        return propertyName;
+    }
+
+    public boolean isSet(Pet pet) {
+        return switch (this) {
+            case TRACKER_TYPE -> pet.getTrackerType() != null;
+            case OWNER_ID -> pet.getOwnerId() != null;
+            case IN_ZONE -> pet.getInZone() != null;
+            case LOST_TRACKER -> pet instanceof Cat cat && cat.getLostTracker() != null;
+        };
+    }
+}
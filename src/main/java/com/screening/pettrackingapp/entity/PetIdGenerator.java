@@ -0,0 +1,24 @@
+package com.screening.pettrackingapp.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+/**
+ * The {@code pet_seq} generator, except that an id reserved up front (by write-behind ingest) is kept on insert.
+ * Clients cannot set one: {@link Pet#getId()} is read-only in every request body.
+ */
+public class PetIdGenerator extends SequenceStyleGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        if (object instanceof Pet pet && pet.getId() != null) {
+            return pet.getId();
+        }
+        return super.generate(session, object);
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+}
@@ -0,0 +1,22 @@
+package com.screening.pettrackingapp.event;
+
+import com.screening.pettrackingapp.entity.Pet;
+
+/**
+ * Published by the service for every pet write. {@code before} is {@code null} for a created pet and
+ * {@code after} is {@code null} for a deleted one.
+ */
+public record PetChangedEvent(PetSnapshot before, PetSnapshot after) {
+
+    public static PetChangedEvent created(Pet pet) {
+        return new PetChangedEvent(null, PetSnapshot.of(pet));
+    }
+
+    public static PetChangedEvent updated(PetSnapshot before, Pet pet) {
+        return new PetChangedEvent(before, PetSnapshot.of(pet));
+    }
+
+    public static PetChangedEvent deleted(Pet pet) {
+        return new PetChangedEvent(PetSnapshot.of(pet), null);
+    }
+}
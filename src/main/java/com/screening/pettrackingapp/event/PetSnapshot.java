@@ -0,0 +1,24 @@
+package com.screening.pettrackingapp.event;
+
+import com.screening.pettrackingapp.entity.Cat;
+import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+
+/**
+ * Immutable copy of the tracked state of a pet, taken at the moment of a write so that
+ * listeners never observe an entity that has been modified afterwards.
+ */
+public record PetSnapshot(Long id, PetType petType, TrackerType trackerType, Integer ownerId, Boolean inZone,
+                          Boolean lostTracker) {
+
+    public static PetSnapshot of(Pet pet) {
+        Boolean lostTracker = pet instanceof Cat cat ? cat.getLostTracker() : null;
+        return new PetSnapshot(pet.getId(), pet.getPetType(), pet.getTrackerType(), pet.getOwnerId(),
+                pet.getInZone(), lostTracker);
+    }
+
+    public boolean isOutsideZone() {
+        return Boolean.FALSE.equals(inZone);
+    }
+}
@@ -0,0 +1,21 @@
+package com.screening.pettrackingapp.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when write-behind ingest cannot take or finish a request right now, in which case the client should retry,
+ * or when a pet it accepted could not be saved ({@code 410 Gone}).
+ */
+public class IngestRejectedException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public IngestRejectedException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,12 @@
+package com.screening.pettrackingapp.exception;
+
+/**
+ * Thrown when the changes a client asks for are no longer retained, or the version was never handed out by this
+ * instance; the client has to reload the pets and sync from a fresh version.
+ */
+public class ResyncRequiredException extends RuntimeException {
+
+    public ResyncRequiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,423 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.entity.*;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Lock-free pet store kept entirely in memory.
+ * <p>
+ * Pets live in an id-ordered concurrent map and are replaced, never mutated, with a compare-and-set on the current
+ * version. Secondary indexes on owner, outside-zone and lost-tracker are maintained after each replace and may
+ * briefly hold extra ids, so lookups re-check every candidate against the map; an id is only removed from an index
+ * after re-checking that the current version no longer belongs there.
+ */
+@Repository
+@ConditionalOnProperty(name = "pettracker.store", havingValue = "memory")
+public class InMemoryPetStore implements PetStore {
+
+    private final ConcurrentSkipListMap<Long, Pet> pets = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Integer, ConcurrentSkipListSet<Long>> idsByOwner = new ConcurrentHashMap<>();
+    private final Set<Long> outsideZoneIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> lostTrackerIds = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Override
+    public Pet save(Pet pet) {
+        if (pet.getVersion() == null) {
+            if (pet.getId() == null) {
+                pet.setId(sequence.incrementAndGet());
+            }
+            pet.setVersion(0L);
+            Pet stored = copy(pet);
+            if (pets.putIfAbsent(stored.getId(), stored) != null) {
+                pet.setVersion(null);
+                throw new DuplicateKeyException("Pet " + stored.getId() + " already exists");
+            }
+            index(null, stored);
+            return pet;
+        }
+        Pet current = pets.get(pet.getId());
+        if (current == null || !Objects.equals(current.getVersion(), pet.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Pet.class, pet.getId());
+        }
+        Pet updated = copy(pet);
+        updated.setVersion(current.getVersion() + 1);
+        if (!pets.replace(pet.getId(), current, updated)) {
+            throw new ObjectOptimisticLockingFailureException(Pet.class, pet.getId());
+        }
+        index(current, updated);
+        return copy(updated);
+    }
+
+    @Override
+    public Long reserveId(Pet pet) {
+        return sequence.incrementAndGet();
+    }
+
+    // All or nothing, as in one transaction: if a pet fails, those this call already stored are put back as they were
+    @Override
+    public List<Pet> saveAll(List<Pet> pets) {
+        List<Pet> savedPets = new ArrayList<>(pets.size());
+        List<Pet> originals = new ArrayList<>(pets.size());
+        List<Pet> replacements = new ArrayList<>(pets.size());
+        for (Pet pet : pets) {
+            Pet original = pet.getVersion() == null ? null : this.pets.get(pet.getId());
+            Pet saved;
+            try {
+                saved = save(pet);
+            } catch (RuntimeException ex) {
+                undo(originals, replacements);
+                // Inserted pets can be saved again, like the single pet that failed
+                for (int i = 0; i < originals.size(); i++) {
+                    if (originals.get(i) == null) {
+                        pets.get(i).setVersion(null);
+                    }
+                }
+                throw ex;
+            }
+            savedPets.add(saved);
+            originals.add(original);
+            replacements.add(this.pets.get(saved.getId()));
+        }
+        return savedPets;
+    }
+
+    @Override
+    public Optional<Pet> findById(Long id) {
+        return Optional.ofNullable(pets.get(id)).map(InMemoryPetStore::copy);
+    }
+
+    @Override
+    public Optional<PetState> findStateById(Long id) {
+        return Optional.ofNullable(pets.get(id)).map(PetState::of);
+    }
+
+    @Override
+    public int updateInZone(Long id, Boolean inZone, Long version) {
+        Pet current = pets.get(id);
+        if (current == null || !Objects.equals(current.getVersion(), version)) {
+            return 0;
+        }
+        Pet updated = copy(current);
+        updated.setInZone(inZone);
+        updated.setVersion(version + 1);
+        if (!pets.replace(id, current, updated)) {
+            return 0;
+        }
+        index(current, updated);
+        return 1;
+    }
+
+    @Override
+    public List<PetState> findStates(PetSelection selection) {
+        Stream<Pet> candidates;
+        if (selection.ownerId() != null) {
+            candidates = byOwner(selection.ownerId(), ownerIds(selection.ownerId()));
+        } else if (selection.ids() != null) {
+            candidates = selection.ids().stream().map(pets::get).filter(Objects::nonNull);
+        } else {
+            candidates = pets.values().stream();
+        }
+        return candidates.map(PetState::of).filter(selection::matches).toList();
+    }
+
+    @Override
+    public void updateAll(List<PetState> pets, Boolean inZone, TrackerType trackerType) {
+        replaceAll(pets, current -> {
+            Pet updated = copy(current);
+            if (inZone != null) {
+                updated.setInZone(inZone);
+            }
+            if (trackerType != null) {
+                updated.setTrackerType(trackerType);
+            }
+            updated.setVersion(current.getVersion() + 1);
+            return updated;
+        });
+    }
+
+    @Override
+    public void delete(Pet pet) {
+        Pet removed = pets.remove(pet.getId());
+        if (removed != null) {
+            index(removed, null);
+        }
+    }
+
+    @Override
+    public void deleteAll(List<PetState> pets) {
+        replaceAll(pets, current -> null);
+    }
+
+    @Override
+    public void deleteAll() {
+        pets.clear();
+        idsByOwner.clear();
+        outsideZoneIds.clear();
+        lostTrackerIds.clear();
+    }
+
+    @Override
+    public List<Pet> findAll() {
+        return pets.values().stream().map(InMemoryPetStore::copy).toList();
+    }
+
+    @Override
+    public List<Pet> findAfter(Long afterId, int limit) {
+        return pets.tailMap(afterId == null ? 0L : afterId, false).values().stream()
+                .limit(limit)
+                .map(InMemoryPetStore::copy)
+                .toList();
+    }
+
+    @Override
+    public void forEachPet(Consumer<? super Pet> action) {
+        pets.values().forEach(pet -> action.accept(copy(pet)));
+    }
+
+    @Override
+    public List<Pet> findByOwnerId(Integer ownerId) {
+        return byOwner(ownerId, ownerIds(ownerId)).map(InMemoryPetStore::copy).toList();
+    }
+
+    @Override
+    public List<Pet> findByOwnerIdAfter(Integer ownerId, Long afterId, int limit) {
+        return byOwner(ownerId, ownerIds(ownerId).tailSet(afterId == null ? 0L : afterId, false))
+                .limit(limit)
+                .map(InMemoryPetStore::copy)
+                .toList();
+    }
+
+    @Override
+    public void forEachPetByOwnerId(Integer ownerId, Consumer<? super Pet> action) {
+        byOwner(ownerId, ownerIds(ownerId)).map(InMemoryPetStore::copy).forEach(action);
+    }
+
+    @Override
+    public List<Cat> findByLostTrackerTrue() {
+        return lookup(lostTrackerIds, InMemoryPetStore::isLostTracker)
+                .sorted(Comparator.comparing(Pet::getId))
+                .map(pet -> (Cat) copy(pet))
+                .toList();
+    }
+
+    @Override
+    public List<OutsideZoneCount> countOutsideZone() {
+        Map<PetType, Map<TrackerType, Long>> totals = new EnumMap<>(PetType.class);
+        lookup(outsideZoneIds, InMemoryPetStore::isOutsideZone)
+                .filter(pet -> pet.getPetType() != null && pet.getTrackerType() != null)
+                .forEach(pet -> totals.computeIfAbsent(pet.getPetType(), type -> new EnumMap<>(TrackerType.class))
+                        .merge(pet.getTrackerType(), 1L, Long::sum));
+        List<OutsideZoneCount> counts = new ArrayList<>();
+        totals.forEach((petType, byTracker) -> byTracker.forEach((trackerType, total) ->
+                counts.add(new Count(petType, trackerType, total))));
+        return counts;
+    }
+
+    @Override
+    public List<PetStats> countStats(PetStatsQuery query) {
+        Stream<Pet> candidates = query.ownerId() == null
+                ? pets.values().stream()
+                : byOwner(query.ownerId(), ownerIds(query.ownerId()));
+        Map<Map<String, Object>, PetStats> groups = new HashMap<>();
+        candidates.map(PetView::of)
+                .filter(query::matches)
+                .forEach(pet -> {
+                    Map<String, Object> group = query.group(pet);
+                    groups.merge(group, PetStats.of(group, pet), PetStats::plus);
+                });
+        // Like a database aggregate without GROUP BY, an ungrouped count always has its one row
+        if (groups.isEmpty() && query.groupBy().isEmpty()) {
+            return List.of(PetStats.none());
+        }
+        return List.copyOf(groups.values());
+    }
+
+    // Stored pets are replaced, never mutated, so views are taken from them without copying first
+    @Override
+    public List<PetView> findViews() {
+        return pets.values().stream().map(PetView::of).toList();
+    }
+
+    @Override
+    public List<PetView> findViewsAfter(Long afterId, int limit) {
+        return pets.tailMap(afterId == null ? 0L : afterId, false).values().stream()
+                .limit(limit)
+                .map(PetView::of)
+                .toList();
+    }
+
+    @Override
+    public List<PetView> findViewsByOwnerId(Integer ownerId) {
+        return byOwner(ownerId, ownerIds(ownerId)).map(PetView::of).toList();
+    }
+
+    @Override
+    public List<PetView> findViewsByOwnerIdAfter(Integer ownerId, Long afterId, int limit) {
+        return byOwner(ownerId, ownerIds(ownerId).tailSet(afterId == null ? 0L : afterId, false))
+                .limit(limit)
+                .map(PetView::of)
+                .toList();
+    }
+
+    @Override
+    public List<PetView> findViewsByPetType(PetType petType) {
+        return pets.values().stream()
+                .filter(pet -> pet.getPetType() == petType)
+                .map(PetView::of)
+                .toList();
+    }
+
+    // Pet by pet with the same compare-and-set as save; if one was changed concurrently, the pets already replaced
+    // are put back unless they were written again in between. A null replacement removes the pet.
+    private void replaceAll(List<PetState> states, UnaryOperator<Pet> replacement) {
+        List<Pet> originals = new ArrayList<>(states.size());
+        List<Pet> replacements = new ArrayList<>(states.size());
+        for (PetState state : states) {
+            Pet current = pets.get(state.id());
+            if (current == null || !Objects.equals(current.getVersion(), state.version())) {
+                undo(originals, replacements);
+                throw new ObjectOptimisticLockingFailureException(Pet.class, state.id());
+            }
+            Pet next = replacement.apply(current);
+            if (!swap(state.id(), current, next)) {
+                undo(originals, replacements);
+                throw new ObjectOptimisticLockingFailureException(Pet.class, state.id());
+            }
+            originals.add(current);
+            replacements.add(next);
+        }
+    }
+
+    // Either side is null where a pet was inserted or deleted
+    private void undo(List<Pet> originals, List<Pet> replacements) {
+        for (int i = originals.size() - 1; i >= 0; i--) {
+            Pet original = originals.get(i);
+            swap(original != null ? original.getId() : replacements.get(i).getId(), replacements.get(i), original);
+        }
+    }
+
+    private boolean swap(Long id, Pet expected, Pet replacement) {
+        boolean swapped = replacement == null ? pets.remove(id, expected)
+                : expected == null ? pets.putIfAbsent(id, replacement) == null
+                : pets.replace(id, expected, replacement);
+        if (swapped) {
+            index(expected, replacement);
+        }
+        return swapped;
+    }
+
+    private NavigableSet<Long> ownerIds(Integer ownerId) {
+        NavigableSet<Long> ids = ownerId == null ? null : idsByOwner.get(ownerId);
+        return ids == null ? Collections.emptyNavigableSet() : ids;
+    }
+
+    private Stream<Pet> byOwner(Integer ownerId, Set<Long> ids) {
+        return lookup(ids, pet -> ownerId.equals(pet.getOwnerId()));
+    }
+
+    private Stream<Pet> lookup(Set<Long> ids, Predicate<Pet> belongs) {
+        return ids.stream()
+                .map(pets::get)
+                .filter(pet -> pet != null && belongs.test(pet));
+    }
+
+    private void index(Pet before, Pet after) {
+        Long id = after != null ? after.getId() : before.getId();
+        Integer oldOwner = before == null ? null : before.getOwnerId();
+        Integer newOwner = after == null ? null : after.getOwnerId();
+
+        if (newOwner != null) {
+            idsByOwner.computeIfAbsent(newOwner, owner -> new ConcurrentSkipListSet<>()).add(id);
+        }
+        if (isOutsideZone(after)) {
+            outsideZoneIds.add(id);
+        }
+        if (isLostTracker(after)) {
+            lostTrackerIds.add(id);
+        }
+
+        if (oldOwner != null && !oldOwner.equals(newOwner)) {
+            unlink(idsByOwner.get(oldOwner), id, pet -> oldOwner.equals(pet.getOwnerId()));
+        }
+        if (isOutsideZone(before) && !isOutsideZone(after)) {
+            unlink(outsideZoneIds, id, InMemoryPetStore::isOutsideZone);
+        }
+        if (isLostTracker(before) && !isLostTracker(after)) {
+            unlink(lostTrackerIds, id, InMemoryPetStore::isLostTracker);
+        }
+    }
+
+    // A concurrent write may have moved the pet back in between, so re-add it if the current version still belongs
+    private void unlink(Set<Long> ids, Long id, Predicate<Pet> belongs) {
+        if (ids == null) {
+            return;
+        }
+        ids.remove(id);
+        Pet current = pets.get(id);
+        if (current != null && belongs.test(current)) {
+            ids.add(id);
+        }
+    }
+
+    private static boolean isOutsideZone(Pet pet) {
+        return pet != null && Boolean.FALSE.equals(pet.getInZone());
+    }
+
+    private static boolean isLostTracker(Pet pet) {
+        return Boolean.TRUE.equals(lostTracker(pet));
+    }
+
+    private static Boolean lostTracker(Pet pet) {
+        return pet instanceof Cat cat ? cat.getLostTracker() : null;
+    }
+
+    private static Pet copy(Pet pet) {
+        Pet copy;
+        if (pet instanceof Cat cat) {
+            Cat catCopy = new Cat();
+            catCopy.setLostTracker(cat.getLostTracker());
+            copy = catCopy;
+        } else {
+            copy = new Dog();
+        }
+        copy.setId(pet.getId());
+        copy.setPetType(pet.getPetType());
+        copy.setTrackerType(pet.getTrackerType());
+        copy.setOwnerId(pet.getOwnerId());
+        copy.setInZone(pet.getInZone());
+        copy.setVersion(pet.getVersion());
+        return copy;
+    }
+
+    private record Count(PetType petType, TrackerType trackerType, Long total) implements OutsideZoneCount {
+
+        @Override
+        public PetType getPetType() {
+            return petType;
+        }
+
+        @Override
+        public TrackerType getTrackerType() {
+            return trackerType;
+        }
+
+        @Override
+        public Long getTotal() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.entity.Cat;
+import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.Generator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+@Repository
+@ConditionalOnProperty(name = "pettracker.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaPetStore implements PetStore {
+
+    private final PetRepository petRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public JpaPetStore(PetRepository petRepository) {
+        this.petRepository = petRepository;
+    }
+
+    // Used for the stores of a ShardedPetStore, which are not Spring beans
+    JpaPetStore(PetRepository petRepository, EntityManager entityManager) {
+        this.petRepository = petRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Pet save(Pet pet) {
+        return petRepository.save(pet);
+    }
+
+    // Inserts a pet moved in from another shard, carrying its version over
+    Pet insertAtVersion(Pet pet, Long version) {
+        Pet saved = petRepository.saveAndFlush(pet);
+        entityManager.detach(saved);
+        petRepository.setVersion(saved.getId(), version);
+        saved.setVersion(version);
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public Long reserveId(Pet pet) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        Generator generator = session.getFactory().getMappingMetamodel().getEntityDescriptor(Pet.class).getGenerator();
+        return (Long) ((BeforeExecutionGenerator) generator).generate(session, null, null, EventType.INSERT);
+    }
+
+    @Override
+    @Transactional
+    public List<Pet> saveAll(List<Pet> pets) {
+        List<Pet> savedPets = petRepository.saveAll(pets);
+        petRepository.flush();
+        return savedPets;
+    }
+
+    @Override
+    public Optional<Pet> findById(Long id) {
+        return petRepository.findById(id);
+    }
+
+    // A bulk update evicts the whole entity cache region, so with the cache on the zone is changed on the entity
+    // instead: it usually comes from the cache, and updateInZone finds it again in the persistence context
+    @Override
+    public Optional<PetState> findStateById(Long id) {
+        if (entityCacheEnabled()) {
+            return petRepository.findById(id).map(PetState::of);
+        }
+        return petRepository.findStateById(id);
+    }
+
+    @Override
+    @Transactional
+    public int updateInZone(Long id, Boolean inZone, Long version) {
+        if (!entityCacheEnabled()) {
+            return petRepository.updateInZone(id, inZone, version);
+        }
+        Pet pet = entityManager.find(Pet.class, id);
+        if (pet == null || !pet.getVersion().equals(version)) {
+            return 0;
+        }
+        pet.setInZone(inZone);
+        entityManager.flush();
+        return 1;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PetState> findStates(PetSelection selection) {
+        return petRepository.findStates(selection);
+    }
+
+    // Unlike updateInZone this takes the bulk statements even with the cache on: evicting the region once is cheaper
+    // than loading every pet of the write
+    @Override
+    @Transactional
+    public void updateAll(List<PetState> pets, Boolean inZone, TrackerType trackerType) {
+        requireAll(pets, forEachBatch(pets, batch -> petRepository.updateAtVersions(batch, inZone, trackerType)));
+    }
+
+    // Puts pets back as they were read, versions included, to undo a write a ShardedPetStore could not finish
+    void restore(List<PetState> pets) {
+        pets.forEach(pet -> petRepository.setState(pet.id(), pet.inZone(), pet.trackerType(), pet.version()));
+    }
+
+    @Override
+    public void delete(Pet pet) {
+        petRepository.delete(pet);
+    }
+
+    @Override
+    public void deleteAll() {
+        petRepository.deleteAll();
+    }
+
+    @Override
+    @Transactional
+    public void deleteAll(List<PetState> pets) {
+        requireAll(pets, forEachBatch(pets, petRepository::deleteAtVersions));
+    }
+
+    // One statement per batch of pets, each checking every pet's own version
+    private static int forEachBatch(List<PetState> pets, ToIntFunction<List<PetState>> statement) {
+        int affected = 0;
+        for (int from = 0; from < pets.size(); from += PetRepository.MAX_IN_LIST) {
+            affected += statement.applyAsInt(pets.subList(from, Math.min(from + PetRepository.MAX_IN_LIST,
+                    pets.size())));
+        }
+        return affected;
+    }
+
+    // Throwing rolls back the statements already run
+    private static void requireAll(List<PetState> pets, int affected) {
+        if (affected != pets.size()) {
+            throw new ObjectOptimisticLockingFailureException("Only " + affected + " of " + pets.size()
+                    + " pets were still at the version they were read at", null);
+        }
+    }
+
+    @Override
+    public List<Pet> findAll() {
+        return petRepository.findAll();
+    }
+
+    @Override
+    public List<Pet> findAfter(Long afterId, int limit) {
+        return petRepository.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachPet(Consumer<? super Pet> action) {
+        petRepository.forEachPet(action);
+    }
+
+    @Override
+    public List<Pet> findByOwnerId(Integer ownerId) {
+        return petRepository.findByOwnerId(ownerId);
+    }
+
+    @Override
+    public List<Pet> findByOwnerIdAfter(Integer ownerId, Long afterId, int limit) {
+        return petRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(ownerId, afterId == null ? 0L : afterId,
+                Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachPetByOwnerId(Integer ownerId, Consumer<? super Pet> action) {
+        petRepository.forEachPetByOwnerId(ownerId, action);
+    }
+
+    @Override
+    public List<Cat> findByLostTrackerTrue() {
+        return petRepository.findByLostTrackerTrue();
+    }
+
+    @Override
+    public List<OutsideZoneCount> countOutsideZone() {
+        return petRepository.countOutsideZone();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PetStats> countStats(PetStatsQuery query) {
+        return petRepository.countStats(query);
+    }
+
+    private boolean entityCacheEnabled() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getSessionFactoryOptions().isSecondLevelCacheEnabled();
+    }
+
+    // Selected straight into records, so nothing enters the persistence context and there is nothing to flush
+    @Override
+    @Transactional(readOnly = true)
+    public List<PetView> findViews() {
+        return petRepository.findViews();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PetView> findViewsAfter(Long afterId, int limit) {
+        return petRepository.findViewsAfter(afterId == null ? 0L : afterId, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PetView> findViewsByOwnerId(Integer ownerId) {
+        return petRepository.findViewsByOwnerId(ownerId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PetView> findViewsByOwnerIdAfter(Integer ownerId, Long afterId, int limit) {
+        return petRepository.findViewsByOwnerIdAfter(ownerId, afterId == null ? 0L : afterId, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PetView> findViewsByPetType(PetType petType) {
+        return switch (petType) {
+            case CAT -> petRepository.findCatViews();
+            case DOG -> petRepository.findDogViews();
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+
+public interface OutsideZoneCount {
+    PetType getPetType();
+
+    TrackerType getTrackerType();
+
+    Long getTotal();
+}
@@ -0,0 +1,29 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.entity.TrackerType;
+
+import java.util.List;
+
+/**
+ * Bulk access to pets: selects the pets of a bulk write as scalar states, without hydrating any entity, and writes
+ * them with set-based statements that check every pet's version in the statement itself.
+ */
+public interface PetBulkRepository {
+
+    /**
+     * States of the pets matching the selection, in id order.
+     */
+    List<PetState> findStates(PetSelection selection);
+
+    /**
+     * Sets {@code inZone} and {@code trackerType}, where not null, on the pets still at the version they were read at;
+     * returns how many those were.
+     */
+    int updateAtVersions(List<PetState> pets, Boolean inZone, TrackerType trackerType);
+
+    /**
+     * Returns how many of the pets are still at the version they were read at, and deletes them only if that is all
+     * of them.
+     */
+    int deleteAtVersions(List<PetState> pets);
+}
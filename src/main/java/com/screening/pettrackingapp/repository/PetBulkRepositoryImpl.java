@@ -0,0 +1,180 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.entity.Cat;
+import com.screening.pettrackingapp.entity.Dog;
+import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.entity.TrackerType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.MappingMetamodel;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.query.NativeQuery;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes go straight to the tables, with names taken from the mapping so both inheritance strategies work: Hibernate
+ * runs bulk HQL on a JOINED hierarchy through a temporary id table and checks versions while filling it, not in the
+ * UPDATE itself, and some databases then rescan that table for every pet row.
+ */
+class PetBulkRepositoryImpl implements PetBulkRepository {
+
+    private static final String SELECT_STATE = "select new com.screening.pettrackingapp.repository.PetState(p.id, " +
+            "p.petType, p.trackerType, p.ownerId, p.inZone, treat(p as Cat).lostTracker, p.version) from Pet p ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    private volatile Tables tables;
+
+    PetBulkRepositoryImpl() {
+    }
+
+    PetBulkRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // Ids are sorted, so querying them a batch at a time still returns the states in id order
+    @Override
+    public List<PetState> findStates(PetSelection selection) {
+        if (selection.ids() == null) {
+            return findStates(selection, null);
+        }
+        List<Long> ids = selection.ids();
+        List<PetState> states = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += PetRepository.MAX_IN_LIST) {
+            states.addAll(findStates(selection, ids.subList(from, Math.min(from + PetRepository.MAX_IN_LIST,
+                    ids.size()))));
+        }
+        return states;
+    }
+
+    // JPQL rather than criteria: Hibernate caches the plan of each of the few query strings, not of criteria queries
+    private List<PetState> findStates(PetSelection selection, List<Long> ids) {
+        List<String> filters = new ArrayList<>();
+        if (ids != null) {
+            filters.add("p.id in :ids");
+        }
+        if (selection.ownerId() != null) {
+            filters.add("p.ownerId = :ownerId");
+        }
+        if (selection.petType() != null) {
+            filters.add("p.petType = :petType");
+        }
+        String where = filters.isEmpty() ? "" : "where " + String.join(" and ", filters) + " ";
+        TypedQuery<PetState> query = entityManager.createQuery(SELECT_STATE + where + "order by p.id",
+                PetState.class);
+        if (ids != null) {
+            query.setParameter("ids", ids);
+        }
+        if (selection.ownerId() != null) {
+            query.setParameter("ownerId", selection.ownerId());
+        }
+        if (selection.petType() != null) {
+            query.setParameter("petType", selection.petType());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public int updateAtVersions(List<PetState> pets, Boolean inZone, TrackerType trackerType) {
+        Tables tables = tables();
+        StringBuilder sql = new StringBuilder("update ").append(tables.root).append(" set ");
+        if (inZone != null) {
+            sql.append(tables.inZone).append(" = :inZone, ");
+        }
+        if (trackerType != null) {
+            sql.append(tables.trackerType).append(" = :trackerType, ");
+        }
+        sql.append(tables.version).append(" = ").append(tables.version).append(" + 1 where ");
+        Query query = atVersions(sql, tables, pets);
+        if (inZone != null) {
+            query.setParameter("inZone", inZone);
+        }
+        if (trackerType != null) {
+            query.setParameter("trackerType", trackerType.name());
+        }
+        return query.executeUpdate();
+    }
+
+    // Bumping the versions first checks them and locks the rows, so no pet can change before its rows are deleted
+    @Override
+    public int deleteAtVersions(List<PetState> pets) {
+        int current = updateAtVersions(pets, null, null);
+        if (current != pets.size()) {
+            return current;
+        }
+        Tables tables = tables();
+        List<Long> ids = pets.stream().map(PetState::id).toList();
+        tables.subclasses.forEach((table, key) -> nativeQuery("delete from " + table + " where " + key + " in (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate());
+        nativeQuery("delete from " + tables.root + " where " + tables.id + " in (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        return current;
+    }
+
+    // Every pet's id and version in one row-value list, whatever versions the pets were read at. The plain id list
+    // keeps the primary key index in use where a database does not look up row values by it. Both lists are padded
+    // to a power of two by repeating the last pet, as in_clause_parameter_padding does for Hibernate's own IN lists,
+    // so a few statement strings serve every batch size.
+    private Query atVersions(StringBuilder sql, Tables tables, List<PetState> pets) {
+        int padded = pets.size() == 1 ? 1 : Integer.highestOneBit(pets.size() - 1) << 1;
+        sql.append(tables.id).append(" in (:ids) and (").append(tables.id).append(", ").append(tables.version)
+                .append(") in (");
+        for (int i = 0; i < padded; i++) {
+            sql.append(i == 0 ? "" : ", ").append("(:id").append(i).append(", :version").append(i).append(")");
+        }
+        List<Long> ids = new ArrayList<>(padded);
+        Query query = nativeQuery(sql.append(")").toString());
+        for (int i = 0; i < padded; i++) {
+            PetState pet = pets.get(Math.min(i, pets.size() - 1));
+            ids.add(pet.id());
+            query.setParameter("id" + i, pet.id()).setParameter("version" + i, pet.version());
+        }
+        return query.setParameter("ids", ids);
+    }
+
+    // Synchronized with the pet entities, so only their cache region is evicted rather than every region
+    private Query nativeQuery(String sql) {
+        Query query = entityManager.createNativeQuery(sql);
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(Pet.class);
+        return query;
+    }
+
+    private Tables tables() {
+        Tables resolved = tables;
+        if (resolved == null) {
+            MappingMetamodel metamodel = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class).getMappingMetamodel();
+            resolved = Tables.of((AbstractEntityPersister) metamodel.getEntityDescriptor(Pet.class),
+                    List.of((AbstractEntityPersister) metamodel.getEntityDescriptor(Cat.class),
+                            (AbstractEntityPersister) metamodel.getEntityDescriptor(Dog.class)));
+            tables = resolved;
+        }
+        return resolved;
+    }
+
+    // Subclass tables map to their key column; with SINGLE_TABLE there are none
+    private record Tables(String root, String id, String version, String inZone, String trackerType,
+                          Map<String, String> subclasses) {
+
+        static Tables of(AbstractEntityPersister root, List<AbstractEntityPersister> subclasses) {
+            Map<String, String> subclassTables = new LinkedHashMap<>();
+            for (AbstractEntityPersister subclass : subclasses) {
+                for (int table = 1; table < subclass.getTableSpan(); table++) {
+                    subclassTables.put(subclass.getTableName(table), subclass.getKeyColumns(table)[0]);
+                }
+            }
+            return new Tables(root.getTableName(), root.getIdentifierColumnNames()[0], root.getVersionColumnName(),
+                    root.getPropertyColumnNames("inZone")[0], root.getPropertyColumnNames("trackerType")[0],
+                    subclassTables);
+        }
+    }
+}
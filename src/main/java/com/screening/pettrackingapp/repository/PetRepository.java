@@ -2,16 +2,76 @@ package com.screening.pettrackingapp.repository;
 
 import com.screening.pettrackingapp.entity.Cat;
 import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.entity.TrackerType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface PetRepository extends JpaRepository<Pet, Long> {
+public interface PetRepository extends JpaRepository<Pet, Long>, PetStreamRepository, PetStatsRepository,
+        PetBulkRepository {
+
+    String SELECT_VIEW = "select new com.screening.pettrackingapp.repository.PetView(p.id, p.petType, " +
+            "p.trackerType, p.ownerId, p.inZone, treat(p as Cat).lostTracker) from Pet p ";
+
+    // Ids bound per IN list, within the parameter limits of every supported database
+    int MAX_IN_LIST = 1_000;
+
     List<Pet> findByInZoneFalse();
 
     List<Pet> findByOwnerId(Integer ownerId);
 
+    List<Pet> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<Pet> findByOwnerIdAndIdGreaterThanOrderByIdAsc(Integer ownerId, Long id, Limit limit);
+
+    @Query("select c from Cat c where c.lostTracker = true")
     List<Cat> findByLostTrackerTrue();
+
+    @Query("select p.petType as petType, p.trackerType as trackerType, count(p) as total from Pet p " +
+            "where p.inZone = false group by p.petType, p.trackerType")
+    List<OutsideZoneCount> countOutsideZone();
+
+    @Query("select new com.screening.pettrackingapp.repository.PetState(p.id, p.petType, p.trackerType, p.ownerId, " +
+            "p.inZone, treat(p as Cat).lostTracker, p.version) from Pet p where p.id = :id")
+    Optional<PetState> findStateById(Long id);
+
+    @Query(SELECT_VIEW + "order by p.id")
+    List<PetView> findViews();
+
+    @Query(SELECT_VIEW + "where p.id > :afterId order by p.id")
+    List<PetView> findViewsAfter(Long afterId, Limit limit);
+
+    @Query(SELECT_VIEW + "where p.ownerId = :ownerId order by p.id")
+    List<PetView> findViewsByOwnerId(Integer ownerId);
+
+    @Query(SELECT_VIEW + "where p.ownerId = :ownerId and p.id > :afterId order by p.id")
+    List<PetView> findViewsByOwnerIdAfter(Integer ownerId, Long afterId, Limit limit);
+
+    // Per subclass, so only that subclass's rows are read rather than every pet joined to both tables
+    @Query("select new com.screening.pettrackingapp.repository.PetView(c.id, c.petType, c.trackerType, c.ownerId, " +
+            "c.inZone, c.lostTracker) from Cat c order by c.id")
+    List<PetView> findCatViews();
+
+    @Query("select new com.screening.pettrackingapp.repository.PetView(d.id, d.petType, d.trackerType, d.ownerId, " +
+            "d.inZone, cast(null as Boolean)) from Dog d order by d.id")
+    List<PetView> findDogViews();
+
+    @Modifying
+    @Query("update Pet p set p.inZone = :inZone, p.version = p.version + 1 where p.id = :id and p.version = :version")
+    int updateInZone(Long id, Boolean inZone, Long version);
+
+    @Modifying
+    @Query("update Pet p set p.version = :version where p.id = :id")
+    int setVersion(Long id, Long version);
+
+    @Modifying
+    @Query("update Pet p set p.inZone = :inZone, p.trackerType = :trackerType, p.version = :version " +
+            "where p.id = :id")
+    int setState(Long id, Boolean inZone, TrackerType trackerType, Long version);
 }
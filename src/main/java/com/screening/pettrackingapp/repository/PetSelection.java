@@ -0,0 +1,33 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.entity.PetType;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * The pets a bulk write applies to: those matching every criterion given. A null criterion matches every pet; an
+ * empty id list matches none.
+ */
+public record PetSelection(List<Long> ids, Integer ownerId, PetType petType) {
+
+    public PetSelection {
+        ids = ids == null ? null : List.copyOf(new TreeSet<>(ids.stream().filter(Objects::nonNull).toList()));
+    }
+
+    /**
+     * Whether no criterion is set, so the selection would match every pet.
+     */
+    public boolean isEmpty() {
+        return ids == null && ownerId == null && petType == null;
+    }
+
+    // For the stores that select in memory
+    boolean matches(PetState pet) {
+        return (ids == null || Collections.binarySearch(ids, pet.id()) >= 0)
+                && (ownerId == null || ownerId.equals(pet.ownerId()))
+                && (petType == null || petType == pet.petType());
+    }
+}
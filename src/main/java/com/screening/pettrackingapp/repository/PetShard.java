@@ -0,0 +1,93 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.config.ShardingProperties;
+import com.screening.pettrackingapp.entity.Pet;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.orm.jpa.JpaDialect;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * One database of a {@link ShardedPetStore}: its own pool, Hibernate persistence unit and {@link PetRepository},
+ * configured like the primary one from {@code spring.jpa.*}. Every call runs in its own shard transaction.
+ */
+final class PetShard implements AutoCloseable {
+
+    private final int index;
+    private final HikariDataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final JpaDialect jpaDialect;
+    private final JpaPetStore store;
+
+    PetShard(int index, ShardingProperties.Shard shard, JpaProperties jpaProperties,
+             HibernateProperties hibernateProperties) {
+        this.index = index;
+        this.dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(shard.getUrl())
+                .username(shard.getUsername())
+                .password(shard.getPassword())
+                .build();
+        dataSource.setPoolName("shard-" + index);
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setPersistenceUnitName("shard-" + index);
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan(Pet.class.getPackageName());
+        factory.setMappingResources(jpaProperties.getMappingResources().toArray(String[]::new));
+        HibernateJpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
+        this.jpaDialect = vendorAdapter.getJpaDialect();
+        factory.setJpaVendorAdapter(vendorAdapter);
+        Map<String, Object> properties = hibernateProperties.determineHibernateProperties(
+                jpaProperties.getProperties(), new HibernateSettings().ddlAuto(() -> "none"));
+        // The entity cache is set up for the primary persistence unit only
+        properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+        factory.setJpaPropertyMap(properties);
+        factory.afterPropertiesSet();
+        this.entityManagerFactory = factory.getObject();
+
+        this.transactionTemplate = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        PetRepository repository = new JpaRepositoryFactory(entityManager).getRepository(PetRepository.class,
+                RepositoryFragments.just(new PetStreamRepositoryImpl(entityManager),
+                        new PetStatsRepositoryImpl(entityManager), new PetBulkRepositoryImpl(entityManager)));
+        this.store = new JpaPetStore(repository, entityManager);
+    }
+
+    int index() {
+        return index;
+    }
+
+    // Repositories built here are not proxied, so persistence exceptions are translated by hand
+    <T> T call(Function<JpaPetStore, T> action) {
+        try {
+            return transactionTemplate.execute(status -> action.apply(store));
+        } catch (RuntimeException ex) {
+            DataAccessException translated = jpaDialect.translateExceptionIfPossible(ex);
+            throw translated != null ? translated : ex;
+        }
+    }
+
+    @Override
+    public void close() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+}
@@ -0,0 +1,24 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.entity.Cat;
+import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+import com.screening.pettrackingapp.event.PetSnapshot;
+
+/**
+ * Scalar projection of a pet row, read without hydrating the entity.
+ */
+public record PetState(Long id, PetType petType, TrackerType trackerType, Integer ownerId, Boolean inZone,
+                       Boolean lostTracker, Long version) {
+
+    public static PetState of(Pet pet) {
+        Boolean lostTracker = pet instanceof Cat cat ? cat.getLostTracker() : null;
+        return new PetState(pet.getId(), pet.getPetType(), pet.getTrackerType(), pet.getOwnerId(), pet.getInZone(),
+                lostTracker, pet.getVersion());
+    }
+
+    public PetSnapshot toSnapshot() {
+        return new PetSnapshot(id, petType, trackerType, ownerId, inZone, lostTracker);
+    }
+}
@@ -0,0 +1,63 @@
+package com.screening.pettrackingapp.repository;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.*;
+
+/**
+ * Counts for one group of a {@link PetStatsQuery}. {@code group} maps each grouped property, in the requested order,
+ * to its value, which may be null (dogs have no {@code lostTracker}); it is empty when nothing was grouped.
+ */
+public record PetStats(Map<String, Object> group, long total, long insideZone, long outsideZone, long lostTrackers) {
+
+    /**
+     * Groups in order of their values, property by property: nulls first, enums in declaration order.
+     */
+    public static final Comparator<PetStats> GROUP_ORDER = PetStats::compareGroups;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Comparator<Object> VALUE_ORDER = Comparator.nullsFirst((a, b) -> ((Comparable) a).compareTo(b));
+
+    public PetStats {
+        group = Collections.unmodifiableMap(new LinkedHashMap<>(group));
+    }
+
+    static PetStats of(Map<String, Object> group, PetView pet) {
+        return new PetStats(group, 1, Boolean.TRUE.equals(pet.inZone()) ? 1 : 0,
+                Boolean.FALSE.equals(pet.inZone()) ? 1 : 0, Boolean.TRUE.equals(pet.lostTracker()) ? 1 : 0);
+    }
+
+    static PetStats none() {
+        return new PetStats(Map.of(), 0, 0, 0, 0);
+    }
+
+    /**
+     * Adds up groups with the same values, such as the partial counts of several shards.
+     */
+    static List<PetStats> sum(Collection<PetStats> stats) {
+        Map<Map<String, Object>, PetStats> sums = new LinkedHashMap<>();
+        stats.forEach(partial -> sums.merge(partial.group(), partial, PetStats::plus));
+        return List.copyOf(sums.values());
+    }
+
+    @JsonProperty
+    public double lostTrackerRatio() {
+        return total == 0 ? 0 : (double) lostTrackers / total;
+    }
+
+    PetStats plus(PetStats other) {
+        return new PetStats(group, total + other.total, insideZone + other.insideZone, outsideZone + other.outsideZone,
+                lostTrackers + other.lostTrackers);
+    }
+
+    private static int compareGroups(PetStats left, PetStats right) {
+        Iterator<Object> rightValues = right.group.values().iterator();
+        for (Object leftValue : left.group.values()) {
+            int order = VALUE_ORDER.compare(leftValue, rightValues.next());
+            if (order != 0) {
+                return order;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,65 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+
+import java.util.*;
+
+/**
+ * Filters and grouping of a fleet statistics query. Null filters match every pet; without anything to group by the
+ * whole selection is counted as one group.
+ */
+public record PetStatsQuery(PetType petType, TrackerType trackerType, Integer ownerId, Boolean inZone,
+                            Boolean lostTracker, List<Dimension> groupBy) {
+
+    public PetStatsQuery {
+        groupBy = groupBy == null ? List.of() : List.copyOf(new LinkedHashSet<>(groupBy));
+    }
+
+    public enum Dimension {
+        PET_TYPE("petType"),
+        TRACKER_TYPE("trackerType"),
+        OWNER_ID("ownerId"),
+        IN_ZONE("inZone"),
+        LOST_TRACKER("lostTracker");
+
+        private final String propertyName;
+
+        Dimension(String propertyName) {
+            this.propertyName = propertyName;
+        }
+
+        public String propertyName() {
+            return propertyName;
+        }
+
+        public static Optional<Dimension> fromPropertyName(String propertyName) {
+            return Arrays.stream(values()).filter(dimension -> dimension.propertyName.equals(propertyName)).findFirst();
+        }
+
+        Object valueOf(PetView pet) {
+            return switch (this) {
+                case PET_TYPE -> pet.petType();
+                case TRACKER_TYPE -> pet.trackerType();
+                case OWNER_ID -> pet.ownerId();
+                case IN_ZONE -> pet.inZone();
+                case LOST_TRACKER -> pet.lostTracker();
+            };
+        }
+    }
+
+    // For the stores that count in memory; lostTracker filters only ever match cats, as in the database
+    boolean matches(PetView pet) {
+        return (petType == null || petType == pet.petType())
+                && (trackerType == null || trackerType == pet.trackerType())
+                && (ownerId == null || ownerId.equals(pet.ownerId()))
+                && (inZone == null || inZone.equals(pet.inZone()))
+                && (lostTracker == null || lostTracker.equals(pet.lostTracker()));
+    }
+
+    Map<String, Object> group(PetView pet) {
+        Map<String, Object> group = new LinkedHashMap<>();
+        groupBy.forEach(dimension -> group.put(dimension.propertyName(), dimension.valueOf(pet)));
+        return group;
+    }
+}
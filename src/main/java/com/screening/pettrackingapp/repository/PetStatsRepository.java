@@ -0,0 +1,11 @@
+package com.screening.pettrackingapp.repository;
+
+import java.util.List;
+
+/**
+ * Fleet statistics counted by the database in one {@code GROUP BY} query, without loading any pet.
+ */
+public interface PetStatsRepository {
+
+    List<PetStats> countStats(PetStatsQuery query);
+}
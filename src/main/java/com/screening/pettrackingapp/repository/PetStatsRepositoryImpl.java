@@ -0,0 +1,86 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.entity.Cat;
+import com.screening.pettrackingapp.entity.Pet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class PetStatsRepositoryImpl implements PetStatsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    PetStatsRepositoryImpl() {
+    }
+
+    PetStatsRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<PetStats> countStats(PetStatsQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteria = cb.createTupleQuery();
+        Root<Pet> pet = criteria.from(Pet.class);
+        // Outer joins the cat table (or reads the column of the single table) without restricting to cats
+        Path<Boolean> lostTracker = cb.treat(pet, Cat.class).get("lostTracker");
+        Path<Boolean> inZone = pet.get("inZone");
+
+        List<Predicate> filters = new ArrayList<>();
+        filter(filters, cb, pet.get("petType"), query.petType());
+        filter(filters, cb, pet.get("trackerType"), query.trackerType());
+        filter(filters, cb, pet.get("ownerId"), query.ownerId());
+        filter(filters, cb, inZone, query.inZone());
+        filter(filters, cb, lostTracker, query.lostTracker());
+
+        List<Expression<?>> groups = query.groupBy().stream()
+                .<Expression<?>>map(dimension -> dimension == PetStatsQuery.Dimension.LOST_TRACKER
+                        ? lostTracker : pet.get(dimension.propertyName()))
+                .toList();
+        List<Selection<?>> selections = new ArrayList<>(groups);
+        selections.add(cb.count(pet));
+        selections.add(cb.sum(countIf(cb, cb.isTrue(inZone))));
+        selections.add(cb.sum(countIf(cb, cb.isFalse(inZone))));
+        selections.add(cb.sum(countIf(cb, cb.isTrue(lostTracker))));
+        criteria.multiselect(selections)
+                .where(filters.toArray(Predicate[]::new))
+                .groupBy(groups);
+
+        return entityManager.createQuery(criteria).getResultStream()
+                .map(row -> toStats(query, row))
+                .toList();
+    }
+
+    private static PetStats toStats(PetStatsQuery query, Tuple row) {
+        Map<String, Object> group = new LinkedHashMap<>();
+        int column = 0;
+        for (PetStatsQuery.Dimension dimension : query.groupBy()) {
+            group.put(dimension.propertyName(), row.get(column++));
+        }
+        return new PetStats(group, count(row, column), count(row, column + 1), count(row, column + 2),
+                count(row, column + 3));
+    }
+
+    // Sums over no rows are null
+    private static long count(Tuple row, int column) {
+        Number count = (Number) row.get(column);
+        return count == null ? 0 : count.longValue();
+    }
+
+    private static Expression<Long> countIf(CriteriaBuilder cb, Predicate condition) {
+        return cb.<Long>selectCase().when(condition, 1L).otherwise(0L);
+    }
+
+    private static void filter(List<Predicate> filters, CriteriaBuilder cb, Path<?> path, Object value) {
+        if (value != null) {
+            filters.add(cb.equal(path, value));
+        }
+    }
+}
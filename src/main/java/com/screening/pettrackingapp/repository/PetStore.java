@@ -0,0 +1,102 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.entity.Cat;
+import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Storage behind {@code PetService}, selected with {@code pettracker.store}: {@code jpa} (default) keeps pets in
+ * the database through {@link PetRepository}, {@code memory} keeps them in {@link InMemoryPetStore}.
+ * <p>
+ * Pets handed out are detached copies; changes only take effect through {@link #save(Pet)}, which rejects stale
+ * versions with an {@link org.springframework.orm.ObjectOptimisticLockingFailureException}.
+ */
+public interface PetStore {
+
+    /**
+     * Inserts a pet without a version, keeping its id if one was reserved, or updates an existing one.
+     */
+    Pet save(Pet pet);
+
+    /**
+     * Takes the next id from the pet sequence, for this pet to be saved with later.
+     */
+    Long reserveId(Pet pet);
+
+    /**
+     * Saves all pets and makes them visible before returning, so failures surface here rather than at commit.
+     */
+    List<Pet> saveAll(List<Pet> pets);
+
+    Optional<Pet> findById(Long id);
+
+    Optional<PetState> findStateById(Long id);
+
+    /**
+     * Sets {@code inZone} if the pet is still at {@code version}; returns the number of pets updated (0 or 1).
+     */
+    int updateInZone(Long id, Boolean inZone, Long version);
+
+    /**
+     * States of the pets matching the selection, in id order.
+     */
+    List<PetState> findStates(PetSelection selection);
+
+    /**
+     * Sets {@code inZone} and {@code trackerType}, where not null, on all the pets in a few set-based statements.
+     * Every pet must still be at the version of its state; otherwise none is changed and an
+     * {@link org.springframework.orm.ObjectOptimisticLockingFailureException} is thrown.
+     */
+    void updateAll(List<PetState> pets, Boolean inZone, TrackerType trackerType);
+
+    void delete(Pet pet);
+
+    void deleteAll();
+
+    /**
+     * Deletes all the pets in a few set-based statements, on the same terms as {@link #updateAll}.
+     */
+    void deleteAll(List<PetState> pets);
+
+    List<Pet> findAll();
+
+    /**
+     * Up to {@code limit} pets with an id greater than {@code afterId}, in id order.
+     */
+    List<Pet> findAfter(Long afterId, int limit);
+
+    void forEachPet(Consumer<? super Pet> action);
+
+    List<Pet> findByOwnerId(Integer ownerId);
+
+    List<Pet> findByOwnerIdAfter(Integer ownerId, Long afterId, int limit);
+
+    void forEachPetByOwnerId(Integer ownerId, Consumer<? super Pet> action);
+
+    List<Cat> findByLostTrackerTrue();
+
+    List<OutsideZoneCount> countOutsideZone();
+
+    /**
+     * One row per group of the pets matching the query, in no particular order.
+     */
+    List<PetStats> countStats(PetStatsQuery query);
+
+    /**
+     * All pets as read-only projections, in id order; the listing methods below read the same way.
+     */
+    List<PetView> findViews();
+
+    List<PetView> findViewsAfter(Long afterId, int limit);
+
+    List<PetView> findViewsByOwnerId(Integer ownerId);
+
+    List<PetView> findViewsByOwnerIdAfter(Integer ownerId, Long afterId, int limit);
+
+    List<PetView> findViewsByPetType(PetType petType);
+}
@@ -0,0 +1,16 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.entity.Pet;
+
+import java.util.function.Consumer;
+
+/**
+ * Visits pets in id order one row at a time, detaching each pet once it has been handed to the
+ * consumer so that memory use does not grow with the number of rows. Must be called inside a transaction.
+ */
+public interface PetStreamRepository {
+
+    void forEachPet(Consumer<? super Pet> action);
+
+    void forEachPetByOwnerId(Integer ownerId, Consumer<? super Pet> action);
+}
@@ -0,0 +1,51 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.entity.Pet;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+class PetStreamRepositoryImpl implements PetStreamRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    PetStreamRepositoryImpl() {
+    }
+
+    PetStreamRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void forEachPet(Consumer<? super Pet> action) {
+        scroll(entityManager.createQuery("select p from Pet p order by p.id", Pet.class), action);
+    }
+
+    @Override
+    public void forEachPetByOwnerId(Integer ownerId, Consumer<? super Pet> action) {
+        scroll(entityManager.createQuery("select p from Pet p where p.ownerId = :ownerId order by p.id", Pet.class)
+                .setParameter("ownerId", ownerId), action);
+    }
+
+    private void scroll(TypedQuery<Pet> query, Consumer<? super Pet> action) {
+        // Full scans would push the pets looked up by id out of the entity cache
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        try (Stream<Pet> pets = query.getResultStream()) {
+            pets.forEach(pet -> {
+                action.accept(pet);
+                entityManager.detach(pet);
+            });
+        }
+    }
+}
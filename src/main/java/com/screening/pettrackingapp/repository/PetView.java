@@ -0,0 +1,109 @@
+package com.screening.pettrackingapp.repository;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.screening.pettrackingapp.entity.Cat;
+import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Read-only projection of a pet for the listing endpoints, selected straight into the record so no entity is
+ * hydrated or tracked. Serializes to the same JSON as the entity: {@code lostTracker} only for cats, and enums as
+ * ordinals where {@code WRITE_ENUMS_USING_INDEX} is on (CBOR and Smile).
+ */
+@JsonSerialize(using = PetView.Serializer.class)
+public record PetView(Long id, PetType petType, TrackerType trackerType, Integer ownerId, Boolean inZone,
+                      Boolean lostTracker) {
+
+    public static PetView of(Pet pet) {
+        Boolean lostTracker = pet instanceof Cat cat ? cat.getLostTracker() : null;
+        return new PetView(pet.getId(), pet.getPetType(), pet.getTrackerType(), pet.getOwnerId(), pet.getInZone(),
+                lostTracker);
+    }
+
+    // Validation keeps petType in line with the entity class, so it decides whether the pet is a cat
+    public boolean isCat() {
+        return petType == PetType.CAT;
+    }
+
+    /**
+     * Writes the fields with pre-encoded names and enum constants instead of introspecting a bean.
+     */
+    static final class Serializer extends StdSerializer<PetView> {
+
+        private static final SerializableString ID = new SerializedString("id");
+        private static final SerializableString PET_TYPE = new SerializedString("petType");
+        private static final SerializableString TRACKER_TYPE = new SerializedString("trackerType");
+        private static final SerializableString OWNER_ID = new SerializedString("ownerId");
+        private static final SerializableString IN_ZONE = new SerializedString("inZone");
+        private static final SerializableString LOST_TRACKER = new SerializedString("lostTracker");
+        private static final SerializableString[] PET_TYPES = names(PetType.values());
+        private static final SerializableString[] TRACKER_TYPES = names(TrackerType.values());
+
+        Serializer() {
+            super(PetView.class);
+        }
+
+        @Override
+        public void serialize(PetView pet, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            boolean ordinals = provider.isEnabled(SerializationFeature.WRITE_ENUMS_USING_INDEX);
+            gen.writeStartObject(pet);
+            gen.writeFieldName(ID);
+            if (pet.id() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(pet.id());
+            }
+            gen.writeFieldName(PET_TYPE);
+            writeEnum(gen, pet.petType(), PET_TYPES, ordinals);
+            gen.writeFieldName(TRACKER_TYPE);
+            writeEnum(gen, pet.trackerType(), TRACKER_TYPES, ordinals);
+            gen.writeFieldName(OWNER_ID);
+            if (pet.ownerId() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(pet.ownerId());
+            }
+            gen.writeFieldName(IN_ZONE);
+            writeBoolean(gen, pet.inZone());
+            if (pet.isCat()) {
+                gen.writeFieldName(LOST_TRACKER);
+                writeBoolean(gen, pet.lostTracker());
+            }
+            gen.writeEndObject();
+        }
+
+        private static void writeEnum(JsonGenerator gen, Enum<?> value, SerializableString[] names, boolean ordinals)
+                throws IOException {
+            if (value == null) {
+                gen.writeNull();
+            } else if (ordinals) {
+                gen.writeNumber(value.ordinal());
+            } else {
+                gen.writeString(names[value.ordinal()]);
+            }
+        }
+
+        private static void writeBoolean(JsonGenerator gen, Boolean value) throws IOException {
+            if (value == null) {
+                gen.writeNull();
+            } else {
+                gen.writeBoolean(value);
+            }
+        }
+
+        private static SerializableString[] names(Enum<?>[] constants) {
+            return Arrays.stream(constants).map(constant -> new SerializedString(constant.name()))
+                    .toArray(SerializableString[]::new);
+        }
+    }
+}
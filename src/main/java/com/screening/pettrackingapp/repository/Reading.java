@@ -0,0 +1,25 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+import com.screening.pettrackingapp.event.PetSnapshot;
+
+/**
+ * One entry of the reading log: the reported state of a pet at {@code timestamp} (epoch millis), or its removal.
+ */
+public record Reading(long timestamp, long petId, Integer ownerId, PetType petType, TrackerType trackerType,
+                      Boolean inZone, Boolean lostTracker, boolean removed) {
+
+    public static Reading of(long timestamp, PetSnapshot pet) {
+        return new Reading(timestamp, pet.id(), pet.ownerId(), pet.petType(), pet.trackerType(), pet.inZone(),
+                pet.lostTracker(), false);
+    }
+
+    public static Reading removed(long timestamp, PetSnapshot pet) {
+        return new Reading(timestamp, pet.id(), pet.ownerId(), pet.petType(), pet.trackerType(), null, null, true);
+    }
+
+    public boolean isOutsideZone() {
+        return !removed && Boolean.FALSE.equals(inZone);
+    }
+}
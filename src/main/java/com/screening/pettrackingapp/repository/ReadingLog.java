@@ -0,0 +1,351 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.config.ReadingHistoryProperties;
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Append-only log of pet readings, partitioned into fixed time segments.
+ * <p>
+ * Each segment stores its readings column-wise in primitive arrays (26 bytes per reading) and only ever grows at
+ * the end; every reading links to the pet's previous one in the segment, so one pet's readings are found without
+ * scanning the others. Old segments are downsampled in place, and segments past retention are folded into a
+ * baseline holding the last known reading per pet. Each segment also gets a checkpoint of the last reading per pet
+ * before it, built from the previous segment's on first use, so a range is read from the segment holding its start.
+ */
+@Repository
+public class ReadingLog {
+
+    private static final PetType[] PET_TYPES = PetType.values();
+    private static final TrackerType[] TRACKER_TYPES = TrackerType.values();
+
+    private final long segmentMillis;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    // Scans hold the read lock so they never see a segment both folded into the baseline and still listed
+    private final ReadWriteLock maintenanceLock = new ReentrantReadWriteLock();
+    private volatile Segment baseline = new Segment(Long.MIN_VALUE, Long.MIN_VALUE);
+    // Checkpoints built at an older stamp are stale: a reading landed behind the latest segment, or segments expired
+    private final AtomicLong checkpointStamp = new AtomicLong();
+
+    @Autowired
+    public ReadingLog(ReadingHistoryProperties properties) {
+        this.segmentMillis = Math.max(1, properties.getSegmentDuration().toMillis());
+    }
+
+    public void append(Reading reading) {
+        long start = Math.floorDiv(reading.timestamp(), segmentMillis) * segmentMillis;
+        segments.computeIfAbsent(start, key -> new Segment(key, key + segmentMillis)).append(reading);
+        if (segments.higherKey(start) != null) {
+            checkpointStamp.incrementAndGet();
+        }
+    }
+
+    /**
+     * Visits the last reading of every pet before the first segment ending after {@code fromMillis}, then the readings
+     * from that segment on that are older than {@code toMillis}, segment by segment in time order.
+     */
+    public void forEach(long fromMillis, long toMillis, Consumer<Reading> action) {
+        forEach(fromMillis, toMillis, (segment, until) -> segment.forEach(until, action));
+    }
+
+    /**
+     * Like {@link #forEach(long, long, Consumer)}, for the readings of one pet only.
+     */
+    public void forEach(long petId, long fromMillis, long toMillis, Consumer<Reading> action) {
+        forEach(fromMillis, toMillis, (segment, until) -> segment.forEach(petId, until, action));
+    }
+
+    private void forEach(long fromMillis, long toMillis, ObjLongConsumer<Segment> scan) {
+        maintenanceLock.readLock().lock();
+        try {
+            Map.Entry<Long, Segment> first = segments.floorEntry(fromMillis);
+            if (first == null || first.getValue().end <= fromMillis) {
+                first = segments.higherEntry(fromMillis);
+            }
+            // Past the last segment, its own readings still follow its checkpoint
+            if (first == null) {
+                first = segments.lastEntry();
+            }
+            if (first == null) {
+                scan.accept(baseline, toMillis);
+                return;
+            }
+            scan.accept(checkpoint(first.getValue()), toMillis);
+            if (first.getKey() < toMillis) {
+                for (Segment segment : segments.subMap(first.getKey(), toMillis).values()) {
+                    scan.accept(segment, toMillis);
+                }
+            }
+        } finally {
+            maintenanceLock.readLock().unlock();
+        }
+    }
+
+    // Folds forward from the nearest segment before this one with a current checkpoint, or from the baseline,
+    // keeping the checkpoint of every segment passed on the way
+    private Segment checkpoint(Segment segment) {
+        long stamp = checkpointStamp.get();
+        Checkpoint current = segment.checkpoint;
+        if (current != null && current.stamp == stamp) {
+            return current.readings;
+        }
+        Deque<Segment> pending = new ArrayDeque<>();
+        Segment state = baseline;
+        for (Segment earlier : segments.headMap(segment.start).descendingMap().values()) {
+            pending.push(earlier);
+            Checkpoint checkpoint = earlier.checkpoint;
+            if (checkpoint != null && checkpoint.stamp == stamp) {
+                state = checkpoint.readings;
+                break;
+            }
+        }
+        while (!pending.isEmpty()) {
+            Segment earlier = pending.pop();
+            Map<Long, Reading> latest = new HashMap<>();
+            state.forEach(Long.MAX_VALUE, reading -> latest.put(reading.petId(), reading));
+            earlier.forEach(Long.MAX_VALUE, reading -> latest.put(reading.petId(), reading));
+            state = lastReadings(latest);
+            Segment next = pending.isEmpty() ? segment : pending.peek();
+            next.checkpoint = new Checkpoint(stamp, state);
+        }
+        return state;
+    }
+
+    private static Segment lastReadings(Map<Long, Reading> latest) {
+        latest.values().removeIf(Reading::removed);
+        return Segment.of(Long.MIN_VALUE, Long.MIN_VALUE, latest.values().stream()
+                .sorted(Comparator.comparingLong(Reading::timestamp))
+                .toList());
+    }
+
+    /**
+     * Folds every segment that ended before {@code cutoffMillis} into the baseline.
+     */
+    public void expire(long cutoffMillis) {
+        SortedMap<Long, Segment> expired = segments.headMap(cutoffMillis - segmentMillis, true);
+        if (expired.isEmpty()) {
+            return;
+        }
+        Map<Long, Reading> latest = new HashMap<>();
+        baseline.forEach(Long.MAX_VALUE, reading -> latest.put(reading.petId(), reading));
+        List<Segment> folded = new ArrayList<>(expired.values());
+        folded.forEach(segment -> segment.forEach(Long.MAX_VALUE, reading -> latest.put(reading.petId(), reading)));
+
+        Segment fresh = lastReadings(latest);
+        maintenanceLock.writeLock().lock();
+        try {
+            baseline = fresh;
+            folded.forEach(segment -> segments.remove(segment.start, segment));
+            checkpointStamp.incrementAndGet();
+        } finally {
+            maintenanceLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Keeps only the last reading per pet and {@code resolutionMillis} window in segments that ended before
+     * {@code cutoffMillis}.
+     */
+    public void downsample(long cutoffMillis, long resolutionMillis) {
+        if (resolutionMillis <= 1) {
+            return;
+        }
+        for (Segment segment : segments.headMap(cutoffMillis - segmentMillis, true).values()) {
+            if (segment.downsampled) {
+                continue;
+            }
+            Map<List<Long>, Reading> lastPerWindow = new HashMap<>();
+            segment.forEach(Long.MAX_VALUE, reading -> lastPerWindow.put(
+                    List.of(reading.petId(), Math.floorDiv(reading.timestamp(), resolutionMillis)), reading));
+            Segment compacted = Segment.of(segment.start, segment.end, lastPerWindow.values().stream()
+                    .sorted(Comparator.comparingLong(Reading::timestamp))
+                    .toList());
+            compacted.downsampled = true;
+            // The last reading of each pet survives, so checkpoints of this and later segments still hold
+            compacted.checkpoint = segment.checkpoint;
+            segments.replace(segment.start, segment, compacted);
+        }
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    public long size() {
+        long size = baseline.size();
+        for (Segment segment : segments.values()) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public void clear() {
+        maintenanceLock.writeLock().lock();
+        try {
+            segments.clear();
+            baseline = new Segment(Long.MIN_VALUE, Long.MIN_VALUE);
+            checkpointStamp.incrementAndGet();
+        } finally {
+            maintenanceLock.writeLock().unlock();
+        }
+    }
+
+    private record Checkpoint(long stamp, Segment readings) {
+    }
+
+    private static final class Segment {
+        private static final int NO_OWNER = Integer.MIN_VALUE;
+        private static final int NO_ROW = -1;
+
+        private final long start;
+        private final long end;
+        private final ReentrantLock appendLock = new ReentrantLock();
+        private volatile boolean downsampled;
+        private volatile Checkpoint checkpoint;
+        // Arrays are only replaced by larger copies, so a scan can keep reading the ones it captured
+        private long[] timestamps = new long[64];
+        private long[] petIds = new long[64];
+        private int[] ownerIds = new int[64];
+        private short[] states = new short[64];
+        private int[] previousRows = new int[64];
+        private final Map<Long, Integer> lastRows = new HashMap<>();
+        private int size;
+
+        private Segment(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        private static Segment of(long start, long end, List<Reading> readings) {
+            Segment segment = new Segment(start, end);
+            readings.forEach(segment::append);
+            return segment;
+        }
+
+        private void append(Reading reading) {
+            appendLock.lock();
+            try {
+                if (size == timestamps.length) {
+                    int capacity = size * 2;
+                    timestamps = Arrays.copyOf(timestamps, capacity);
+                    petIds = Arrays.copyOf(petIds, capacity);
+                    ownerIds = Arrays.copyOf(ownerIds, capacity);
+                    states = Arrays.copyOf(states, capacity);
+                    previousRows = Arrays.copyOf(previousRows, capacity);
+                }
+                timestamps[size] = reading.timestamp();
+                petIds[size] = reading.petId();
+                ownerIds[size] = reading.ownerId() == null ? NO_OWNER : reading.ownerId();
+                states[size] = encode(reading);
+                Integer previous = lastRows.put(reading.petId(), size);
+                previousRows[size] = previous == null ? NO_ROW : previous;
+                size++;
+            } finally {
+                appendLock.unlock();
+            }
+        }
+
+        private int size() {
+            appendLock.lock();
+            try {
+                return size;
+            } finally {
+                appendLock.unlock();
+            }
+        }
+
+        private void forEach(long toMillis, Consumer<Reading> action) {
+            long[] timestamps;
+            long[] petIds;
+            int[] ownerIds;
+            short[] states;
+            int size;
+            appendLock.lock();
+            try {
+                timestamps = this.timestamps;
+                petIds = this.petIds;
+                ownerIds = this.ownerIds;
+                states = this.states;
+                size = this.size;
+            } finally {
+                appendLock.unlock();
+            }
+            for (int i = 0; i < size; i++) {
+                if (timestamps[i] < toMillis) {
+                    action.accept(decode(timestamps[i], petIds[i], ownerIds[i], states[i]));
+                }
+            }
+        }
+
+        // Follows the pet's links back from its last reading, then visits them in order
+        private void forEach(long petId, long toMillis, Consumer<Reading> action) {
+            long[] timestamps;
+            int[] ownerIds;
+            short[] states;
+            int[] previousRows;
+            int row;
+            appendLock.lock();
+            try {
+                timestamps = this.timestamps;
+                ownerIds = this.ownerIds;
+                states = this.states;
+                previousRows = this.previousRows;
+                row = lastRows.getOrDefault(petId, NO_ROW);
+            } finally {
+                appendLock.unlock();
+            }
+            int[] rows = new int[8];
+            int count = 0;
+            for (; row != NO_ROW; row = previousRows[row]) {
+                if (count == rows.length) {
+                    rows = Arrays.copyOf(rows, count * 2);
+                }
+                rows[count++] = row;
+            }
+            for (int i = count - 1; i >= 0; i--) {
+                int at = rows[i];
+                if (timestamps[at] < toMillis) {
+                    action.accept(decode(timestamps[at], petId, ownerIds[at], states[at]));
+                }
+            }
+        }
+
+        // bits 0-3 pet type, 4-7 tracker type (ordinal + 1, 0 for null), 8-9 inZone, 10-11 lostTracker, 12 removed
+        private static short encode(Reading reading) {
+            int state = reading.petType() == null ? 0 : reading.petType().ordinal() + 1;
+            state |= (reading.trackerType() == null ? 0 : reading.trackerType().ordinal() + 1) << 4;
+            state |= encode(reading.inZone()) << 8;
+            state |= encode(reading.lostTracker()) << 10;
+            state |= reading.removed() ? 1 << 12 : 0;
+            return (short) state;
+        }
+
+        private static int encode(Boolean value) {
+            return value == null ? 0 : value ? 2 : 1;
+        }
+
+        private static Reading decode(long timestamp, long petId, int ownerId, short state) {
+            int petType = state & 0xF;
+            int trackerType = (state >> 4) & 0xF;
+            return new Reading(timestamp, petId, ownerId == NO_OWNER ? null : ownerId,
+                    petType == 0 ? null : PET_TYPES[petType - 1],
+                    trackerType == 0 ? null : TRACKER_TYPES[trackerType - 1],
+                    decode((state >> 8) & 0x3), decode((state >> 10) & 0x3), (state & (1 << 12)) != 0);
+        }
+
+        private static Boolean decode(int value) {
+            return value == 0 ? null : value == 2;
+        }
+    }
+}
@@ -0,0 +1,481 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.config.ShardingProperties;
+import com.screening.pettrackingapp.entity.*;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Pet store spread over the databases in {@code pettracker.sharding.shards}.
+ * <p>
+ * A pet lives on the shard picked by a hash of its ownerId, so owner queries touch one shard. Its id is a value of
+ * the first shard's sequence shifted left by {@link #SHARD_BITS} with the shard it was created on in the low bits, so
+ * ids still ascend in creation order and id lookups go straight to that shard. A pet that changed owner is moved to the new owner's shard under the same id;
+ * such pets are remembered in memory and, after a restart, found by asking every shard. Queries over all pets ask
+ * every shard in parallel and merge the results in id order.
+ * <p>
+ * Each shard commits on its own; moving a pet inserts it on the new shard before deleting it from the old one.
+ */
+@Repository
+@ConditionalOnProperty(name = "pettracker.store", havingValue = "sharded")
+public class ShardedPetStore implements PetStore {
+
+    static final int SHARD_BITS = 8;
+    private static final long SHARD_MASK = (1L << SHARD_BITS) - 1;
+    private static final int PAGE_SIZE = 1_000;
+
+    private final List<PetShard> shards;
+    private final ExecutorService scatter = Executors.newVirtualThreadPerTaskExecutor();
+    // Shard of each pet known to live elsewhere than the shard its id names
+    private final Map<Long, Integer> relocated = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ShardedPetStore(ShardingProperties properties, JpaProperties jpaProperties,
+                           HibernateProperties hibernateProperties) {
+        List<ShardingProperties.Shard> configured = properties.getShards();
+        if (configured.isEmpty() || configured.size() > SHARD_MASK + 1) {
+            throw new IllegalStateException("pettracker.sharding.shards must list between 1 and "
+                    + (SHARD_MASK + 1) + " databases");
+        }
+        List<PetShard> shards = new ArrayList<>(configured.size());
+        for (int i = 0; i < configured.size(); i++) {
+            shards.add(new PetShard(i, configured.get(i), jpaProperties, hibernateProperties));
+        }
+        this.shards = List.copyOf(shards);
+    }
+
+    @Override
+    public Pet save(Pet pet) {
+        PetShard target = shardForOwner(pet.getOwnerId());
+        if (pet.getVersion() == null) {
+            if (pet.getId() == null) {
+                pet.setId(reserveId(target.index()));
+            }
+            Pet saved = target.call(store -> store.save(pet));
+            track(saved.getId(), target);
+            return saved;
+        }
+        PetShard current = locate(pet.getId())
+                .orElseThrow(() -> new ObjectOptimisticLockingFailureException(Pet.class, pet.getId()));
+        if (current == target) {
+            return current.call(store -> store.save(pet));
+        }
+        return move(pet, current, target);
+    }
+
+    @Override
+    public Long reserveId(Pet pet) {
+        return reserveId(shardForOwner(pet.getOwnerId()).index());
+    }
+
+    @Override
+    public List<Pet> saveAll(List<Pet> pets) {
+        if (pets.stream().anyMatch(pet -> pet.getVersion() != null)) {
+            return pets.stream().map(this::save).toList();
+        }
+        Map<PetShard, List<Pet>> byShard = new LinkedHashMap<>();
+        for (Pet pet : pets) {
+            PetShard target = shardForOwner(pet.getOwnerId());
+            if (pet.getId() == null) {
+                pet.setId(reserveId(target.index()));
+            }
+            byShard.computeIfAbsent(target, shard -> new ArrayList<>()).add(pet);
+        }
+        writeAll(byShard, JpaPetStore::saveAll, (store, saved) -> saved.forEach(store::delete));
+        byShard.forEach((shard, saved) -> saved.forEach(pet -> track(pet.getId(), shard)));
+        return pets;
+    }
+
+    @Override
+    public Optional<Pet> findById(Long id) {
+        return find(id, store -> store.findById(id));
+    }
+
+    @Override
+    public Optional<PetState> findStateById(Long id) {
+        return find(id, store -> store.findStateById(id));
+    }
+
+    @Override
+    public int updateInZone(Long id, Boolean inZone, Long version) {
+        return locate(id).map(shard -> shard.call(store -> store.updateInZone(id, inZone, version))).orElse(0);
+    }
+
+    // Pets found are tracked, so the bulk writes that follow go straight to their shards
+    @Override
+    public List<PetState> findStates(PetSelection selection) {
+        List<PetShard> targets = selection.ownerId() != null ? List.of(shardForOwner(selection.ownerId())) : shards;
+        List<List<PetState>> perShard = gather(targets, store -> store.findStates(selection));
+        for (int i = 0; i < targets.size(); i++) {
+            PetShard shard = targets.get(i);
+            perShard.get(i).forEach(state -> track(state.id(), shard));
+        }
+        return merge(perShard, PetState::id);
+    }
+
+    @Override
+    public void updateAll(List<PetState> pets, Boolean inZone, TrackerType trackerType) {
+        writeAll(byShard(pets), (store, states) -> store.updateAll(states, inZone, trackerType), JpaPetStore::restore);
+    }
+
+    @Override
+    public void delete(Pet pet) {
+        locate(pet.getId()).ifPresent(shard -> shard.call(store -> {
+            store.delete(pet);
+            return null;
+        }));
+        relocated.remove(pet.getId());
+    }
+
+    @Override
+    public void deleteAll() {
+        gather(store -> {
+            store.deleteAll();
+            return null;
+        });
+        relocated.clear();
+    }
+
+    @Override
+    public void deleteAll(List<PetState> pets) {
+        writeAll(byShard(pets), JpaPetStore::deleteAll,
+                (store, states) -> states.forEach(state -> store.insertAtVersion(toPet(state), state.version())));
+        pets.forEach(state -> relocated.remove(state.id()));
+    }
+
+    @Override
+    public List<Pet> findAll() {
+        return merge(gather(PetStore::findAll));
+    }
+
+    @Override
+    public List<Pet> findAfter(Long afterId, int limit) {
+        return merge(gather(store -> store.findAfter(afterId, limit))).stream()
+                .limit(limit)
+                .toList();
+    }
+
+    // Pages through all shards in id order, so memory stays bounded by the page size
+    @Override
+    public void forEachPet(Consumer<? super Pet> action) {
+        Long after = null;
+        List<Pet> page;
+        do {
+            page = findAfter(after, PAGE_SIZE);
+            page.forEach(action);
+            after = page.isEmpty() ? null : page.getLast().getId();
+        } while (page.size() == PAGE_SIZE);
+    }
+
+    @Override
+    public List<Pet> findByOwnerId(Integer ownerId) {
+        return shardForOwner(ownerId).call(store -> store.findByOwnerId(ownerId));
+    }
+
+    @Override
+    public List<Pet> findByOwnerIdAfter(Integer ownerId, Long afterId, int limit) {
+        return shardForOwner(ownerId).call(store -> store.findByOwnerIdAfter(ownerId, afterId, limit));
+    }
+
+    @Override
+    public void forEachPetByOwnerId(Integer ownerId, Consumer<? super Pet> action) {
+        shardForOwner(ownerId).call(store -> {
+            store.forEachPetByOwnerId(ownerId, action);
+            return null;
+        });
+    }
+
+    @Override
+    public List<Cat> findByLostTrackerTrue() {
+        return merge(gather(PetStore::findByLostTrackerTrue));
+    }
+
+    @Override
+    public List<OutsideZoneCount> countOutsideZone() {
+        Map<PetType, Map<TrackerType, Long>> totals = new EnumMap<>(PetType.class);
+        gather(PetStore::countOutsideZone).stream()
+                .flatMap(List::stream)
+                .forEach(count -> totals.computeIfAbsent(count.getPetType(), type -> new EnumMap<>(TrackerType.class))
+                        .merge(count.getTrackerType(), count.getTotal(), Long::sum));
+        List<OutsideZoneCount> counts = new ArrayList<>();
+        totals.forEach((petType, byTracker) -> byTracker.forEach((trackerType, total) ->
+                counts.add(new Count(petType, trackerType, total))));
+        return counts;
+    }
+
+    @Override
+    public List<PetStats> countStats(PetStatsQuery query) {
+        if (query.ownerId() != null) {
+            return shardForOwner(query.ownerId()).call(store -> store.countStats(query));
+        }
+        return PetStats.sum(gather(store -> store.countStats(query)).stream().flatMap(List::stream).toList());
+    }
+
+    @Override
+    public List<PetView> findViews() {
+        return merge(gather(PetStore::findViews), PetView::id);
+    }
+
+    @Override
+    public List<PetView> findViewsAfter(Long afterId, int limit) {
+        return merge(gather(store -> store.findViewsAfter(afterId, limit)), PetView::id).stream()
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<PetView> findViewsByOwnerId(Integer ownerId) {
+        return shardForOwner(ownerId).call(store -> store.findViewsByOwnerId(ownerId));
+    }
+
+    @Override
+    public List<PetView> findViewsByOwnerIdAfter(Integer ownerId, Long afterId, int limit) {
+        return shardForOwner(ownerId).call(store -> store.findViewsByOwnerIdAfter(ownerId, afterId, limit));
+    }
+
+    @Override
+    public List<PetView> findViewsByPetType(PetType petType) {
+        return merge(gather(store -> store.findViewsByPetType(petType)), PetView::id);
+    }
+
+    int shardCount() {
+        return shards.size();
+    }
+
+    int shardOf(Long id) {
+        return locate(id).map(PetShard::index).orElse(-1);
+    }
+
+    static int shardIndex(Integer ownerId, int shardCount) {
+        if (ownerId == null) {
+            return 0;
+        }
+        int hash = ownerId * 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), shardCount);
+    }
+
+    static int homeShard(Long id) {
+        return (int) (id & SHARD_MASK);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scatter.shutdownNow();
+        shards.forEach(PetShard::close);
+    }
+
+    private PetShard shardForOwner(Integer ownerId) {
+        return shards.get(shardIndex(ownerId, shards.size()));
+    }
+
+    private Long reserveId(int shardIndex) {
+        Long sequence = shards.getFirst().call(store -> store.reserveId(null));
+        return (sequence << SHARD_BITS) | shardIndex;
+    }
+
+    private Pet move(Pet pet, PetShard current, PetShard target) {
+        Pet existing = current.call(store -> store.findById(pet.getId()))
+                .filter(found -> Objects.equals(found.getVersion(), pet.getVersion()))
+                .orElseThrow(() -> new ObjectOptimisticLockingFailureException(Pet.class, pet.getId()));
+        pet.setVersion(null);
+        Pet moved = target.call(store -> store.insertAtVersion(pet, existing.getVersion() + 1));
+        try {
+            current.call(store -> {
+                store.delete(existing);
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            target.call(store -> {
+                store.delete(moved);
+                return null;
+            });
+            throw ex;
+        }
+        track(moved.getId(), target);
+        return moved;
+    }
+
+    // Writes each shard's share in parallel, each in its own transaction; if any shard fails, those that committed
+    // are undone by hand so the write fails as a whole
+    private <T> void writeAll(Map<PetShard, List<T>> byShard, BiConsumer<JpaPetStore, List<T>> write,
+                              BiConsumer<JpaPetStore, List<T>> undo) {
+        List<Map.Entry<PetShard, List<T>>> entries = List.copyOf(byShard.entrySet());
+        List<CompletableFuture<Void>> writes = entries.stream()
+                .map(entry -> CompletableFuture.runAsync(() -> entry.getKey().call(store -> {
+                    write.accept(store, entry.getValue());
+                    return null;
+                }), scatter))
+                .toList();
+        CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).exceptionally(ex -> null).join();
+        RuntimeException failure = null;
+        for (CompletableFuture<Void> done : writes) {
+            if (done.isCompletedExceptionally()) {
+                failure = unwrap(done);
+            }
+        }
+        if (failure != null) {
+            for (int i = 0; i < entries.size(); i++) {
+                if (!writes.get(i).isCompletedExceptionally()) {
+                    List<T> written = entries.get(i).getValue();
+                    entries.get(i).getKey().call(store -> {
+                        undo.accept(store, written);
+                        return null;
+                    });
+                }
+            }
+            throw failure;
+        }
+    }
+
+    // By the shard each pet was last seen on
+    private Map<PetShard, List<PetState>> byShard(List<PetState> pets) {
+        Map<PetShard, List<PetState>> byShard = new LinkedHashMap<>();
+        for (PetState pet : pets) {
+            PetShard shard = shards.get(relocated.getOrDefault(pet.id(), homeShard(pet.id())));
+            byShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(pet);
+        }
+        return byShard;
+    }
+
+    private static Pet toPet(PetState state) {
+        Pet pet;
+        if (state.petType() == PetType.CAT) {
+            Cat cat = new Cat();
+            cat.setLostTracker(state.lostTracker());
+            pet = cat;
+        } else {
+            pet = new Dog();
+        }
+        pet.setId(state.id());
+        pet.setPetType(state.petType());
+        pet.setTrackerType(state.trackerType());
+        pet.setOwnerId(state.ownerId());
+        pet.setInZone(state.inZone());
+        return pet;
+    }
+
+    private void track(Long id, PetShard shard) {
+        if (homeShard(id) == shard.index()) {
+            relocated.remove(id);
+        } else {
+            relocated.put(id, shard.index());
+        }
+    }
+
+    private <T> Optional<T> find(Long id, Function<PetStore, Optional<T>> lookup) {
+        for (PetShard shard : candidates(id)) {
+            Optional<T> found = shard.call(lookup::apply);
+            if (found.isPresent()) {
+                return found;
+            }
+        }
+        return scatterFind(id, lookup).map(Map.Entry::getValue);
+    }
+
+    private Optional<PetShard> locate(Long id) {
+        for (PetShard shard : candidates(id)) {
+            if (shard.call(store -> store.findStateById(id)).isPresent()) {
+                return Optional.of(shard);
+            }
+        }
+        return scatterFind(id, store -> store.findStateById(id)).map(Map.Entry::getKey);
+    }
+
+    // The shard the pet was last seen on, then the shard its id names
+    private List<PetShard> candidates(Long id) {
+        Integer moved = relocated.get(id);
+        int home = homeShard(id);
+        List<PetShard> candidates = new ArrayList<>(2);
+        if (moved != null) {
+            candidates.add(shards.get(moved));
+        }
+        if (home < shards.size() && (moved == null || moved != home)) {
+            candidates.add(shards.get(home));
+        }
+        return candidates;
+    }
+
+    private <T> Optional<Map.Entry<PetShard, T>> scatterFind(Long id, Function<PetStore, Optional<T>> lookup) {
+        List<PetShard> others = shards.stream().filter(shard -> !candidates(id).contains(shard)).toList();
+        List<Optional<T>> results = gather(others, lookup);
+        for (int i = 0; i < others.size(); i++) {
+            if (results.get(i).isPresent()) {
+                track(id, others.get(i));
+                return Optional.of(Map.entry(others.get(i), results.get(i).get()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private <T> List<T> gather(Function<PetStore, T> query) {
+        return gather(shards, query);
+    }
+
+    private <T> List<T> gather(List<PetShard> targets, Function<PetStore, T> query) {
+        List<CompletableFuture<T>> results = targets.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> shard.call(query::apply), scatter))
+                .toList();
+        List<T> merged = new ArrayList<>(results.size());
+        for (CompletableFuture<T> result : results) {
+            try {
+                merged.add(result.join());
+            } catch (CompletionException ex) {
+                throw unwrap(result);
+            }
+        }
+        return merged;
+    }
+
+    private static <T extends Pet> List<T> merge(List<List<T>> perShard) {
+        return merge(perShard, Pet::getId);
+    }
+
+    private static <T> List<T> merge(List<List<T>> perShard, Function<T, Long> id) {
+        return perShard.stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(id))
+                .toList();
+    }
+
+    private static RuntimeException unwrap(CompletableFuture<?> failed) {
+        try {
+            failed.join();
+            return new IllegalStateException("Shard query did not fail");
+        } catch (CompletionException ex) {
+            return ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    private record Count(PetType petType, TrackerType trackerType, Long total) implements OutsideZoneCount {
+
+        @Override
+        public PetType getPetType() {
+            return petType;
+        }
+
+        @Override
+        public TrackerType getTrackerType() {
+            return trackerType;
+        }
+
+        @Override
+        public Long getTotal() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.screening.pettrackingapp.service;
+
+import com.screening.pettrackingapp.config.GeofenceProperties;
+import com.screening.pettrackingapp.dto.CircleGeofence;
+import com.screening.pettrackingapp.dto.GeoPoint;
+import com.screening.pettrackingapp.dto.Geofence;
+import com.screening.pettrackingapp.dto.PolygonGeofence;
+import com.screening.pettrackingapp.exception.PetValidationException;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Power-saving zones per owner, and whether a reading falls inside one of them. Each owner's zones are indexed in a
+ * grid of {@code cell-size} degree cells, each listing the zones that overlap it, so a reading is only tested
+ * against the zones of its own cell. A change replaces the arrays of the cells the zone covers; lookups never lock,
+ * and one that runs during a change may still see the previous version of the zone. Zones are kept in memory only.
+ */
+@Component
+public class GeofenceIndex {
+
+    private static final double METERS_PER_DEGREE = 111_320;
+    private static final Cell NONE = new Cell(new Zone[0]);
+
+    private final double cellSize;
+    private final int maxCellsPerZone;
+    private final AtomicLong ids = new AtomicLong();
+    private final ConcurrentMap<Integer, OwnerZones> owners = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GeofenceIndex(GeofenceProperties properties) {
+        this.cellSize = properties.getCellSize();
+        this.maxCellsPerZone = properties.getMaxCellsPerZone();
+    }
+
+    public Geofence addZone(Integer ownerId, Geofence zone) {
+        Zone compiled = Zone.of(zone.withId(ids.incrementAndGet(), ownerId));
+        owners.compute(ownerId, (owner, zones) -> {
+            OwnerZones updated = zones == null ? new OwnerZones() : zones;
+            index(updated, compiled);
+            return updated;
+        });
+        return compiled.definition;
+    }
+
+    public Geofence replaceZone(Integer ownerId, Long zoneId, Geofence zone) {
+        Zone compiled = Zone.of(zone.withId(zoneId, ownerId));
+        owners.compute(ownerId, (owner, zones) -> {
+            unindex(zones, existing(zones, ownerId, zoneId));
+            index(zones, compiled);
+            return zones;
+        });
+        return compiled.definition;
+    }
+
+    public void removeZone(Integer ownerId, Long zoneId) {
+        owners.compute(ownerId, (owner, zones) -> {
+            unindex(zones, existing(zones, ownerId, zoneId));
+            return zones.byId.isEmpty() ? null : zones;
+        });
+    }
+
+    public Geofence getZone(Integer ownerId, Long zoneId) {
+        OwnerZones zones = owners.get(ownerId);
+        return existing(zones, ownerId, zoneId).definition;
+    }
+
+    public List<Geofence> getZones(Integer ownerId) {
+        OwnerZones zones = owners.get(ownerId);
+        return zones == null ? List.of() : zones.byId.values().stream().map(zone -> zone.definition).toList();
+    }
+
+    /**
+     * Whether the position lies in any zone of the owner; always false for owners without zones.
+     */
+    public boolean contains(Integer ownerId, double latitude, double longitude) {
+        OwnerZones zones = owners.get(ownerId);
+        if (zones == null) {
+            return false;
+        }
+        Cell cell = zones.cells.get(cellKey(cell(latitude), cell(longitude)));
+        return cell != null && cell.contains(latitude, longitude) || zones.large.contains(latitude, longitude);
+    }
+
+    private static Zone existing(OwnerZones zones, Integer ownerId, Long zoneId) {
+        Zone zone = zones == null ? null : zones.byId.get(zoneId);
+        if (zone == null) {
+            throw new EntityNotFoundException("Zone with ID " + zoneId + " not found for owner " + ownerId + ".");
+        }
+        return zone;
+    }
+
+    private void index(OwnerZones zones, Zone zone) {
+        zones.byId.put(zone.definition.id(), zone);
+        if (!forEachCell(zone, key -> zones.cells.compute(key, (k, cell) -> (cell == null ? NONE : cell).with(zone)))) {
+            zones.large = zones.large.with(zone);
+        }
+    }
+
+    private void unindex(OwnerZones zones, Zone zone) {
+        zones.byId.remove(zone.definition.id());
+        if (!forEachCell(zone, key -> zones.cells.computeIfPresent(key, (k, cell) -> cell.without(zone)))) {
+            Cell large = zones.large.without(zone);
+            zones.large = large == null ? NONE : large;
+        }
+    }
+
+    // False, without visiting any, when the zone covers more than max-cells-per-zone cells
+    private boolean forEachCell(Zone zone, LongConsumer action) {
+        long minLatitude = cell(zone.minLatitude);
+        long maxLatitude = cell(zone.maxLatitude);
+        long minLongitude = cell(zone.minLongitude);
+        long maxLongitude = cell(zone.maxLongitude);
+        if ((maxLatitude - minLatitude + 1) * (maxLongitude - minLongitude + 1) > maxCellsPerZone) {
+            return false;
+        }
+        for (long latitude = minLatitude; latitude <= maxLatitude; latitude++) {
+            for (long longitude = minLongitude; longitude <= maxLongitude; longitude++) {
+                action.accept(cellKey(latitude, longitude));
+            }
+        }
+        return true;
+    }
+
+    private long cell(double degrees) {
+        return (long) Math.floor(degrees / cellSize);
+    }
+
+    // Long.hashCode folds the halves together, which would put neighbouring cells in a handful of buckets; the odd
+    // multiplier keeps keys distinct and mixes the two halves
+    private static long cellKey(long latitude, long longitude) {
+        return (latitude << 32 | longitude & 0xffffffffL) * 0x9E3779B97F4A7C15L;
+    }
+
+    // Written only inside owners.compute, so changes to one owner's zones never interleave
+    private static final class OwnerZones {
+        final Map<Long, Zone> byId = new ConcurrentSkipListMap<>();
+        final Map<Long, Cell> cells = new ConcurrentHashMap<>();
+        volatile Cell large = NONE;
+    }
+
+    /**
+     * The zones overlapping one grid cell. Their bounding boxes are copied into one array, so most zones are ruled
+     * out without following a pointer to them. Never modified; a change builds a new cell.
+     */
+    private static final class Cell {
+        private final Zone[] zones;
+        private final double[] bounds;
+
+        Cell(Zone[] zones) {
+            this.zones = zones;
+            this.bounds = new double[zones.length * 4];
+            for (int i = 0; i < zones.length; i++) {
+                bounds[i * 4] = zones[i].minLatitude;
+                bounds[i * 4 + 1] = zones[i].maxLatitude;
+                bounds[i * 4 + 2] = zones[i].minLongitude;
+                bounds[i * 4 + 3] = zones[i].maxLongitude;
+            }
+        }
+
+        boolean contains(double latitude, double longitude) {
+            for (int i = 0; i < zones.length; i++) {
+                int b = i * 4;
+                if (latitude >= bounds[b] && latitude <= bounds[b + 1]
+                        && longitude >= bounds[b + 2] && longitude <= bounds[b + 3]
+                        && zones[i].covers(latitude, longitude)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Cell with(Zone zone) {
+            Zone[] result = Arrays.copyOf(zones, zones.length + 1);
+            result[zones.length] = zone;
+            return new Cell(result);
+        }
+
+        // Null once the last zone is gone, which removes the cell
+        Cell without(Zone zone) {
+            Zone[] result = Arrays.stream(zones).filter(other -> other != zone).toArray(Zone[]::new);
+            return result.length == 0 ? null : new Cell(result);
+        }
+    }
+
+    /**
+     * A validated zone with its bounding box, in the form readings are tested against.
+     */
+    private abstract static class Zone {
+        final Geofence definition;
+        final double minLatitude;
+        final double maxLatitude;
+        final double minLongitude;
+        final double maxLongitude;
+
+        Zone(Geofence definition, double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+            if (minLatitude < -90 || maxLatitude > 90 || minLongitude < -180 || maxLongitude > 180) {
+                throw new PetValidationException("Zones must not reach across a pole or the antimeridian.");
+            }
+            this.definition = definition;
+            this.minLatitude = minLatitude;
+            this.maxLatitude = maxLatitude;
+            this.minLongitude = minLongitude;
+            this.maxLongitude = maxLongitude;
+        }
+
+        static Zone of(Geofence zone) {
+            return switch (zone) {
+                case CircleGeofence circle -> new Circle(circle);
+                case PolygonGeofence polygon -> new Polygon(polygon);
+            };
+        }
+
+        abstract boolean covers(double latitude, double longitude);
+    }
+
+    // Distances on the local tangent plane, accurate to metres for zones up to tens of kilometres across
+    private static final class Circle extends Zone {
+        private final double latitude;
+        private final double longitude;
+        private final double metersPerDegreeLongitude;
+        private final double radiusSquared;
+
+        Circle(CircleGeofence circle) {
+            this(circle, requireRadius(circle), metersPerDegreeLongitude(circle));
+        }
+
+        private Circle(CircleGeofence circle, double radius, double metersPerDegreeLongitude) {
+            super(circle,
+                    circle.latitude() - radius / METERS_PER_DEGREE, circle.latitude() + radius / METERS_PER_DEGREE,
+                    circle.longitude() - radius / metersPerDegreeLongitude,
+                    circle.longitude() + radius / metersPerDegreeLongitude);
+            this.latitude = circle.latitude();
+            this.longitude = circle.longitude();
+            this.metersPerDegreeLongitude = metersPerDegreeLongitude;
+            this.radiusSquared = radius * radius;
+        }
+
+        private static double requireRadius(CircleGeofence circle) {
+            requireCoordinates(circle.latitude(), circle.longitude());
+            if (circle.radiusMeters() == null || !(circle.radiusMeters() > 0)) {
+                throw new PetValidationException("radiusMeters must be a positive number.");
+            }
+            return circle.radiusMeters();
+        }
+
+        private static double metersPerDegreeLongitude(CircleGeofence circle) {
+            return METERS_PER_DEGREE * Math.cos(Math.toRadians(circle.latitude()));
+        }
+
+        @Override
+        boolean covers(double latitude, double longitude) {
+            double north = (latitude - this.latitude) * METERS_PER_DEGREE;
+            double east = (longitude - this.longitude) * metersPerDegreeLongitude;
+            return north * north + east * east <= radiusSquared;
+        }
+    }
+
+    private static final class Polygon extends Zone {
+        private final double[] latitudes;
+        private final double[] longitudes;
+
+        Polygon(PolygonGeofence polygon) {
+            this(polygon, requireVertices(polygon));
+        }
+
+        private Polygon(PolygonGeofence polygon, double[][] vertices) {
+            super(polygon,
+                    Arrays.stream(vertices[0]).min().orElseThrow(), Arrays.stream(vertices[0]).max().orElseThrow(),
+                    Arrays.stream(vertices[1]).min().orElseThrow(), Arrays.stream(vertices[1]).max().orElseThrow());
+            this.latitudes = vertices[0];
+            this.longitudes = vertices[1];
+        }
+
+        private static double[][] requireVertices(PolygonGeofence polygon) {
+            List<GeoPoint> vertices = polygon.vertices();
+            if (vertices == null || vertices.size() < 3) {
+                throw new PetValidationException("A polygon needs at least 3 vertices.");
+            }
+            double[][] coordinates = new double[2][vertices.size()];
+            for (int i = 0; i < vertices.size(); i++) {
+                GeoPoint vertex = vertices.get(i);
+                if (vertex == null) {
+                    throw new PetValidationException("Polygon vertices must not be null.");
+                }
+                requireCoordinates(vertex.latitude(), vertex.longitude());
+                coordinates[0][i] = vertex.latitude();
+                coordinates[1][i] = vertex.longitude();
+            }
+            return coordinates;
+        }
+
+        // Even-odd rule: a ray cast east from the point crosses the boundary an odd number of times when inside
+        @Override
+        boolean covers(double latitude, double longitude) {
+            boolean inside = false;
+            for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++) {
+                if ((latitudes[i] > latitude) != (latitudes[j] > latitude)
+                        && longitude < longitudes[j] + (latitude - latitudes[j]) * (longitudes[i] - longitudes[j])
+                        / (latitudes[i] - latitudes[j])) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+    }
+
+    static void requireCoordinates(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            throw new PetValidationException("latitude and longitude must be provided.");
+        }
+        if (!(Math.abs(latitude) <= 90) || !(Math.abs(longitude) <= 180)) {
+            throw new PetValidationException("latitude must be within -90..90 and longitude within -180..180.");
+        }
+    }
+}
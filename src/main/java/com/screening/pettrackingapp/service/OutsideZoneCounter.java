@@ -0,0 +1,136 @@
+package com.screening.pettrackingapp.service;
+
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+import com.screening.pettrackingapp.event.PetChangedEvent;
+import com.screening.pettrackingapp.event.PetSnapshot;
+import com.screening.pettrackingapp.repository.OutsideZoneCount;
+import com.screening.pettrackingapp.repository.PetStore;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Live matrix of pets outside the power saving zone, keyed by pet type and tracker type.
+ * It is rebuilt from the pet store on startup and then maintained from committed pet writes,
+ * so reading it never touches the store.
+ */
+@Component
+public class OutsideZoneCounter {
+
+    private static final PetType[] PET_TYPES = PetType.values();
+    private static final TrackerType[] TRACKER_TYPES = TrackerType.values();
+    private static final String[] KEYS = new String[PET_TYPES.length * TRACKER_TYPES.length];
+
+    static {
+        for (PetType petType : PET_TYPES) {
+            for (TrackerType trackerType : TRACKER_TYPES) {
+                KEYS[index(petType, trackerType)] = key(petType, trackerType);
+            }
+        }
+    }
+
+    private final PetStore petStore;
+    private final StampedLock lock = new StampedLock();
+    private final long[] counts = new long[KEYS.length];
+
+    @Autowired
+    public OutsideZoneCounter(PetStore petStore) {
+        this.petStore = petStore;
+    }
+
+    public static String key(PetType petType, TrackerType trackerType) {
+        return petType + "-" + trackerType;
+    }
+
+    /**
+     * Returns the key the pet is counted under, or {@code null} when it is not counted as outside the zone.
+     */
+    public static String key(PetSnapshot pet) {
+        int slot = slot(pet);
+        return slot < 0 ? null : KEYS[slot];
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        long[] fresh = new long[KEYS.length];
+        for (OutsideZoneCount row : petStore.countOutsideZone()) {
+            if (row.getPetType() != null && row.getTrackerType() != null) {
+                fresh[index(row.getPetType(), row.getTrackerType())] = row.getTotal();
+            }
+        }
+        long stamp = lock.writeLock();
+        try {
+            System.arraycopy(fresh, 0, counts, 0, counts.length);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPetChanged(PetChangedEvent event) {
+        apply(event.before(), event.after());
+    }
+
+    public void apply(PetSnapshot before, PetSnapshot after) {
+        int removed = slot(before);
+        int added = slot(after);
+        if (removed == added) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (removed >= 0) {
+                counts[removed]--;
+            }
+            if (added >= 0) {
+                counts[added]++;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public long count(String key) {
+        return snapshot().getOrDefault(key, 0L);
+    }
+
+    public Map<String, Long> snapshot() {
+        long[] copy = new long[counts.length];
+        long stamp = lock.tryOptimisticRead();
+        System.arraycopy(counts, 0, copy, 0, copy.length);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                System.arraycopy(counts, 0, copy, 0, copy.length);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < copy.length; i++) {
+            if (copy[i] > 0) {
+                result.put(KEYS[i], copy[i]);
+            }
+        }
+        return result;
+    }
+
+    private static int slot(PetSnapshot pet) {
+        if (pet == null || !pet.isOutsideZone() || pet.petType() == null || pet.trackerType() == null) {
+            return -1;
+        }
+        return index(pet.petType(), pet.trackerType());
+    }
+
+    private static int index(PetType petType, TrackerType trackerType) {
+        return petType.ordinal() * TRACKER_TYPES.length + trackerType.ordinal();
+    }
+}
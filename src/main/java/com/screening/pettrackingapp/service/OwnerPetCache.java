@@ -0,0 +1,86 @@
+package com.screening.pettrackingapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.screening.pettrackingapp.config.OwnerCacheProperties;
+import com.screening.pettrackingapp.event.PetChangedEvent;
+import com.screening.pettrackingapp.event.PetSnapshot;
+import com.screening.pettrackingapp.repository.PetView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of the pets per owner (Caffeine, W-TinyLFU eviction with a TTL).
+ * <p>
+ * Every committed write invalidates the old and the new owner of the pet. A load that overlaps an invalidation of
+ * the same owner is never left in the cache: invalidations bump a per-stripe generation first, and a loader removes
+ * its own entry again when the generation moved while it was reading.
+ */
+@Component
+public class OwnerPetCache {
+
+    private static final int STRIPES = 1024;
+
+    private final Cache<Integer, List<PetView>> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    @Autowired
+    public OwnerPetCache(OwnerCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "owner-pets");
+    }
+
+    public List<PetView> get(Integer ownerId, Function<Integer, List<PetView>> loader) {
+        List<PetView> cached = cache.getIfPresent(ownerId);
+        if (cached != null) {
+            return cached;
+        }
+        int stripe = stripe(ownerId);
+        long generation = generations.get(stripe);
+        List<PetView> loaded = List.copyOf(loader.apply(ownerId));
+        cache.put(ownerId, loaded);
+        if (generations.get(stripe) != generation) {
+            cache.asMap().remove(ownerId, loaded);
+        }
+        return loaded;
+    }
+
+    public void invalidate(Integer ownerId) {
+        generations.incrementAndGet(stripe(ownerId));
+        cache.invalidate(ownerId);
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPetChanged(PetChangedEvent event) {
+        invalidate(event.before());
+        invalidate(event.after());
+    }
+
+    private void invalidate(PetSnapshot pet) {
+        if (pet != null && pet.ownerId() != null) {
+            invalidate(pet.ownerId());
+        }
+    }
+
+    private static int stripe(Integer ownerId) {
+        return Math.floorMod(ownerId.hashCode(), STRIPES);
+    }
+}
@@ -0,0 +1,153 @@
+package com.screening.pettrackingapp.service;
+
+import com.screening.pettrackingapp.config.ChangeLogProperties;
+import com.screening.pettrackingapp.dto.PetChange;
+import com.screening.pettrackingapp.dto.PetChanges;
+import com.screening.pettrackingapp.event.PetChangedEvent;
+import com.screening.pettrackingapp.event.PetSnapshot;
+import com.screening.pettrackingapp.exception.ResyncRequiredException;
+import com.screening.pettrackingapp.repository.PetView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Numbers every committed pet write with the next change version and keeps the most recent ones, deletes included,
+ * for clients that sync incrementally.
+ * <p>
+ * Versions are consecutive, so a change is found by its offset from the oldest one retained. They start from the
+ * startup time and so keep increasing across restarts; the log itself is not persisted, and a client asking for a
+ * version this instance does not hold is told to resync.
+ */
+@Component
+public class PetChangeLog {
+
+    private final Clock clock;
+    private final long retentionMillis;
+    private final Change[] ring;
+    // A lock rather than synchronized, which would pin virtual threads; it guards the ring and the fields below
+    private final ReentrantLock lock = new ReentrantLock();
+    private int head;
+    private int size;
+    // Version of the oldest retained change, or of the next one while the log is empty
+    private long first;
+
+    @Autowired
+    public PetChangeLog(ChangeLogProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    PetChangeLog(ChangeLogProperties properties, Clock clock) {
+        this.clock = clock;
+        this.retentionMillis = properties.getRetention().toMillis();
+        this.ring = new Change[Math.max(1, properties.getCapacity())];
+        this.first = clock.millis() * 1_000;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPetChanged(PetChangedEvent event) {
+        PetSnapshot before = event.before();
+        PetSnapshot after = event.after();
+        Long id = after != null ? after.id() : before.id();
+        append(id, before == null ? null : before.ownerId(), after);
+    }
+
+    /**
+     * Version of the latest change; reloading the pets and then asking for the changes since this version loses
+     * nothing, though writes that land in between are reported again.
+     */
+    public long currentVersion() {
+        lock.lock();
+        try {
+            expire(clock.millis());
+            return first + size - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} changes after {@code since}, reduced to the latest one per pet. With an owner only that
+     * owner's pets are reported, and pets that left the owner come back as removed.
+     */
+    public PetChanges changesSince(long since, Integer ownerId, int limit) {
+        Change[] window;
+        long latest;
+        lock.lock();
+        try {
+            expire(clock.millis());
+            latest = first + size - 1;
+            if (since < first - 1 || since > latest) {
+                throw new ResyncRequiredException("Changes since version " + since + " are not retained. Reload "
+                        + "the pets and sync from the version returned by GET /api/pets/changes.");
+            }
+            window = new Change[(int) Math.min(limit, latest - since)];
+            int offset = (int) (since + 1 - first);
+            for (int i = 0; i < window.length; i++) {
+                window[i] = ring[(head + offset + i) % ring.length];
+            }
+        } finally {
+            lock.unlock();
+        }
+        Map<Long, PetChange> latestPerPet = new LinkedHashMap<>();
+        for (Change change : window) {
+            PetChange reported = change.reportFor(ownerId);
+            if (reported != null) {
+                latestPerPet.remove(change.id);
+                latestPerPet.put(change.id, reported);
+            }
+        }
+        long version = since + window.length;
+        return new PetChanges(version, version < latest, new ArrayList<>(latestPerPet.values()));
+    }
+
+    private void append(Long id, Integer previousOwnerId, PetSnapshot after) {
+        lock.lock();
+        try {
+            long now = clock.millis();
+            expire(now);
+            if (size == ring.length) {
+                drop();
+            }
+            ring[(head + size) % ring.length] = new Change(first + size, now, id, previousOwnerId, after);
+            size++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void expire(long now) {
+        while (size > 0 && ring[head].timestamp < now - retentionMillis) {
+            drop();
+        }
+    }
+
+    private void drop() {
+        ring[head] = null;
+        head = (head + 1) % ring.length;
+        size--;
+        first++;
+    }
+
+    private record Change(long version, long timestamp, Long id, Integer previousOwnerId, PetSnapshot after) {
+
+        PetChange reportFor(Integer ownerId) {
+            boolean present = after != null && (ownerId == null || ownerId.equals(after.ownerId()));
+            if (present) {
+                return new PetChange(version, id, false, new PetView(after.id(), after.petType(),
+                        after.trackerType(), after.ownerId(), after.inZone(), after.lostTracker()));
+            }
+            if (ownerId == null || Objects.equals(ownerId, previousOwnerId)) {
+                return new PetChange(version, id, true, null);
+            }
+            return null;
+        }
+    }
+}
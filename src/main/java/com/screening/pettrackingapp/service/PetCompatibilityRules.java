@@ -0,0 +1,142 @@
+package com.screening.pettrackingapp.service;
+
+import com.screening.pettrackingapp.config.PetValidationProperties;
+import com.screening.pettrackingapp.entity.*;
+import com.screening.pettrackingapp.exception.PetValidationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The pet type × tracker type matrix and field rules from {@code pettracker.validation}, compiled at startup into
+ * one bitmask per pet type. {@link #check(Pet)} evaluates every rule with a few mask operations and returns all
+ * violations as bits, without allocating; messages are only built for pets that fail.
+ */
+@Component
+public class PetCompatibilityRules {
+
+    private static final PetType[] PET_TYPES = PetType.values();
+    private static final TrackerType[] TRACKER_TYPES = TrackerType.values();
+    private static final PetField[] FIELDS = PetField.values();
+
+    // bit 0 missing pet type, bit 1 pet type not matching the entity, bit 2 tracker type not allowed,
+    // bits 8.. required field missing, bits 24.. field not allowed (by PetField ordinal)
+    private static final long PET_TYPE_MISSING = 1L;
+    private static final long PET_TYPE_MISMATCH = 1L << 1;
+    private static final long TRACKER_TYPE_NOT_ALLOWED = 1L << 2;
+    private static final int MISSING_SHIFT = 8;
+    private static final int NOT_ALLOWED_SHIFT = 24;
+
+    private final int[] allowedTrackerTypes = new int[PET_TYPES.length];
+    private final int[] allowedFields = new int[PET_TYPES.length];
+    private final int[] requiredFields = new int[PET_TYPES.length];
+
+    @Autowired
+    public PetCompatibilityRules(PetValidationProperties properties) {
+        int allTrackerTypes = (1 << TRACKER_TYPES.length) - 1;
+        int allFields = (1 << FIELDS.length) - 1;
+        for (PetType petType : PET_TYPES) {
+            Set<TrackerType> trackerTypes = properties.getTrackerTypes().get(petType);
+            allowedTrackerTypes[petType.ordinal()] = trackerTypes == null ? allTrackerTypes : mask(trackerTypes);
+            allowedFields[petType.ordinal()] = allFields;
+        }
+        for (Map.Entry<PetField, PetValidationProperties.FieldRule> rule : properties.getFields().entrySet()) {
+            int bit = 1 << rule.getKey().ordinal();
+            for (PetType petType : PET_TYPES) {
+                if (!rule.getValue().getAllowedFor().contains(petType)) {
+                    allowedFields[petType.ordinal()] &= ~bit;
+                }
+                if (rule.getValue().getRequiredFor().contains(petType)) {
+                    requiredFields[petType.ordinal()] |= bit;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the violated rules as a bit set, 0 when the pet is valid.
+     */
+    public long check(Pet pet) {
+        PetType petType = pet.getPetType();
+        if (petType == null) {
+            return PET_TYPE_MISSING;
+        }
+        int type = petType.ordinal();
+        long violations = 0;
+        if ((pet instanceof Cat && petType != PetType.CAT) || (pet instanceof Dog && petType != PetType.DOG)) {
+            violations |= PET_TYPE_MISMATCH;
+        }
+        TrackerType trackerType = pet.getTrackerType();
+        if (trackerType != null && (allowedTrackerTypes[type] & (1 << trackerType.ordinal())) == 0) {
+            violations |= TRACKER_TYPE_NOT_ALLOWED;
+        }
+        int set = 0;
+        for (PetField field : FIELDS) {
+            if (field.isSet(pet)) {
+                set |= 1 << field.ordinal();
+            }
+        }
+        violations |= (long) (requiredFields[type] & ~set) << MISSING_SHIFT;
+        violations |= (long) (set & ~allowedFields[type]) << NOT_ALLOWED_SHIFT;
+        return violations;
+    }
+
+    /**
+     * Whether pets of this type may carry this tracker type; a pet without a type carries none.
+     */
+    public boolean allows(PetType petType, TrackerType trackerType) {
+        return petType != null && (allowedTrackerTypes[petType.ordinal()] & (1 << trackerType.ordinal())) != 0;
+    }
+
+    /**
+     * One message per violation returned by {@link #check(Pet)} for this pet.
+     */
+    public List<String> describe(Pet pet, long violations) {
+        List<String> messages = new ArrayList<>();
+        if ((violations & PET_TYPE_MISSING) != 0) {
+            messages.add("Pet type is required");
+        }
+        if ((violations & PET_TYPE_MISMATCH) != 0) {
+            messages.add("Pet type " + pet.getPetType() + " does not match a " + pet.getClass().getSimpleName());
+        }
+        if ((violations & TRACKER_TYPE_NOT_ALLOWED) != 0) {
+            messages.add("Tracker type " + pet.getTrackerType() + " is not applicable for " + pet.getPetType());
+        }
+        for (PetField field : FIELDS) {
+            if ((violations & (1L << (MISSING_SHIFT + field.ordinal()))) != 0) {
+                messages.add("'" + field.propertyName() + "' is required for " + pet.getPetType());
+            }
+            if ((violations & (1L << (NOT_ALLOWED_SHIFT + field.ordinal()))) != 0) {
+                messages.add("'" + field.propertyName() + "' is not applicable for " + pet.getPetType());
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Returns the violations joined into one message, or {@code null} when the pet is valid.
+     */
+    public String violations(Pet pet) {
+        long violations = check(pet);
+        return violations == 0 ? null : String.join("; ", describe(pet, violations));
+    }
+
+    public void validate(Pet pet) {
+        String violations = violations(pet);
+        if (violations != null) {
+            throw new PetValidationException(violations);
+        }
+    }
+
+    private static int mask(Set<TrackerType> trackerTypes) {
+        int mask = 0;
+        for (TrackerType trackerType : trackerTypes) {
+            mask |= 1 << trackerType.ordinal();
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,228 @@
+package com.screening.pettrackingapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.screening.pettrackingapp.config.PetEventsProperties;
+import com.screening.pettrackingapp.dto.LostTrackerTransition;
+import com.screening.pettrackingapp.dto.OutsideZoneDelta;
+import com.screening.pettrackingapp.dto.ZoneTransition;
+import com.screening.pettrackingapp.event.PetChangedEvent;
+import com.screening.pettrackingapp.event.PetSnapshot;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes zone and lost-tracker transitions and outside-zone count deltas to server-sent event subscribers.
+ * <p>
+ * The write path only offers the pre-serialized events to a bounded queue. A fan-out thread copies them into
+ * bounded per-subscriber queues and each subscriber is drained on its own virtual thread, so a slow client only
+ * ever delays itself; one that falls too far behind is disconnected.
+ */
+@Component
+public class PetEventBroadcaster {
+
+    public static final String ZONE_EVENT = "zone";
+    public static final String LOST_TRACKER_EVENT = "lost-tracker";
+    public static final String OUTSIDE_ZONE_EVENT = "outside-zone";
+    public static final String OUTSIDE_ZONE_SNAPSHOT_EVENT = "outside-zone-snapshot";
+
+    private static final Logger log = LoggerFactory.getLogger(PetEventBroadcaster.class);
+
+    private final ObjectMapper objectMapper;
+    private final OutsideZoneCounter outsideZoneCounter;
+    private final PetEventsProperties properties;
+    private final BlockingQueue<Message> published;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat;
+    private final Thread fanOut;
+    private final AtomicLong dropped = new AtomicLong();
+
+    @Autowired
+    public PetEventBroadcaster(ObjectMapper objectMapper, OutsideZoneCounter outsideZoneCounter,
+                               PetEventsProperties properties) {
+        this.objectMapper = objectMapper;
+        this.outsideZoneCounter = outsideZoneCounter;
+        this.properties = properties;
+        this.published = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.fanOut = Thread.ofPlatform().name("pet-events-fan-out").daemon().start(this::fanOut);
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("pet-events-heartbeat").daemon().factory());
+        long interval = properties.getHeartbeatInterval().toMillis();
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeat, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, properties.getSubscriberQueueCapacity());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        // Current counts first, so clients can apply the deltas that follow
+        subscriber.offer(message(OUTSIDE_ZONE_SNAPSHOT_EVENT, outsideZoneCounter.snapshot()));
+        subscribers.add(subscriber);
+        schedule(subscriber);
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    // Runs after the outside-zone counter so the counts in the deltas already include this change
+    @Order(10)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPetChanged(PetChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        for (Message message : messages(event)) {
+            if (!published.offer(message)) {
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    private List<Message> messages(PetChangedEvent event) {
+        List<Message> messages = new ArrayList<>(3);
+        PetSnapshot before = event.before();
+        PetSnapshot after = event.after();
+        if (after != null && after.inZone() != null
+                && (before == null || !Objects.equals(before.inZone(), after.inZone()))) {
+            messages.add(message(ZONE_EVENT, new ZoneTransition(after.id(), after.petType(), after.trackerType(),
+                    after.ownerId(), after.inZone())));
+        }
+        if (after != null && after.lostTracker() != null
+                && (before == null ? after.lostTracker() : !Objects.equals(before.lostTracker(), after.lostTracker()))) {
+            messages.add(message(LOST_TRACKER_EVENT, new LostTrackerTransition(after.id(), after.ownerId(),
+                    after.lostTracker())));
+        }
+        String removedKey = OutsideZoneCounter.key(before);
+        String addedKey = OutsideZoneCounter.key(after);
+        if (!Objects.equals(removedKey, addedKey)) {
+            if (removedKey != null) {
+                messages.add(message(OUTSIDE_ZONE_EVENT,
+                        new OutsideZoneDelta(removedKey, -1, outsideZoneCounter.count(removedKey))));
+            }
+            if (addedKey != null) {
+                messages.add(message(OUTSIDE_ZONE_EVENT,
+                        new OutsideZoneDelta(addedKey, 1, outsideZoneCounter.count(addedKey))));
+            }
+        }
+        return messages;
+    }
+
+    private Message message(String name, Object payload) {
+        try {
+            return new Message(name, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize " + name + " event", ex);
+        }
+    }
+
+    private void fanOut() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Message message;
+            try {
+                message = published.take();
+            } catch (InterruptedException ex) {
+                return;
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.offer(message)) {
+                    schedule(subscriber);
+                } else {
+                    log.debug("Disconnecting event subscriber that fell {} events behind", subscriber.queue.size());
+                    subscribers.remove(subscriber);
+                    subscriber.emitter.complete();
+                }
+            }
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Message message;
+            while ((message = subscriber.queue.poll()) != null) {
+                try {
+                    subscriber.emitter.send(message.isHeartbeat()
+                            ? SseEmitter.event().comment("heartbeat")
+                            : SseEmitter.event().name(message.name()).data(message.json(), MediaType.APPLICATION_JSON));
+                } catch (IOException | IllegalStateException ex) {
+                    subscribers.remove(subscriber);
+                    subscriber.queue.clear();
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+            // An event offered after the queue looked empty but before the flag was cleared is picked up here
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void sendHeartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offer(Message.HEARTBEAT)) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        fanOut.interrupt();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    private record Message(String name, String json) {
+        static final Message HEARTBEAT = new Message(null, null);
+
+        boolean isHeartbeat() {
+            return this == HEARTBEAT;
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<Message> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private boolean offer(Message message) {
+            return queue.offer(message);
+        }
+    }
+}
@@ -1,31 +1,84 @@
 package com.screening.pettrackingapp.service;
 
+import com.screening.pettrackingapp.dto.BatchIngestResult;
+import com.screening.pettrackingapp.dto.BatchItem;
+import com.screening.pettrackingapp.dto.BulkWriteResult;
+import com.screening.pettrackingapp.dto.GeoPoint;
 import com.screening.pettrackingapp.entity.Cat;
-import com.screening.pettrackingapp.entity.Dog;
 import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.entity.TrackerType;
+import com.screening.pettrackingapp.repository.PetSelection;
+import com.screening.pettrackingapp.repository.PetStats;
+import com.screening.pettrackingapp.repository.PetStatsQuery;
+import com.screening.pettrackingapp.repository.PetView;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public interface PetService {
 
     Pet savePet(Pet pet);
 
-    List<Pet> getAllPets();
+    /**
+     * Rejects a pet that {@link #savePet(Pet)} would not accept, with a {@code PetValidationException}.
+     */
+    void validatePet(Pet pet);
+
+    BatchIngestResult savePets(Iterator<BatchItem> items);
+
+    List<PetView> getAllPets();
+
+    List<PetView> getPets(Long afterId, int limit);
+
+    void forEachPet(Consumer<? super Pet> action);
 
     Map<String, Long> getPetsOutsideZone();
 
+    /**
+     * Counts of the pets matching the query per group, in {@link PetStats#GROUP_ORDER}.
+     */
+    List<PetStats> getStats(PetStatsQuery query);
+
     void deletePet(Long id);
 
     Pet updatePet(Long id, Pet pet);
 
+    void updateZone(Long id, Boolean inZone);
+
+    /**
+     * Sets {@code inZone} and {@code trackerType}, where not null, on every pet the selection matches, in one
+     * transaction that fails with a conflict if any of them changes meanwhile.
+     */
+    BulkWriteResult updatePets(PetSelection selection, Boolean inZone, TrackerType trackerType);
+
+    /**
+     * Deletes every pet the selection matches, on the same terms as {@link #updatePets}.
+     */
+    BulkWriteResult deletePets(PetSelection selection);
+
+    /**
+     * Sets {@code inZone} from a tracker reading: whether it lies in one of the owner's zones. Returns that result.
+     */
+    boolean updateLocation(Long id, GeoPoint location);
+
+    /**
+     * Whether a tracker reading lies in one of the owner's zones, without changing the pet.
+     */
+    boolean isInZone(Long id, GeoPoint location);
+
     Pet getPetById(Long id);
 
-    List<Pet> getPetsByOwnerId(Integer ownerId);
+    List<PetView> getPetsByOwnerId(Integer ownerId);
+
+    List<PetView> getPetsByOwnerId(Integer ownerId, Long afterId, int limit);
+
+    void forEachPetByOwnerId(Integer ownerId, Consumer<? super Pet> action);
 
-    List<Cat> getAllCats();
+    List<PetView> getAllCats();
 
-    List<Dog> getAllDogs();
+    List<PetView> getAllDogs();
 
     List<Cat> getLostTrackerCats();
 }
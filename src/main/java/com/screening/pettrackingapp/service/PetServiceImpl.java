@@ -1,52 +1,160 @@
 package com.screening.pettrackingapp.service;
 
+import com.screening.pettrackingapp.config.PetIngestProperties;
+import com.screening.pettrackingapp.dto.BatchIngestResult;
+import com.screening.pettrackingapp.dto.BatchItem;
+import com.screening.pettrackingapp.dto.BatchItemError;
+import com.screening.pettrackingapp.dto.BulkWriteResult;
+import com.screening.pettrackingapp.dto.GeoPoint;
 import com.screening.pettrackingapp.entity.*;
+import com.screening.pettrackingapp.event.PetChangedEvent;
+import com.screening.pettrackingapp.event.PetSnapshot;
 import com.screening.pettrackingapp.exception.PetValidationException;
-import com.screening.pettrackingapp.repository.PetRepository;
+import com.screening.pettrackingapp.repository.PetSelection;
+import com.screening.pettrackingapp.repository.PetState;
+import com.screening.pettrackingapp.repository.PetStats;
+import com.screening.pettrackingapp.repository.PetStatsQuery;
+import com.screening.pettrackingapp.repository.PetStore;
+import com.screening.pettrackingapp.repository.PetView;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 @Service
 public class PetServiceImpl implements PetService {
 
-    private final PetRepository petRepository;
+    private final PetStore petStore;
+    private final OutsideZoneCounter outsideZoneCounter;
+    private final OwnerPetCache ownerPetCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionOperations transactionOperations;
+    private final PetIngestProperties ingestProperties;
+    private final PetCompatibilityRules compatibilityRules;
+    private final GeofenceIndex geofenceIndex;
 
     @Autowired
-    public PetServiceImpl(PetRepository petRepository) {
-        this.petRepository = petRepository;
+    public PetServiceImpl(PetStore petStore, OutsideZoneCounter outsideZoneCounter,
+                          OwnerPetCache ownerPetCache, ApplicationEventPublisher eventPublisher,
+                          TransactionOperations transactionOperations, PetIngestProperties ingestProperties,
+                          PetCompatibilityRules compatibilityRules, GeofenceIndex geofenceIndex) {
+        this.petStore = petStore;
+        this.outsideZoneCounter = outsideZoneCounter;
+        this.ownerPetCache = ownerPetCache;
+        this.eventPublisher = eventPublisher;
+        this.transactionOperations = transactionOperations;
+        this.ingestProperties = ingestProperties;
+        this.compatibilityRules = compatibilityRules;
+        this.geofenceIndex = geofenceIndex;
     }
 
     @Override
+    @Transactional
     public Pet savePet(Pet pet) {
-        validate(pet);
-        return petRepository.save(pet);
+        validatePet(pet);
+        Pet savedPet = petStore.save(pet);
+        eventPublisher.publishEvent(PetChangedEvent.created(savedPet));
+        return savedPet;
     }
 
     @Override
-    public List<Pet> getAllPets() {
-        return petRepository.findAll();
+    public BatchIngestResult savePets(Iterator<BatchItem> items) {
+        int chunkSize = Math.max(1, ingestProperties.getChunkSize());
+        List<BatchItem> chunk = new ArrayList<>(chunkSize);
+        List<Long> ids = new ArrayList<>();
+        List<BatchItemError> errors = new ArrayList<>();
+        int received = 0;
+
+        while (items.hasNext()) {
+            BatchItem item = items.next();
+            received++;
+            if (item.error() != null) {
+                errors.add(new BatchItemError(item.index(), item.error()));
+                continue;
+            }
+            String violations = compatibilityRules.violations(item.pet());
+            if (violations != null) {
+                errors.add(new BatchItemError(item.index(), violations));
+                continue;
+            }
+            chunk.add(item);
+            if (chunk.size() == chunkSize) {
+                saveChunk(chunk, ids, errors);
+            }
+        }
+        saveChunk(chunk, ids, errors);
+        return new BatchIngestResult(received, ids.size(), errors.size(), ids, errors);
+    }
+
+    private void saveChunk(List<BatchItem> chunk, List<Long> ids, List<BatchItemError> errors) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            List<Pet> savedPets = transactionOperations.execute(status -> {
+                List<Pet> pets = petStore.saveAll(chunk.stream().map(BatchItem::pet).toList());
+                pets.forEach(savedPet -> eventPublisher.publishEvent(PetChangedEvent.created(savedPet)));
+                return pets;
+            });
+            savedPets.forEach(savedPet -> ids.add(savedPet.getId()));
+        } catch (RuntimeException ex) {
+            // The whole chunk shares one transaction, so every item in it was rolled back
+            chunk.forEach(item -> errors.add(new BatchItemError(item.index(), "Could not persist pet: " + ex.getMessage())));
+        }
+        chunk.clear();
+    }
+
+    @Override
+    public List<PetView> getAllPets() {
+        return petStore.findViews();
+    }
+
+    @Override
+    public List<PetView> getPets(Long afterId, int limit) {
+        return petStore.findViewsAfter(afterId, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachPet(Consumer<? super Pet> action) {
+        petStore.forEachPet(action);
     }
 
     @Override
     public Map<String, Long> getPetsOutsideZone() {
-        return petRepository.findByInZoneFalse()
-                .stream()
-                .collect(Collectors.groupingBy(pet -> pet.getPetType() + "-" + pet.getTrackerType(), Collectors.counting()));
+        return outsideZoneCounter.snapshot();
     }
 
     @Override
+    public List<PetStats> getStats(PetStatsQuery query) {
+        List<PetStats> stats = new ArrayList<>(petStore.countStats(query));
+        stats.sort(PetStats.GROUP_ORDER);
+        return stats;
+    }
+
+    @Override
+    @Transactional
     public void deletePet(Long id) {
-        petRepository.deleteById(id);
+        petStore.findById(id).ifPresent(existingPet -> {
+            petStore.delete(existingPet);
+            eventPublisher.publishEvent(PetChangedEvent.deleted(existingPet));
+        });
     }
 
     @Override
+    @Transactional
     public Pet updatePet(Long id, Pet pet) {
-        Pet existingPet = petRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Pet with ID " + id + " not found."));
+        Pet existingPet = petStore.findById(id).orElseThrow(() -> new EntityNotFoundException("Pet with ID " + id + " not found."));
+        PetSnapshot before = PetSnapshot.of(existingPet);
 
         existingPet.setPetType(pet.getPetType());
         existingPet.setTrackerType(pet.getTrackerType());
@@ -57,48 +165,153 @@ public class PetServiceImpl implements PetService {
         if (existingPet instanceof Cat && pet instanceof Cat) {
             ((Cat) existingPet).setLostTracker(((Cat) pet).getLostTracker());
         }
+        validatePet(existingPet);
+
+        Pet updatedPet = petStore.save(existingPet);
+        eventPublisher.publishEvent(PetChangedEvent.updated(before, updatedPet));
+        return updatedPet;
+    }
+
+    @Override
+    @Transactional
+    public void updateZone(Long id, Boolean inZone) {
+        if (inZone == null) {
+            throw new PetValidationException("inZone must be provided");
+        }
+        applyZone(findState(id), inZone);
+    }
+
+    // Pets already holding the values are skipped; the others change in a few set-based statements and each gets
+    // its event, so derived state stays in step as with single writes
+    @Override
+    @Transactional
+    public BulkWriteResult updatePets(PetSelection selection, Boolean inZone, TrackerType trackerType) {
+        requireSelection(selection);
+        if (inZone == null && trackerType == null) {
+            throw new PetValidationException("inZone or trackerType must be provided.");
+        }
+        List<PetState> matched = petStore.findStates(selection);
+        if (trackerType != null) {
+            for (PetState pet : matched) {
+                if (!compatibilityRules.allows(pet.petType(), trackerType)) {
+                    throw new PetValidationException("Tracker type " + trackerType + " is not applicable for "
+                            + pet.petType() + " (pet " + pet.id() + ").");
+                }
+            }
+        }
+        List<PetState> changed = matched.stream()
+                .filter(pet -> (inZone != null && !inZone.equals(pet.inZone()))
+                        || (trackerType != null && trackerType != pet.trackerType()))
+                .toList();
+        petStore.updateAll(changed, inZone, trackerType);
+        for (PetState pet : changed) {
+            PetSnapshot before = pet.toSnapshot();
+            PetSnapshot after = new PetSnapshot(before.id(), before.petType(),
+                    trackerType != null ? trackerType : before.trackerType(), before.ownerId(),
+                    inZone != null ? inZone : before.inZone(), before.lostTracker());
+            eventPublisher.publishEvent(new PetChangedEvent(before, after));
+        }
+        return new BulkWriteResult(matched.size(), changed.size());
+    }
+
+    @Override
+    @Transactional
+    public BulkWriteResult deletePets(PetSelection selection) {
+        requireSelection(selection);
+        List<PetState> matched = petStore.findStates(selection);
+        petStore.deleteAll(matched);
+        matched.forEach(pet -> eventPublisher.publishEvent(new PetChangedEvent(pet.toSnapshot(), null)));
+        return new BulkWriteResult(matched.size(), matched.size());
+    }
 
-        return petRepository.save(existingPet);
+    private static void requireSelection(PetSelection selection) {
+        if (selection.isEmpty()) {
+            throw new PetValidationException("ids, ownerId or petType must be provided to select pets.");
+        }
+    }
+
+    @Override
+    @Transactional
+    public boolean updateLocation(Long id, GeoPoint location) {
+        requireLocation(location);
+        PetState state = findState(id);
+        boolean inZone = geofenceIndex.contains(state.ownerId(), location.latitude(), location.longitude());
+        applyZone(state, inZone);
+        return inZone;
+    }
+
+    @Override
+    public boolean isInZone(Long id, GeoPoint location) {
+        requireLocation(location);
+        return geofenceIndex.contains(findState(id).ownerId(), location.latitude(), location.longitude());
+    }
+
+    private static void requireLocation(GeoPoint location) {
+        if (location == null) {
+            throw new PetValidationException("latitude and longitude must be provided.");
+        }
+        GeofenceIndex.requireCoordinates(location.latitude(), location.longitude());
+    }
+
+    private PetState findState(Long id) {
+        return petStore.findStateById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Pet with ID " + id + " not found."));
+    }
+
+    private void applyZone(PetState state, Boolean inZone) {
+        Long id = state.id();
+        if (inZone.equals(state.inZone())) {
+            return;
+        }
+        if (petStore.updateInZone(id, inZone, state.version()) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Pet.class, id);
+        }
+        PetSnapshot before = state.toSnapshot();
+        PetSnapshot after = new PetSnapshot(before.id(), before.petType(), before.trackerType(), before.ownerId(),
+                inZone, before.lostTracker());
+        eventPublisher.publishEvent(new PetChangedEvent(before, after));
     }
 
     @Override
     public Pet getPetById(Long id) {
-        return petRepository.findById(id)
+        return petStore.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Pet with ID " + id + " not found."));
     }
 
     @Override
-    public List<Pet> getPetsByOwnerId(Integer ownerId) {
-        return petRepository.findByOwnerId(ownerId);
+    public List<PetView> getPetsByOwnerId(Integer ownerId) {
+        return ownerPetCache.get(ownerId, petStore::findViewsByOwnerId);
+    }
+
+    @Override
+    public List<PetView> getPetsByOwnerId(Integer ownerId, Long afterId, int limit) {
+        return petStore.findViewsByOwnerIdAfter(ownerId, afterId, limit);
     }
 
     @Override
-    public List<Cat> getAllCats() {
-        return petRepository.findAll().stream()
-                .filter(pet -> pet instanceof Cat)
-                .map(pet -> (Cat) pet)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public void forEachPetByOwnerId(Integer ownerId, Consumer<? super Pet> action) {
+        petStore.forEachPetByOwnerId(ownerId, action);
     }
 
     @Override
-    public List<Dog> getAllDogs() {
-        return petRepository.findAll().stream()
-                .filter(pet -> pet instanceof Dog)
-                .map(pet -> (Dog) pet)
-                .collect(Collectors.toList());
+    public List<PetView> getAllCats() {
+        return petStore.findViewsByPetType(PetType.CAT);
+    }
+
+    @Override
+    public List<PetView> getAllDogs() {
+        return petStore.findViewsByPetType(PetType.DOG);
     }
 
     @Override
     public List<Cat> getLostTrackerCats() {
-        return petRepository.findByLostTrackerTrue();
+        return petStore.findByLostTrackerTrue();
     }
 
-    private void validate(Pet pet) {
-       if (pet instanceof Dog) {
-           if (pet.getTrackerType() == TrackerType.MEDIUM) {
-               throw new PetValidationException("Tracker type " + TrackerType.MEDIUM + " is not applicable for " + PetType.DOG);
-           }
-        }
+    @Override
+    public void validatePet(Pet pet) {
+        compatibilityRules.validate(pet);
     }
 
 }
@@ -0,0 +1,254 @@
+package com.screening.pettrackingapp.service;
+
+import com.screening.pettrackingapp.config.PetIngestProperties;
+import com.screening.pettrackingapp.dto.BatchIngestResult;
+import com.screening.pettrackingapp.dto.BatchItem;
+import com.screening.pettrackingapp.dto.BatchItemError;
+import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.exception.IngestRejectedException;
+import com.screening.pettrackingapp.repository.PetStore;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Write-behind buffer for pet creates. A create is validated, given an id from the pet sequence and queued in a
+ * bounded buffer; a single writer thread commits queued pets in groups, closing a group once it is full or its
+ * delay has passed, so many creates share one transaction. Reads of an id that is still queued wait for its group,
+ * and learn if its pet could not be saved.
+ */
+@Component
+public class PetWriteBehindBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(PetWriteBehindBuffer.class);
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final PetService petService;
+    private final PetStore petStore;
+    private final PetIngestProperties.WriteBehind properties;
+    private final BlockingQueue<Pet> buffer;
+    // Reserved ids that are queued or being committed, completed once their group is done
+    private final Map<Long, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+    // Why reserved ids were not saved, for the most recent capacity of them, oldest first
+    private final Map<Long, String> failures = new ConcurrentHashMap<>();
+    private final Queue<Long> failureOrder = new ConcurrentLinkedQueue<>();
+    // Submits hold the read lock while queueing, so once shutdown has taken the write lock nothing more is queued
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+    private final Thread writer;
+    private volatile boolean accepting = true;
+
+    @Autowired
+    public PetWriteBehindBuffer(PetService petService, PetStore petStore, PetIngestProperties ingestProperties) {
+        this.petService = petService;
+        this.petStore = petStore;
+        this.properties = ingestProperties.getWriteBehind();
+        if (properties.isEnabled()) {
+            buffer = new ArrayBlockingQueue<>(Math.max(1, properties.getCapacity()));
+            writer = Thread.ofPlatform().name("pet-write-behind").daemon().start(this::drain);
+        } else {
+            buffer = null;
+            writer = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return writer != null;
+    }
+
+    /**
+     * Validates the pet, gives it an id and queues it for the writer. The pet must not be changed afterwards.
+     */
+    public Pet submit(Pet pet) {
+        acceptLock.readLock().lock();
+        try {
+            if (!accepting) {
+                throw new IngestRejectedException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Server is shutting down, please retry.");
+            }
+            petService.validatePet(pet);
+            if (buffer.remainingCapacity() == 0) {
+                throw tooManyRequests();
+            }
+            Long id = petStore.reserveId(pet);
+            pet.setId(id);
+            pet.setVersion(null);
+            CompletableFuture<Void> committed = new CompletableFuture<>();
+            pending.put(id, committed);
+            if (!buffer.offer(pet)) {
+                pending.remove(id);
+                committed.complete(null);
+                throw tooManyRequests();
+            }
+            return pet;
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns once the pet with this id is no longer waiting to be committed, and throws if it was accepted but
+     * could not be saved.
+     */
+    public void awaitCommitted(Long id) {
+        if (id == null) {
+            return;
+        }
+        CompletableFuture<Void> committed = pending.get(id);
+        if (committed != null) {
+            try {
+                committed.get(properties.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                throw new IngestRejectedException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Pet " + id + " is still being saved, please retry.");
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IngestRejectedException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Pet " + id + " is still being saved, please retry.");
+            } catch (ExecutionException ex) {
+                // Futures are only ever completed normally
+            }
+        }
+        String failure = failures.get(id);
+        if (failure != null) {
+            throw new IngestRejectedException(HttpStatus.GONE,
+                    "Pet " + id + " was accepted but could not be saved: " + failure);
+        }
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private void drain() {
+        int maxGroupSize = Math.max(1, properties.getMaxGroupSize());
+        long maxGroupDelayNanos = properties.getMaxGroupDelay().toNanos();
+        List<Pet> group = new ArrayList<>(maxGroupSize);
+        while (accepting || !buffer.isEmpty()) {
+            try {
+                Pet first = buffer.poll(POLL_NANOS, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + maxGroupDelayNanos;
+                buffer.drainTo(group, maxGroupSize - group.size());
+                // On shutdown the group is committed straight away instead of waiting out its delay
+                while (group.size() < maxGroupSize && accepting) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    Pet next = buffer.poll(Math.min(remaining, POLL_NANOS), TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        group.add(next);
+                        buffer.drainTo(group, maxGroupSize - group.size());
+                    }
+                }
+            } catch (InterruptedException ex) {
+                commit(group);
+                return;
+            }
+            commit(group);
+        }
+    }
+
+    private void commit(List<Pet> group) {
+        if (group.isEmpty()) {
+            return;
+        }
+        try {
+            save(group);
+        } finally {
+            group.forEach(pet -> {
+                CompletableFuture<Void> committed = pending.remove(pet.getId());
+                if (committed != null) {
+                    committed.complete(null);
+                }
+            });
+            group.clear();
+        }
+    }
+
+    // A failed chunk is rolled back as a whole, so its pets are retried in halves until each pet at fault is alone
+    private void save(List<Pet> pets) {
+        Map<Integer, String> failed = new TreeMap<>();
+        // A rolled back insert may have left a version behind, which would make the retry an update
+        pets.forEach(pet -> pet.setVersion(null));
+        try {
+            BatchIngestResult result = petService.savePets(IntStream.range(0, pets.size())
+                    .mapToObj(index -> BatchItem.of(index, pets.get(index)))
+                    .iterator());
+            for (BatchItemError error : result.errors()) {
+                failed.put(error.index(), error.message());
+            }
+        } catch (RuntimeException ex) {
+            for (int index = 0; index < pets.size(); index++) {
+                failed.put(index, "Could not persist pet: " + ex.getMessage());
+            }
+        }
+        if (failed.isEmpty()) {
+            return;
+        }
+        if (pets.size() == 1) {
+            fail(pets.getFirst().getId(), failed.get(0));
+            return;
+        }
+        List<Pet> retried = failed.keySet().stream().map(pets::get).toList();
+        int half = Math.max(1, retried.size() / 2);
+        save(retried.subList(0, half));
+        if (half < retried.size()) {
+            save(retried.subList(half, retried.size()));
+        }
+    }
+
+    private void fail(Long id, String reason) {
+        log.warn("Dropping write-behind pet {}: {}", id, reason);
+        failures.put(id, reason);
+        failureOrder.add(id);
+        while (failureOrder.size() > Math.max(1, properties.getCapacity())) {
+            failures.remove(failureOrder.remove());
+        }
+    }
+
+    private static IngestRejectedException tooManyRequests() {
+        return new IngestRejectedException(HttpStatus.TOO_MANY_REQUESTS, "Too many pending writes, please retry.");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writer == null) {
+            return;
+        }
+        acceptLock.writeLock().lock();
+        try {
+            accepting = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        try {
+            writer.join(properties.getShutdownTimeout());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (!pending.isEmpty()) {
+            log.warn("Shut down with {} write-behind pets not committed", pending.size());
+            pending.forEach((id, committed) -> {
+                fail(id, "Server shut down before it was committed");
+                committed.complete(null);
+            });
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.screening.pettrackingapp.service;
+
+import com.screening.pettrackingapp.config.ZoneHeartbeatProperties;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for zone heartbeats. Only the latest state per pet is kept, and pending states
+ * are written once per coalesce window, so a collar reporting many times per window costs one write.
+ */
+@Component
+public class ZoneHeartbeatBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(ZoneHeartbeatBuffer.class);
+
+    private final PetService petService;
+    private final Map<Long, Boolean> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    @Autowired
+    public ZoneHeartbeatBuffer(PetService petService, ZoneHeartbeatProperties properties) {
+        this.petService = petService;
+        long windowMillis = properties.getCoalesceWindow().toMillis();
+        if (windowMillis > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                    .name("zone-heartbeat-flusher").daemon().factory());
+            flusher.scheduleWithFixedDelay(this::flush, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return flusher != null;
+    }
+
+    public void submit(Long id, Boolean inZone) {
+        pending.put(id, inZone);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    public void flush() {
+        for (Map.Entry<Long, Boolean> entry : pending.entrySet()) {
+            Long id = entry.getKey();
+            Boolean inZone = entry.getValue();
+            // Only remove the state we are about to write; a newer heartbeat stays queued for the next flush
+            if (!pending.remove(id, inZone)) {
+                continue;
+            }
+            try {
+                petService.updateZone(id, inZone);
+            } catch (ObjectOptimisticLockingFailureException ex) {
+                pending.putIfAbsent(id, inZone);
+            } catch (EntityNotFoundException ex) {
+                log.debug("Dropping zone heartbeat for unknown pet {}", id);
+            } catch (RuntimeException ex) {
+                log.warn("Could not apply zone heartbeat for pet {}", id, ex);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            flush();
+        }
+    }
+}
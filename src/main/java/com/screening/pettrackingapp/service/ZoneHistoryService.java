@@ -0,0 +1,161 @@
+package com.screening.pettrackingapp.service;
+
+import com.screening.pettrackingapp.config.ReadingHistoryProperties;
+import com.screening.pettrackingapp.dto.OwnerTimeOutsideZone;
+import com.screening.pettrackingapp.dto.PetTimeOutsideZone;
+import com.screening.pettrackingapp.dto.TypeTimeOutsideZone;
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+import com.screening.pettrackingapp.event.PetChangedEvent;
+import com.screening.pettrackingapp.exception.PetValidationException;
+import com.screening.pettrackingapp.repository.Reading;
+import com.screening.pettrackingapp.repository.ReadingLog;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Records every committed pet report in the {@link ReadingLog} and answers how long pets spent outside the zone
+ * over a time range. Each reading holds until the pet's next reading, so time outside the zone is the overlap of
+ * those intervals with the range, attributed to the owner and types the pet had at the time.
+ */
+@Service
+public class ZoneHistoryService {
+
+    static final Duration DEFAULT_RANGE = Duration.ofDays(1);
+
+    private static final Logger log = LoggerFactory.getLogger(ZoneHistoryService.class);
+
+    private final ReadingLog readingLog;
+    private final ReadingHistoryProperties properties;
+    private final Clock clock;
+    private final ScheduledExecutorService maintenance;
+
+    @Autowired
+    public ZoneHistoryService(ReadingLog readingLog, ReadingHistoryProperties properties) {
+        this(readingLog, properties, Clock.systemUTC());
+    }
+
+    ZoneHistoryService(ReadingLog readingLog, ReadingHistoryProperties properties, Clock clock) {
+        this.readingLog = readingLog;
+        this.properties = properties;
+        this.clock = clock;
+        long intervalMillis = properties.getMaintenanceInterval().toMillis();
+        if (intervalMillis > 0) {
+            maintenance = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                    .name("reading-log-maintenance").daemon().factory());
+            maintenance.scheduleWithFixedDelay(this::maintain, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            maintenance = null;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPetChanged(PetChangedEvent event) {
+        long now = clock.millis();
+        if (event.after() != null) {
+            readingLog.append(Reading.of(now, event.after()));
+        } else if (event.before() != null) {
+            readingLog.append(Reading.removed(now, event.before()));
+        }
+    }
+
+    public PetTimeOutsideZone getTimeOutsideZone(Long petId, Instant from, Instant to) {
+        Instant end = to == null ? clock.instant() : to;
+        Instant start = from == null ? end.minus(DEFAULT_RANGE) : from;
+        Map<Long, Long> outside = outsideMillis(start, end, petId, Reading::petId);
+        return new PetTimeOutsideZone(petId, start, end, outside.getOrDefault(petId, 0L));
+    }
+
+    public OwnerTimeOutsideZone getTimeOutsideZoneByOwner(Integer ownerId, Instant from, Instant to) {
+        Instant end = to == null ? clock.instant() : to;
+        Instant start = from == null ? end.minus(DEFAULT_RANGE) : from;
+        // Every pet is tracked, so intervals end when a pet moves to another owner
+        Map<Long, Long> pets = outsideMillis(start, end, null,
+                reading -> ownerId.equals(reading.ownerId()) ? reading.petId() : null);
+        long total = pets.values().stream().mapToLong(Long::longValue).sum();
+        return new OwnerTimeOutsideZone(ownerId, start, end, total, new TreeMap<>(pets));
+    }
+
+    public TypeTimeOutsideZone getTimeOutsideZoneByType(PetType petType, TrackerType trackerType, Instant from,
+                                                        Instant to) {
+        Instant end = to == null ? clock.instant() : to;
+        Instant start = from == null ? end.minus(DEFAULT_RANGE) : from;
+        Map<String, Long> outside = outsideMillis(start, end, null, reading -> {
+            if (reading.petType() == null || reading.trackerType() == null
+                    || (petType != null && petType != reading.petType())
+                    || (trackerType != null && trackerType != reading.trackerType())) {
+                return null;
+            }
+            return OutsideZoneCounter.key(reading.petType(), reading.trackerType());
+        });
+        return new TypeTimeOutsideZone(start, end, new TreeMap<>(outside));
+    }
+
+    public void maintain() {
+        long now = clock.millis();
+        try {
+            readingLog.downsample(now - properties.getDownsampleAfter().toMillis(),
+                    properties.getDownsampleResolution().toMillis());
+            readingLog.expire(now - properties.getRetention().toMillis());
+        } catch (RuntimeException ex) {
+            log.warn("Reading log maintenance failed", ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (maintenance != null) {
+            maintenance.shutdownNow();
+        }
+    }
+
+    // Only the readings of petId, or of every pet when it is null
+    private <K> Map<K, Long> outsideMillis(Instant from, Instant to, Long petId, Function<Reading, K> groupBy) {
+        if (!from.isBefore(to)) {
+            throw new PetValidationException("'from' must be before 'to'");
+        }
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        Map<Long, Reading> latest = new HashMap<>();
+        Map<K, Long> totals = new HashMap<>();
+        Consumer<Reading> visit = reading -> {
+            Reading previous = latest.put(reading.petId(), reading);
+            addOutside(totals, previous, reading.timestamp(), fromMillis, toMillis, groupBy);
+        };
+        if (petId == null) {
+            readingLog.forEach(fromMillis, toMillis, visit);
+        } else {
+            readingLog.forEach(petId, fromMillis, toMillis, visit);
+        }
+        latest.values().forEach(reading -> addOutside(totals, reading, toMillis, fromMillis, toMillis, groupBy));
+        return totals;
+    }
+
+    private static <K> void addOutside(Map<K, Long> totals, Reading reading, long until, long fromMillis,
+                                       long toMillis, Function<Reading, K> groupBy) {
+        if (reading == null || !reading.isOutsideZone()) {
+            return;
+        }
+        long overlap = Math.min(until, toMillis) - Math.max(reading.timestamp(), fromMillis);
+        K key = overlap > 0 ? groupBy.apply(reading) : null;
+        if (key != null) {
+            totals.merge(key, overlap, Long::sum);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+-- Schema of the default (JOINED) mapping for the fast-start profile, which only validates it instead of letting
+-- Hibernate diff it on every start. Keep in step with the entities; a mismatch fails startup.
+create sequence if not exists pet_seq start with 1 increment by 50;
+
+create table if not exists pet (
+    id bigint not null,
+    pet_type enum ('CAT','DOG'),
+    tracker_type enum ('BIG','MEDIUM','SMALL'),
+    owner_id integer,
+    in_zone boolean,
+    version bigint,
+    primary key (id)
+);
+create index if not exists idx_pet_owner_id on pet (owner_id, id);
+create index if not exists idx_pet_type_tracker_zone on pet (pet_type, tracker_type, in_zone);
+create index if not exists idx_pet_owner_type_tracker_zone on pet (owner_id, pet_type, tracker_type, in_zone);
+
+create table if not exists cat (
+    id bigint not null,
+    lost_tracker boolean,
+    primary key (id),
+    constraint fk_cat_pet foreign key (id) references pet
+);
+
+create table if not exists dog (
+    id bigint not null,
+    primary key (id),
+    constraint fk_dog_pet foreign key (id) references pet
+);
@@ -0,0 +1,25 @@
+-- Default (JOINED) mapping of cats and dogs; the production profile has Hibernate validate against it
+create sequence pet_seq start with 1 increment by 50;
+
+create table pet (
+    id bigint not null,
+    pet_type enum ('CAT','DOG'),
+    tracker_type enum ('BIG','MEDIUM','SMALL'),
+    owner_id integer,
+    in_zone boolean,
+    version bigint,
+    primary key (id)
+);
+
+create table cat (
+    id bigint not null,
+    lost_tracker boolean,
+    primary key (id),
+    constraint fk_cat_pet foreign key (id) references pet
+);
+
+create table dog (
+    id bigint not null,
+    primary key (id),
+    constraint fk_dog_pet foreign key (id) references pet
+);
@@ -0,0 +1,11 @@
+-- H2 has no partial indexes, so the outside-zone and lost-tracker indexes lead with the filtered column instead
+
+-- findByOwnerId and the owner listings, already in id order for keyset pages
+create index idx_pet_owner_id on pet (owner_id, id);
+-- findByInZoneFalse and countOutsideZone
+create index idx_pet_outside_zone on pet (in_zone, pet_type, tracker_type);
+-- findByLostTrackerTrue
+create index idx_cat_lost_tracker on cat (lost_tracker);
+-- Fleet statistics, fleet-wide and per owner
+create index idx_pet_type_tracker_zone on pet (pet_type, tracker_type, in_zone);
+create index idx_pet_owner_type_tracker_zone on pet (owner_id, pet_type, tracker_type, in_zone);
@@ -0,0 +1,11 @@
+-- Most pets are in their zone and few trackers are lost, so the partial indexes only hold the rows those queries want
+
+-- findByOwnerId and the owner listings, already in id order for keyset pages
+create index idx_pet_owner_id on pet (owner_id, id);
+-- findByInZoneFalse and countOutsideZone, the latter from the index alone
+create index idx_pet_outside_zone on pet (pet_type, tracker_type) where in_zone = false;
+-- findByLostTrackerTrue
+create index idx_cat_lost_tracker on cat (id) where lost_tracker = true;
+-- Fleet statistics, fleet-wide and per owner
+create index idx_pet_type_tracker_zone on pet (pet_type, tracker_type, in_zone);
+create index idx_pet_owner_type_tracker_zone on pet (owner_id, pet_type, tracker_type, in_zone);
@@ -0,0 +1,45 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.screening.pettrackingapp.dto.BatchItem;
+import com.screening.pettrackingapp.entity.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Deterministic mixed fleet shared by the benchmarks: half cats, half dogs, a third outside the zone.
+ */
+final class BenchmarkFleet {
+
+    private BenchmarkFleet() {
+    }
+
+    static Pet pet(int i) {
+        Pet pet;
+        if (i % 2 == 0) {
+            Cat cat = new Cat();
+            cat.setLostTracker(i % 10 == 0);
+            pet = cat;
+        } else {
+            pet = new Dog();
+        }
+        pet.setTrackerType(i % 4 < 2 ? TrackerType.SMALL : TrackerType.BIG);
+        pet.setOwnerId(i % 5_000);
+        pet.setInZone(i % 3 != 0);
+        return pet;
+    }
+
+    static List<Pet> pets(int count) {
+        List<Pet> pets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            pets.add(pet(i));
+        }
+        return pets;
+    }
+
+    static Iterator<BatchItem> batch(int count) {
+        return IntStream.range(0, count).mapToObj(i -> BatchItem.of(i, pet(i))).iterator();
+    }
+}
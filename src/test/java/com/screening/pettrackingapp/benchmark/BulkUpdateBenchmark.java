@@ -0,0 +1,83 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.screening.pettrackingapp.PetTrackingAppApplication;
+import com.screening.pettrackingapp.repository.PetRepository;
+import com.screening.pettrackingapp.repository.PetSelection;
+import com.screening.pettrackingapp.repository.PetView;
+import com.screening.pettrackingapp.service.PetService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flipping the zone of a group of pets, as when an owner arrives home or a zone is redefined: one
+ * {@code PATCH /api/pets/{id}/zone} per pet against one bulk update of the same pets. Every invocation flips them
+ * all, so both sides write every pet and publish its event. The pets start at different versions, as pets updated
+ * one at a time do, so the bulk side cannot lean on them sharing one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkUpdateBenchmark {
+
+    @Param({"20000"})
+    public int pets;
+
+    @Param({"20", "1000"})
+    public int selected;
+
+    private ConfigurableApplicationContext context;
+    private PetService petService;
+    private List<Long> ids;
+    private PetSelection selection;
+    private boolean inZone;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PetTrackingAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:jmhbulk;OPTIMIZE_REUSE_RESULTS=0",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        petService = context.getBean(PetService.class);
+        petService.savePets(BenchmarkFleet.batch(pets));
+
+        ids = petService.getPets(null, selected).stream().map(PetView::id).toList();
+        selection = new PetSelection(ids, null, null);
+        ids.forEach(id -> petService.updateZone(id, inZone));
+        PetRepository petRepository = context.getBean(PetRepository.class);
+        context.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+            for (int i = 0; i < ids.size(); i++) {
+                petRepository.setVersion(ids.get(i), (long) i);
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void perPet() {
+        inZone = !inZone;
+        for (Long id : ids) {
+            petService.updateZone(id, inZone);
+        }
+    }
+
+    @Benchmark
+    public int bulk() {
+        inZone = !inZone;
+        return petService.updatePets(selection, inZone, null).affected();
+    }
+}
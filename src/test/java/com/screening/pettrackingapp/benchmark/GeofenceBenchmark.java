@@ -0,0 +1,78 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.screening.pettrackingapp.config.GeofenceProperties;
+import com.screening.pettrackingapp.dto.CircleGeofence;
+import com.screening.pettrackingapp.dto.GeoPoint;
+import com.screening.pettrackingapp.dto.PolygonGeofence;
+import com.screening.pettrackingapp.service.GeofenceIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching a location reading against 100k zones spread over one square degree, shared by one owner or by 10k
+ * owners, through the grid and as a linear scan of the owner's zones (a zero {@code max-cells-per-zone} puts every
+ * zone on the scan list). Half the zones are circles of 50-500 m, half triangles of similar size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeofenceBenchmark {
+
+    private static final int READINGS = 1 << 16;
+
+    @Param({"true", "false"})
+    public boolean grid;
+
+    @Param({"1", "10000"})
+    public int owners;
+
+    @Param({"100000"})
+    public int zones;
+
+    private GeofenceIndex index;
+    private final int[] readingOwners = new int[READINGS];
+    private final double[] latitudes = new double[READINGS];
+    private final double[] longitudes = new double[READINGS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        GeofenceProperties properties = new GeofenceProperties();
+        if (!grid) {
+            properties.setMaxCellsPerZone(0);
+        }
+        index = new GeofenceIndex(properties);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < zones; i++) {
+            double latitude = 52 + random.nextDouble();
+            double longitude = 13 + random.nextDouble();
+            double size = random.nextDouble(50, 500);
+            if (i % 2 == 0) {
+                index.addZone(i % owners, new CircleGeofence(null, null, latitude, longitude, size));
+            } else {
+                double offset = size / 111_320;
+                index.addZone(i % owners, new PolygonGeofence(null, null, List.of(
+                        new GeoPoint(latitude - offset, longitude - offset),
+                        new GeoPoint(latitude - offset, longitude + offset),
+                        new GeoPoint(latitude + offset, longitude))));
+            }
+        }
+        for (int i = 0; i < READINGS; i++) {
+            readingOwners[i] = random.nextInt(owners);
+            latitudes[i] = 52 + random.nextDouble();
+            longitudes[i] = 13 + random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public boolean contains() {
+        int i = next++ & READINGS - 1;
+        return index.contains(readingOwners[i], latitudes[i], longitudes[i]);
+    }
+}
@@ -0,0 +1,87 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.screening.pettrackingapp.repository.PetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares ingest throughput of one request per pet against POST /api/pets/batch.
+ * Run with {@code ./mvnw test -Dtest=IngestThroughputBenchmarkTest -Dbenchmark=true}.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.root=WARN"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class IngestThroughputBenchmarkTest {
+
+    private static final int PETS = Integer.getInteger("benchmark.pets", 20_000);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private PetRepository petRepository;
+
+    @BeforeEach
+    void setUp() {
+        petRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void compareSingleAndBatchIngest() throws Exception {
+        // Warm up both paths before measuring
+        ingestSingle(2_000);
+        ingestBatch(2_000);
+        petRepository.deleteAllInBatch();
+
+        long singleNanos = ingestSingle(PETS);
+        assertEquals(PETS, petRepository.count());
+        petRepository.deleteAllInBatch();
+
+        long batchNanos = ingestBatch(PETS);
+        assertEquals(PETS, petRepository.count());
+
+        System.out.printf("single-item ingest: %,d pets in %,d ms (%,.0f pets/s)%n",
+                PETS, singleNanos / 1_000_000, PETS / (singleNanos / 1e9));
+        System.out.printf("batch ingest:       %,d pets in %,d ms (%,.0f pets/s)%n",
+                PETS, batchNanos / 1_000_000, PETS / (batchNanos / 1e9));
+    }
+
+    private long ingestSingle(int count) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            mockMvc.perform(post("/api/pets/dog")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(dogJson(i)))
+                    .andExpect(status().isOk());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long ingestBatch(int count) throws Exception {
+        StringBuilder payload = new StringBuilder(count * 80);
+        for (int i = 0; i < count; i++) {
+            payload.append(dogJson(i)).append('\n');
+        }
+        long start = System.nanoTime();
+        mockMvc.perform(post("/api/pets/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(payload.toString()))
+                .andExpect(status().isOk());
+        return System.nanoTime() - start;
+    }
+
+    private static String dogJson(int i) {
+        return "{\"petType\":\"DOG\",\"trackerType\":\"BIG\",\"ownerId\":" + (i % 1000) + ",\"inZone\":" + (i % 3 == 0) + "}";
+    }
+}
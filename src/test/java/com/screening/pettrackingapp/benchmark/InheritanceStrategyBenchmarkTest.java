@@ -0,0 +1,77 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.screening.pettrackingapp.PetTrackingAppApplication;
+import com.screening.pettrackingapp.repository.PetRepository;
+import com.screening.pettrackingapp.service.PetService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Compares latency and H2 query plans of the listing, count and lost-tracker reads under the JOINED
+ * (default) and SINGLE_TABLE mappings of the pet hierarchy.
+ * Run with {@code ./mvnw test -Dtest=InheritanceStrategyBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class InheritanceStrategyBenchmarkTest {
+
+    private static final int PETS = Integer.getInteger("benchmark.pets", 100_000);
+    private static final int ROUNDS = 10;
+
+    @Test
+    void compareInheritanceStrategies() {
+        measure("joined");
+        measure("single-table");
+    }
+
+    private void measure(String strategy) {
+        String[] args = {"--spring.datasource.url=jdbc:h2:mem:benchmark-" + strategy + ";OPTIMIZE_REUSE_RESULTS=0",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.jpa.properties.hibernate.use_sql_comments=false",
+                "--spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + SqlCapture.class.getName(),
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"};
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(PetTrackingAppApplication.class)
+                .web(WebApplicationType.NONE);
+        if ("single-table".equals(strategy)) {
+            builder.profiles("single-table");
+        }
+        try (ConfigurableApplicationContext context = builder.run(args)) {
+            PetService petService = context.getBean(PetService.class);
+            PetRepository petRepository = context.getBean(PetRepository.class);
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            petService.savePets(BenchmarkFleet.batch(PETS));
+
+            Map<String, Supplier<?>> reads = new LinkedHashMap<>();
+            reads.put("GET /api/pets", petService::getAllPets);
+            reads.put("GET /api/pets/cats", petService::getAllCats);
+            reads.put("GET /api/pets/dogs", petService::getAllDogs);
+            reads.put("GET /api/pets/lost-trackers", petService::getLostTrackerCats);
+            reads.put("count outside zone", petRepository::countOutsideZone);
+            reads.put("count all", petRepository::count);
+
+            System.out.printf("%n=== %s, %,d pets ===%n", strategy, PETS);
+            reads.forEach((name, read) -> {
+                read.get(); // warm up
+                String sql = SqlCapture.lastSql();
+                long start = System.nanoTime();
+                for (int i = 0; i < ROUNDS; i++) {
+                    read.get();
+                }
+                double millis = (System.nanoTime() - start) / 1e6 / ROUNDS;
+                System.out.printf("%-28s %10.2f ms%n", name, millis);
+                System.out.println("  plan: " + String.join(" ",
+                        jdbcTemplate.queryForList("EXPLAIN " + sql, String.class)).replaceAll("\\s+", " "));
+            });
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Result of one {@link LoadTestRunner} run, written as JSON (for comparing builds) and as a standalone HTML page.
+ */
+record LoadTestReport(String finishedAt, String javaVersion, int availableProcessors, Settings settings,
+                      List<OperationResult> operations, OperationResult total) {
+
+    record Settings(int pets, int clients, int warmupSeconds, int seconds, long seed,
+                    Map<LoadTestRunner.Operation, Integer> mix, String datasourceUrl, String profiles) {
+    }
+
+    record OperationResult(String operation, long requests, double requestsPerSecond, double p50Millis,
+                           double p95Millis, double p99Millis, double maxMillis, long errors, long conflicts,
+                           double errorRate) {
+
+        static OperationResult of(String operation, LoadTestRunner.Samples samples, int seconds) {
+            long[] sorted = samples.sorted();
+            long requests = samples.count();
+            return new OperationResult(operation, requests, requests / (double) seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    percentile(sorted, 1.0), samples.errors(), samples.conflicts(),
+                    requests == 0 ? 0 : samples.errors() / (double) requests);
+        }
+
+        private static double percentile(long[] sortedNanos, double p) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .build();
+
+    static LoadTestReport of(Settings settings, Instant finishedAt,
+                             Map<LoadTestRunner.Operation, LoadTestRunner.Samples> samples) {
+        List<OperationResult> operations = new ArrayList<>();
+        LoadTestRunner.Samples all = new LoadTestRunner.Samples();
+        samples.forEach((operation, s) -> {
+            operations.add(OperationResult.of(operation.name(), s, settings.seconds()));
+            all.addAll(s);
+        });
+        return new LoadTestReport(finishedAt.toString(), Runtime.version().toString(),
+                Runtime.getRuntime().availableProcessors(), settings, operations,
+                OperationResult.of("TOTAL", all, settings.seconds()));
+    }
+
+    void print(PrintStream out) {
+        out.printf("%n=== %,d pets, %d clients, %d s ===%n", settings.pets(), settings.clients(), settings.seconds());
+        out.printf("%-14s %10s %12s %9s %9s %9s %9s %8s %9s%n", "operation", "requests", "requests/s",
+                "p50 ms", "p95 ms", "p99 ms", "max ms", "errors", "conflicts");
+        for (OperationResult result : rows()) {
+            out.printf("%-14s %,10d %,12.0f %9.2f %9.2f %9.2f %9.2f %8d %9d%n", result.operation(), result.requests(),
+                    result.requestsPerSecond(), result.p50Millis(), result.p95Millis(), result.p99Millis(),
+                    result.maxMillis(), result.errors(), result.conflicts());
+        }
+    }
+
+    void write(Path directory, Path baseline) throws IOException {
+        Files.createDirectories(directory);
+        MAPPER.writeValue(directory.resolve("load-test-report.json").toFile(), this);
+        Map<String, OperationResult> previous = baseline == null ? Map.of()
+                : MAPPER.readValue(baseline.toFile(), LoadTestReport.class).rows().stream()
+                .collect(Collectors.toMap(OperationResult::operation, Function.identity()));
+        Files.writeString(directory.resolve("load-test-report.html"), html(previous, baseline));
+    }
+
+    private List<OperationResult> rows() {
+        List<OperationResult> rows = new ArrayList<>(operations);
+        rows.add(total);
+        return rows;
+    }
+
+    private String html(Map<String, OperationResult> baseline, Path baselinePath) {
+        StringBuilder html = new StringBuilder(4096);
+        html.append("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Load test report</title><style>")
+                .append("body{font-family:sans-serif;margin:2em}table{border-collapse:collapse}")
+                .append("th,td{border:1px solid #ccc;padding:4px 10px;text-align:right}th:first-child,td:first-child")
+                .append("{text-align:left}.worse{color:#b00}.better{color:#070}</style></head><body>")
+                .append("<h1>Load test report</h1><p>")
+                .append(String.format("%s &middot; Java %s &middot; %d CPUs<br>", finishedAt, javaVersion,
+                        availableProcessors))
+                .append(String.format("%,d pets &middot; %d clients &middot; %d s (+%d s warm-up) &middot; seed %d"
+                                + " &middot; %s%s<br>mix %s", settings.pets(), settings.clients(), settings.seconds(),
+                        settings.warmupSeconds(), settings.seed(), escape(settings.datasourceUrl()),
+                        settings.profiles().isBlank() ? "" : " &middot; profiles " + escape(settings.profiles()),
+                        settings.mix()));
+        if (baselinePath != null) {
+            html.append("<br>compared with ").append(escape(baselinePath.toString()));
+        }
+        html.append("</p><table><tr><th>operation</th><th>requests</th><th>requests/s</th><th>p50 ms</th>")
+                .append("<th>p95 ms</th><th>p99 ms</th><th>max ms</th><th>errors</th><th>error rate</th>")
+                .append("<th>conflicts</th></tr>");
+        for (OperationResult result : rows()) {
+            OperationResult before = baseline.get(result.operation());
+            html.append("<tr><td>").append(result.operation()).append("</td>")
+                    .append(String.format("<td>%,d</td>", result.requests()))
+                    .append(String.format("<td>%,.0f%s</td>", result.requestsPerSecond(), before == null ? ""
+                            : change(result.requestsPerSecond(), before.requestsPerSecond(), true)))
+                    .append(String.format("<td>%.2f</td><td>%.2f</td>", result.p50Millis(), result.p95Millis()))
+                    .append(String.format("<td>%.2f%s</td>", result.p99Millis(), before == null ? ""
+                            : change(result.p99Millis(), before.p99Millis(), false)))
+                    .append(String.format("<td>%.2f</td><td>%,d</td><td>%.3f%%</td><td>%,d</td></tr>",
+                            result.maxMillis(), result.errors(), result.errorRate() * 100, result.conflicts()));
+        }
+        return html.append("</table></body></html>\n").toString();
+    }
+
+    private static String change(double now, double before, boolean higherIsBetter) {
+        if (before == 0) {
+            return "";
+        }
+        double percent = (now - before) / before * 100;
+        String css = (percent >= 0) == higherIsBetter ? "better" : "worse";
+        return String.format(" <span class=\"%s\">(%+.1f%%)</span>", css, percent);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
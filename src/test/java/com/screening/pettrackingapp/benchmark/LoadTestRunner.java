@@ -0,0 +1,235 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.screening.pettrackingapp.PetTrackingAppApplication;
+import com.screening.pettrackingapp.entity.Cat;
+import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.repository.PetView;
+import com.screening.pettrackingapp.service.PetService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Load test suite run by the {@code load-test} Maven profile. Starts the application on a random port, seeds a
+ * fleet of {@code load.pets} pets and replays a weighted mix of creates, zone flips ({@code PUT /api/pets/{id}}),
+ * owner lookups and outside-zone polls from {@code load.clients} closed-loop clients. Each client draws its requests
+ * from its own seeded random, so a run with the same settings replays the same traffic.
+ * <p>
+ * Writes {@code load-test-report.json} and {@code load-test-report.html} to {@code load.report-dir}; passing the JSON
+ * of an earlier run as {@code load.baseline} adds the change in throughput and p99 per operation to the HTML.
+ */
+public final class LoadTestRunner {
+
+    enum Operation {
+        CREATE_CAT, CREATE_DOG, ZONE_FLIP, OWNER_LOOKUP, OUTSIDE_ZONE
+    }
+
+    private static final int OWNERS = 5_000;
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestReport.Settings settings = new LoadTestReport.Settings(
+                Integer.getInteger("load.pets", 100_000),
+                Integer.getInteger("load.clients", 64),
+                Integer.getInteger("load.warmup-seconds", 10),
+                Integer.getInteger("load.seconds", 60),
+                Long.getLong("load.seed", 42L),
+                parseMix(System.getProperty("load.mix",
+                        "create-cat:5,create-dog:5,zone-flip:40,owner-lookup:30,outside-zone:20")),
+                System.getProperty("spring.datasource.url", "jdbc:h2:mem:load-test"),
+                System.getProperty("load.profiles", ""));
+        Path reportDir = Path.of(System.getProperty("load.report-dir", "target/load-test"));
+        String baseline = System.getProperty("load.baseline", "");
+
+        String[] applicationArgs = {"--server.port=0",
+                "--spring.datasource.url=" + settings.datasourceUrl(),
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"};
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(PetTrackingAppApplication.class);
+        if (!settings.profiles().isBlank()) {
+            builder.profiles(settings.profiles().split(","));
+        }
+        try (ConfigurableApplicationContext context = builder.run(applicationArgs);
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build()) {
+            long seedStart = System.nanoTime();
+            long[] ids = seed(context.getBean(PetService.class), settings.pets());
+            System.out.printf("Seeded %,d pets in %,d ms%n", ids.length, (System.nanoTime() - seedStart) / 1_000_000);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/pets";
+
+            drive(client, baseUrl, ids, settings, settings.warmupSeconds(), settings.seed() ^ 0x5DEECE66DL);
+            Map<Operation, Samples> samples = drive(client, baseUrl, ids, settings, settings.seconds(), settings.seed());
+
+            LoadTestReport report = LoadTestReport.of(settings, Instant.now(), samples);
+            report.print(System.out);
+            report.write(reportDir, baseline.isBlank() ? null : Path.of(baseline));
+            System.out.println("Report written to " + reportDir.toAbsolutePath());
+        }
+    }
+
+    // Seeded in fleet order, so the pet with the i-th smallest id is BenchmarkFleet.pet(i)
+    private static long[] seed(PetService petService, int pets) {
+        petService.savePets(BenchmarkFleet.batch(pets));
+        long[] ids = new long[pets];
+        int count = 0;
+        Long after = null;
+        List<PetView> page;
+        while (count < pets && !(page = petService.getPets(after, 10_000)).isEmpty()) {
+            for (PetView pet : page) {
+                if (count < pets) {
+                    ids[count++] = pet.id();
+                }
+            }
+            after = page.getLast().id();
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    private static Map<Operation, Samples> drive(HttpClient client, String baseUrl, long[] ids,
+                                                 LoadTestReport.Settings settings, int seconds, long seed)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        Operation[] wheel = wheel(settings.mix());
+        List<Map<Operation, Samples>> perClient = Collections.synchronizedList(new ArrayList<>());
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < settings.clients(); c++) {
+                SplittableRandom random = new SplittableRandom(seed + c);
+                clients.execute(() -> {
+                    Map<Operation, Samples> samples = new EnumMap<>(Operation.class);
+                    while (System.nanoTime() < deadline) {
+                        Operation operation = wheel[random.nextInt(wheel.length)];
+                        HttpRequest request = request(operation, baseUrl, ids, random);
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception ex) {
+                            status = -1;
+                        }
+                        samples.computeIfAbsent(operation, op -> new Samples()).add(System.nanoTime() - start, status);
+                    }
+                    perClient.add(samples);
+                });
+            }
+        }
+        Map<Operation, Samples> merged = new EnumMap<>(Operation.class);
+        perClient.forEach(samples -> samples.forEach((operation, s) ->
+                merged.computeIfAbsent(operation, op -> new Samples()).addAll(s)));
+        return merged;
+    }
+
+    private static HttpRequest request(Operation operation, String baseUrl, long[] ids, SplittableRandom random) {
+        return switch (operation) {
+            case CREATE_CAT -> json(baseUrl + "/cat", "POST", "{\"petType\":\"CAT\",\"trackerType\":\"SMALL\","
+                    + "\"ownerId\":" + random.nextInt(OWNERS) + ",\"inZone\":true,\"lostTracker\":false}");
+            case CREATE_DOG -> json(baseUrl + "/dog", "POST", "{\"petType\":\"DOG\",\"trackerType\":\"BIG\","
+                    + "\"ownerId\":" + random.nextInt(OWNERS) + ",\"inZone\":true}");
+            case ZONE_FLIP -> {
+                int index = random.nextInt(ids.length);
+                Pet pet = BenchmarkFleet.pet(index);
+                String body = "{\"petType\":\"" + pet.getPetType() + "\",\"trackerType\":\"" + pet.getTrackerType()
+                        + "\",\"ownerId\":" + pet.getOwnerId() + ",\"inZone\":" + random.nextBoolean()
+                        + (pet instanceof Cat cat ? ",\"lostTracker\":" + cat.getLostTracker() : "") + "}";
+                yield json(baseUrl + "/" + ids[index], "PUT", body);
+            }
+            case OWNER_LOOKUP -> HttpRequest.newBuilder(URI.create(baseUrl + "/owner/" + random.nextInt(OWNERS)))
+                    .GET().build();
+            case OUTSIDE_ZONE -> HttpRequest.newBuilder(URI.create(baseUrl + "/outside-zone")).GET().build();
+        };
+    }
+
+    private static HttpRequest json(String url, String method, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    // "zone-flip:40,owner-lookup:30" -> weights in declaration order
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid load.mix entry '" + entry + "', expected operation:weight");
+            }
+            Operation operation = Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            weights.put(operation, Integer.parseInt(parts[1].trim()));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("load.mix needs at least one positive weight");
+        }
+        return weights;
+    }
+
+    private static Operation[] wheel(Map<Operation, Integer> mix) {
+        List<Operation> wheel = new ArrayList<>();
+        mix.forEach((operation, weight) -> wheel.addAll(Collections.nCopies(Math.max(0, weight), operation)));
+        return wheel.toArray(Operation[]::new);
+    }
+
+    /**
+     * Latencies and outcomes of one operation. 409 is counted as a conflict, other 4xx/5xx and I/O failures as errors.
+     */
+    static final class Samples {
+        private long[] nanos = new long[1024];
+        private int count;
+        private long errors;
+        private long conflicts;
+
+        void add(long latencyNanos, int status) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = latencyNanos;
+            if (status == 409) {
+                conflicts++;
+            } else if (status < 0 || status >= 400) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            if (count + other.count > nanos.length) {
+                nanos = Arrays.copyOf(nanos, count + other.count);
+            }
+            System.arraycopy(other.nanos, 0, nanos, count, other.count);
+            count += other.count;
+            errors += other.errors;
+            conflicts += other.conflicts;
+        }
+
+        long count() {
+            return count;
+        }
+
+        long errors() {
+            return errors;
+        }
+
+        long conflicts() {
+            return conflicts;
+        }
+
+        long[] sorted() {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.screening.pettrackingapp.entity.*;
+import com.screening.pettrackingapp.event.PetSnapshot;
+import com.screening.pettrackingapp.service.OutsideZoneCounter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Grouping the outside-zone pets in Java (the original implementation) against reading the live counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutsideZoneBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int pets;
+
+    private List<Pet> outsideZone;
+    private OutsideZoneCounter counter;
+
+    @Setup
+    public void setUp() {
+        outsideZone = new ArrayList<>();
+        counter = new OutsideZoneCounter(null);
+        for (Pet pet : BenchmarkFleet.pets(pets)) {
+            if (Boolean.FALSE.equals(pet.getInZone())) {
+                outsideZone.add(pet);
+            }
+            counter.apply(null, PetSnapshot.of(pet));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Long> groupLoadedPets() {
+        return outsideZone.stream()
+                .collect(Collectors.groupingBy(pet -> pet.getPetType() + "-" + pet.getTrackerType(), Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> readCounter() {
+        return counter.snapshot();
+    }
+}
@@ -0,0 +1,87 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.screening.pettrackingapp.config.BinaryFormatsConfig;
+import com.screening.pettrackingapp.entity.Pet;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse cost and payload size of JSON against the CBOR and Smile encodings accepted by the ingest endpoints.
+ * Payload sizes are printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PetBinaryFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectReader petReader;
+    private ObjectReader listReader;
+    private ObjectWriter listWriter;
+    private List<Pet> pets;
+    private byte[] cat;
+    private byte[] dog;
+    private byte[] batch;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToEnable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        ObjectMapper objectMapper = switch (format) {
+            case "cbor" -> BinaryFormatsConfig.binaryMapper(builder, new CBORFactory());
+            case "smile" -> BinaryFormatsConfig.binaryMapper(builder, new SmileFactory());
+            default -> builder.factory(new JsonFactory()).build();
+        };
+        TypeReference<List<Pet>> listType = new TypeReference<>() {
+        };
+        petReader = objectMapper.readerFor(Pet.class);
+        listReader = objectMapper.readerFor(listType);
+        listWriter = objectMapper.writerFor(listType);
+        pets = BenchmarkFleet.pets(1_000);
+        for (int i = 0; i < pets.size(); i++) {
+            pets.get(i).setId((long) i + 1);
+        }
+        cat = objectMapper.writeValueAsBytes(BenchmarkFleet.pet(10));
+        dog = objectMapper.writeValueAsBytes(BenchmarkFleet.pet(11));
+        batch = listWriter.writeValueAsBytes(pets);
+        System.out.printf("%n%s payload: cat %d bytes, dog %d bytes, 1000 pets %,d bytes%n",
+                format, cat.length, dog.length, batch.length);
+    }
+
+    @Benchmark
+    public Pet deserializeCat() throws IOException {
+        return petReader.readValue(cat);
+    }
+
+    @Benchmark
+    public Pet deserializeDog() throws IOException {
+        return petReader.readValue(dog);
+    }
+
+    @Benchmark
+    public List<Pet> deserializeBatch() throws IOException {
+        return listReader.readValue(batch);
+    }
+
+    @Benchmark
+    public byte[] serializeBatch() throws IOException {
+        return listWriter.writeValueAsBytes(pets);
+    }
+}
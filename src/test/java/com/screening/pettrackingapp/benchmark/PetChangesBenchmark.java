@@ -0,0 +1,75 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.screening.pettrackingapp.PetTrackingAppApplication;
+import com.screening.pettrackingapp.repository.PetView;
+import com.screening.pettrackingapp.service.PetChangeLog;
+import com.screening.pettrackingapp.service.PetService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A client catching up after one pet in a hundred changed zone: re-downloading the full listing as JSON, as clients
+ * did before, against only the changes since its last version. The response sizes are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PetChangesBenchmark {
+
+    @Param({"100000"})
+    public int pets;
+
+    private ConfigurableApplicationContext context;
+    private PetService petService;
+    private PetChangeLog petChangeLog;
+    private ObjectMapper objectMapper;
+    private long since;
+    private int changed;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        context = new SpringApplicationBuilder(PetTrackingAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:jmhchanges;OPTIMIZE_REUSE_RESULTS=0",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        petService = context.getBean(PetService.class);
+        petChangeLog = context.getBean(PetChangeLog.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        petService.savePets(BenchmarkFleet.batch(pets));
+
+        since = petChangeLog.currentVersion();
+        List<PetView> all = petService.getAllPets();
+        for (int i = 0; i < all.size(); i += 100) {
+            petService.updateZone(all.get(i).id(), !all.get(i).inZone());
+            changed++;
+        }
+        System.out.printf("full listing: %d bytes, changes: %d bytes%n", fullListing().length, changes().length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] fullListing() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(petService.getAllPets());
+    }
+
+    @Benchmark
+    public byte[] changes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(petChangeLog.changesSince(since, null, changed));
+    }
+}
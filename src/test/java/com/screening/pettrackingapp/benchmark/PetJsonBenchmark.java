@@ -0,0 +1,64 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.screening.pettrackingapp.entity.Pet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polymorphic deserialization of single pets and serialization of large pet listings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PetJsonBenchmark {
+
+    private static final String CAT_JSON =
+            "{\"petType\":\"CAT\",\"trackerType\":\"SMALL\",\"ownerId\":1,\"inZone\":false,\"lostTracker\":true}";
+    private static final String DOG_JSON =
+            "{\"petType\":\"DOG\",\"trackerType\":\"BIG\",\"ownerId\":2,\"inZone\":true}";
+
+    @Param({"1000", "100000"})
+    public int listSize;
+
+    private ObjectReader petReader;
+    private ObjectWriter listWriter;
+    private List<Pet> pets;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+        petReader = objectMapper.readerFor(Pet.class);
+        listWriter = objectMapper.writerFor(new TypeReference<List<Pet>>() {
+        });
+        pets = BenchmarkFleet.pets(listSize);
+        for (int i = 0; i < pets.size(); i++) {
+            pets.get(i).setId((long) i + 1);
+        }
+    }
+
+    @Benchmark
+    public Pet deserializeCat() throws JsonProcessingException {
+        return petReader.readValue(CAT_JSON);
+    }
+
+    @Benchmark
+    public Pet deserializeDog() throws JsonProcessingException {
+        return petReader.readValue(DOG_JSON);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(pets);
+    }
+}
@@ -0,0 +1,98 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.screening.pettrackingapp.PetTrackingAppApplication;
+import com.screening.pettrackingapp.entity.Cat;
+import com.screening.pettrackingapp.entity.Dog;
+import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.entity.TrackerType;
+import com.screening.pettrackingapp.repository.PetView;
+import com.screening.pettrackingapp.service.PetService;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point lookups and updates by id over a hot set of pets, with and without the second-level entity cache. The
+ * database is an H2 TCP server on loopback, so every statement pays a network round trip as it would in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PetLookupBenchmark {
+
+    @Param({"true", "false"})
+    public boolean entityCache;
+
+    @Param({"10000"})
+    public int pets;
+
+    @Param({"1000"})
+    public int hotPets;
+
+    private Server server;
+    private ConfigurableApplicationContext context;
+    private PetService petService;
+    private long[] ids;
+    private int next;
+    private boolean inZone;
+
+    @Setup
+    public void setUp() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        context = new SpringApplicationBuilder(PetTrackingAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:tcp://localhost:" + server.getPort()
+                                + "/mem:jmhlookup;OPTIMIZE_REUSE_RESULTS=0",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--pettracker.entity-cache.enabled=" + entityCache);
+        petService = context.getBean(PetService.class);
+        petService.savePets(BenchmarkFleet.batch(pets));
+        List<PetView> hot = petService.getPets(null, hotPets);
+        ids = hot.stream().mapToLong(PetView::id).toArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public Pet getPetById() {
+        return petService.getPetById(nextId());
+    }
+
+    @Benchmark
+    public Pet updatePet() {
+        long id = nextId();
+        Pet current = petService.getPetById(id);
+        Pet update = current instanceof Cat ? new Cat() : new Dog();
+        update.setTrackerType(current.getTrackerType() == TrackerType.SMALL ? TrackerType.BIG : TrackerType.SMALL);
+        update.setOwnerId(current.getOwnerId());
+        update.setInZone(current.getInZone());
+        return petService.updatePet(id, update);
+    }
+
+    @Benchmark
+    public void updateZone() {
+        inZone = !inZone;
+        petService.updateZone(nextId(), inZone);
+    }
+
+    private long nextId() {
+        long id = ids[next];
+        next = (next + 1) % ids.length;
+        return id;
+    }
+}
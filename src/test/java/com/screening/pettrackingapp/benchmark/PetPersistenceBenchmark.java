@@ -0,0 +1,83 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.screening.pettrackingapp.PetTrackingAppApplication;
+import com.screening.pettrackingapp.entity.*;
+import com.screening.pettrackingapp.repository.PetView;
+import com.screening.pettrackingapp.service.PetService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service reads and write round trips against the in-memory H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PetPersistenceBenchmark {
+
+    @Param({"10000"})
+    public int pets;
+
+    private ConfigurableApplicationContext context;
+    private PetService petService;
+    private Long updatedId;
+    private boolean inZone;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PetTrackingAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:jmh;OPTIMIZE_REUSE_RESULTS=0",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        petService = context.getBean(PetService.class);
+        petService.savePets(BenchmarkFleet.batch(pets));
+        updatedId = petService.getPets(null, 1).getFirst().id();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PetView> getAllCats() {
+        return petService.getAllCats();
+    }
+
+    @Benchmark
+    public List<PetView> getAllDogs() {
+        return petService.getAllDogs();
+    }
+
+    @Benchmark
+    public Pet saveRoundTrip() {
+        Dog dog = new Dog();
+        dog.setTrackerType(TrackerType.SMALL);
+        dog.setOwnerId(42);
+        dog.setInZone(true);
+        Pet saved = petService.savePet(dog);
+        petService.deletePet(saved.getId());
+        return saved;
+    }
+
+    @Benchmark
+    public Pet updateRoundTrip() {
+        inZone = !inZone;
+        Cat cat = new Cat();
+        cat.setTrackerType(TrackerType.BIG);
+        cat.setOwnerId(7);
+        cat.setInZone(inZone);
+        cat.setLostTracker(false);
+        return petService.updatePet(updatedId, cat);
+    }
+}
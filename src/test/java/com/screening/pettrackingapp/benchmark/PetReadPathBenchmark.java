@@ -0,0 +1,110 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.screening.pettrackingapp.PetTrackingAppApplication;
+import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.repository.PetStore;
+import com.screening.pettrackingapp.repository.PetView;
+import com.screening.pettrackingapp.service.PetService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing reads written as JSON, once through managed entities as the endpoints used to and once through the
+ * {@link PetView} projections they use now. Run with {@code -prof gc} to compare allocation per listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PetReadPathBenchmark {
+
+    @Param({"10000"})
+    public int pets;
+
+    private ConfigurableApplicationContext context;
+    private PetStore petStore;
+    private ObjectWriter entityWriter;
+    private ObjectWriter viewWriter;
+    private int ownerId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PetTrackingAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:jmhread;OPTIMIZE_REUSE_RESULTS=0",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        context.getBean(PetService.class).savePets(BenchmarkFleet.batch(pets));
+        petStore = context.getBean(PetStore.class);
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        entityWriter = objectMapper.writerFor(new TypeReference<List<Pet>>() {
+        });
+        viewWriter = objectMapper.writerFor(new TypeReference<List<PetView>>() {
+        });
+        ownerId = BenchmarkFleet.pet(1).getOwnerId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long listEntities() {
+        return write(entityWriter, petStore.findAll());
+    }
+
+    @Benchmark
+    public long listViews() {
+        return write(viewWriter, petStore.findViews());
+    }
+
+    @Benchmark
+    public long ownerEntities() {
+        return write(entityWriter, petStore.findByOwnerId(ownerId));
+    }
+
+    @Benchmark
+    public long ownerViews() {
+        return write(viewWriter, petStore.findViewsByOwnerId(ownerId));
+    }
+
+    private static long write(ObjectWriter writer, List<?> pets) {
+        CountingStream out = new CountingStream();
+        try {
+            writer.writeValue(out, pets);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return out.count;
+    }
+
+    // Counts the bytes instead of keeping them, so only the read and the serializer allocate
+    private static final class CountingStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.screening.pettrackingapp.PetTrackingAppApplication;
+import com.screening.pettrackingapp.repository.PetStats;
+import com.screening.pettrackingapp.repository.PetStatsQuery;
+import com.screening.pettrackingapp.repository.PetView;
+import com.screening.pettrackingapp.service.PetService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.screening.pettrackingapp.repository.PetStatsQuery.Dimension.*;
+
+/**
+ * Fleet statistics counted by the database against the same breakdown computed from the full listing, which is
+ * what clients did before {@code GET /api/pets/stats}. The plans of the statistics queries are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PetStatsBenchmark {
+
+    private static final PetStatsQuery FLEET = new PetStatsQuery(null, null, null, null, null,
+            List.of(PET_TYPE, TRACKER_TYPE, IN_ZONE));
+
+    @Param({"100000"})
+    public int pets;
+
+    private ConfigurableApplicationContext context;
+    private PetService petService;
+    private PetStatsQuery owner;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PetTrackingAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:jmhstats;OPTIMIZE_REUSE_RESULTS=0",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                                + SqlCapture.class.getName(),
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        petService = context.getBean(PetService.class);
+        petService.savePets(BenchmarkFleet.batch(pets));
+        owner = new PetStatsQuery(null, null, BenchmarkFleet.pet(1).getOwnerId(), null, null,
+                List.of(PET_TYPE, IN_ZONE));
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (PetStatsQuery query : List.of(FLEET, owner)) {
+            petService.getStats(query);
+            List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + SqlCapture.lastSql(), String.class);
+            System.out.println("plan: " + String.join(" ", plan).replaceAll("\\s+", " "));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PetStats> fleetStats() {
+        return petService.getStats(FLEET);
+    }
+
+    @Benchmark
+    public Map<List<Object>, Long> fleetStatsFromListing() {
+        return petService.getAllPets().stream().collect(Collectors.groupingBy(
+                pet -> List.of(pet.petType(), pet.trackerType(), pet.inZone()), Collectors.counting()));
+    }
+
+    @Benchmark
+    public List<PetStats> ownerStats() {
+        return petService.getStats(owner);
+    }
+
+    @Benchmark
+    public Map<List<Object>, Long> ownerStatsFromListing() {
+        return petService.getPetsByOwnerId(owner.ownerId()).stream().collect(Collectors.groupingBy(
+                (PetView pet) -> List.of(pet.petType(), pet.inZone()), Collectors.counting()));
+    }
+}
@@ -0,0 +1,84 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.screening.pettrackingapp.PetTrackingAppApplication;
+import com.screening.pettrackingapp.entity.Cat;
+import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.repository.PetView;
+import com.screening.pettrackingapp.service.PetService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service latency on top of the JPA store and the in-memory store ({@code pettracker.store}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PetStoreBenchmark {
+
+    @Param({"jpa", "memory"})
+    public String store;
+
+    @Param({"10000"})
+    public int pets;
+
+    private ConfigurableApplicationContext context;
+    private PetService petService;
+    private long[] ids;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PetTrackingAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--pettracker.store=" + store,
+                        "--spring.datasource.url=jdbc:h2:mem:jmh-store-" + store + ";OPTIMIZE_REUSE_RESULTS=0",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        petService = context.getBean(PetService.class);
+        petService.savePets(BenchmarkFleet.batch(pets));
+        ids = petService.getPets(null, pets).stream().mapToLong(PetView::id).toArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Pet getPetById() {
+        return petService.getPetById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public List<PetView> getOwnerPage() {
+        // The paged variant bypasses the owner cache, so this measures the store's owner index
+        return petService.getPetsByOwnerId(ThreadLocalRandom.current().nextInt(5_000), null, 100);
+    }
+
+    @Benchmark
+    public List<PetView> getFirstPage() {
+        return petService.getPets(null, 100);
+    }
+
+    @Benchmark
+    public List<Cat> getLostTrackerCats() {
+        return petService.getLostTrackerCats();
+    }
+
+    @Benchmark
+    public long updateZone() {
+        long id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        petService.updateZone(id, !petService.getPetById(id).getInZone());
+        return id;
+    }
+}
@@ -0,0 +1,63 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.screening.pettrackingapp.config.PetValidationProperties;
+import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.entity.TrackerType;
+import com.screening.pettrackingapp.exception.PetValidationException;
+import com.screening.pettrackingapp.service.PetCompatibilityRules;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validating a batch in which every 8th pet is a cat with a MEDIUM tracker: compiled rule masks checked per pet
+ * versus one exception per invalid pet. Run with {@code -prof gc} to see the allocation per batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PetValidationBenchmark {
+
+    @Param({"10000"})
+    public int batchSize;
+
+    private PetCompatibilityRules rules;
+    private List<Pet> pets;
+
+    @Setup
+    public void setUp() {
+        rules = new PetCompatibilityRules(new PetValidationProperties());
+        pets = BenchmarkFleet.pets(batchSize);
+        for (int i = 0; i < pets.size(); i += 8) {
+            pets.get(i).setTrackerType(TrackerType.MEDIUM);
+        }
+    }
+
+    @Benchmark
+    public int checkMasks() {
+        int invalid = 0;
+        for (Pet pet : pets) {
+            if (rules.check(pet) != 0) {
+                invalid++;
+            }
+        }
+        return invalid;
+    }
+
+    @Benchmark
+    public int throwPerFailure() {
+        int invalid = 0;
+        for (Pet pet : pets) {
+            try {
+                rules.validate(pet);
+            } catch (PetValidationException ex) {
+                invalid++;
+            }
+        }
+        return invalid;
+    }
+}
@@ -0,0 +1,104 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.screening.pettrackingapp.PetTrackingAppApplication;
+import com.screening.pettrackingapp.dto.BatchItem;
+import com.screening.pettrackingapp.entity.Cat;
+import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.repository.OutsideZoneCount;
+import com.screening.pettrackingapp.repository.PetRepository;
+import com.screening.pettrackingapp.service.PetService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * The repository queries behind the outside-zone, lost-tracker and owner endpoints over a million pets, on the
+ * schema Hibernate derives from the entities (default) and on the one the production profile migrates to. One pet
+ * in a hundred is outside its zone and one in a thousand has lost its tracker. The plans are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ProductionProfileBenchmark {
+
+    @Param({"default", "production"})
+    public String profile;
+
+    @Param({"1000000"})
+    public int pets;
+
+    private ConfigurableApplicationContext context;
+    private PetRepository petRepository;
+    private int owner;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PetTrackingAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profile)
+                // Arguments, unlike default properties, win over application.properties and the profile's own URL.
+                // H2 must run every query instead of reusing the result of the last identical one.
+                .run("--spring.datasource.url=jdbc:h2:mem:jmhprofile;OPTIMIZE_REUSE_RESULTS=0",
+                        "--spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                                + SqlCapture.class.getName(),
+                        "--pettracker.entity-cache.enabled=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        context.getBean(PetService.class).savePets(IntStream.range(0, pets)
+                .mapToObj(i -> BatchItem.of(i, pet(i))).iterator());
+        petRepository = context.getBean(PetRepository.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (Supplier<?> query : List.<Supplier<?>>of(this::outsideZone, this::outsideZoneCounts, this::lostTrackers,
+                this::ownerPets)) {
+            query.get();
+            List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + SqlCapture.lastSql(), String.class);
+            System.out.println("plan: " + String.join(" ", plan).replaceAll("\\s+", " "));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Pet> outsideZone() {
+        return petRepository.findByInZoneFalse();
+    }
+
+    @Benchmark
+    public List<OutsideZoneCount> outsideZoneCounts() {
+        return petRepository.countOutsideZone();
+    }
+
+    @Benchmark
+    public List<Cat> lostTrackers() {
+        return petRepository.findByLostTrackerTrue();
+    }
+
+    @Benchmark
+    public List<Pet> ownerPets() {
+        owner = (owner + 1) % 5_000;
+        return petRepository.findByOwnerId(owner);
+    }
+
+    private static Pet pet(int i) {
+        Pet pet = BenchmarkFleet.pet(i);
+        pet.setInZone(i % 100 != 0);
+        if (pet instanceof Cat cat) {
+            cat.setLostTracker(i % 1_000 == 0);
+        }
+        return pet;
+    }
+}
@@ -0,0 +1,21 @@
+package com.screening.pettrackingapp.benchmark;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Remembers the last SQL statement Hibernate prepared so benchmarks can ask the database for its plan.
+ */
+public class SqlCapture implements StatementInspector {
+
+    private static volatile String lastSql;
+
+    public static String lastSql() {
+        return lastSql;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        lastSql = sql;
+        return sql;
+    }
+}
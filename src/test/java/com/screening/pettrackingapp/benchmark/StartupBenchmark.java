@@ -0,0 +1,118 @@
+package com.screening.pettrackingapp.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Startup benchmark run by the {@code startup-benchmark} Maven profile together with {@code fast-start}. Launches the
+ * application {@code startup.runs} times in each configuration, alternating between them, and measures the time from
+ * starting the JVM to the first {@code 200} from {@code GET /api/pets}:
+ * <ul>
+ *     <li>default: the packaged jar with the default configuration</li>
+ *     <li>fast-start: the extracted jar with its AppCDS archive, AOT code and the {@code fast-start} profile</li>
+ * </ul>
+ */
+public final class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private record Mode(String name, Path workingDirectory, List<String> jvmArgs, String jar) {
+    }
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.getInteger("startup.runs", 5);
+        String java = System.getProperty("startup.java", Path.of(System.getProperty("java.home"), "bin", "java")
+                .toString());
+        Path jar = Path.of(System.getProperty("startup.jar")).toAbsolutePath();
+        Path fastStartDir = Path.of(System.getProperty("startup.fast-start-dir")).toAbsolutePath();
+        if (!Files.exists(fastStartDir.resolve("application.jsa"))) {
+            throw new IllegalStateException("No AppCDS archive in " + fastStartDir + ", build with -Pfast-start first");
+        }
+        List<Mode> modes = List.of(
+                new Mode("default", jar.getParent(), List.of(), jar.toString()),
+                new Mode("fast-start", fastStartDir, List.of("-XX:SharedArchiveFile=application.jsa",
+                        "-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast-start"), jar.getFileName().toString()));
+
+        Map<String, long[]> millis = new LinkedHashMap<>();
+        modes.forEach(mode -> millis.put(mode.name(), new long[runs]));
+        try (HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build()) {
+            // One discarded start per mode warms the page cache for both
+            for (Mode mode : modes) {
+                timeToFirstResponse(java, mode, client);
+            }
+            for (int run = 0; run < runs; run++) {
+                for (Mode mode : modes) {
+                    millis.get(mode.name())[run] = timeToFirstResponse(java, mode, client);
+                    System.out.printf("%-10s run %d: %,d ms%n", mode.name(), run + 1, millis.get(mode.name())[run]);
+                }
+            }
+        }
+
+        System.out.printf("%n=== time to first GET /api/pets, %d runs ===%n", runs);
+        System.out.printf("%-10s %9s %9s %9s%n", "mode", "min ms", "median ms", "max ms");
+        millis.forEach((mode, samples) -> {
+            long[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            System.out.printf("%-10s %,9d %,9d %,9d%n", mode, sorted[0], sorted[sorted.length / 2],
+                    sorted[sorted.length - 1]);
+        });
+    }
+
+    private static long timeToFirstResponse(String java, Mode mode, HttpClient client) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(mode.jvmArgs());
+        command.add("-Dserver.port=" + port);
+        command.add("-jar");
+        command.add(mode.jar());
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/pets"))
+                .timeout(Duration.ofSeconds(1))
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(mode.workingDirectory().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            long deadline = start + TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode.name() + " exited with " + process.exitValue());
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (IOException ex) {
+                    // Not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException(mode.name() + " did not answer within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.screening.pettrackingapp.PetTrackingAppApplication;
+import com.screening.pettrackingapp.repository.PetView;
+import com.screening.pettrackingapp.service.PetService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the same request mix against PetController over real HTTP, once on Tomcat's platform thread pool and once
+ * with the {@code virtual-threads} profile, and prints throughput, p50/p99 latency, error counts and any virtual
+ * thread pinning reported by JFR. The virtual-thread run fails if any pinning happens in this application's code,
+ * which the writes and change syncs in the mix pass through on every request.
+ * Run with {@code ./mvnw test -Dtest=ThreadModelLoadTest -Dbenchmark=true}; {@code -Dbenchmark.clients},
+ * {@code -Dbenchmark.seconds} and {@code -Dbenchmark.pets} scale the run, and {@code -Dspring.datasource.url=...}
+ * points both runs at a real database where JDBC calls actually wait on the network.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ThreadModelLoadTest {
+
+    private static final int PETS = Integer.getInteger("benchmark.pets", 10_000);
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 20);
+    private static final int WARMUP_SECONDS = Integer.getInteger("benchmark.warmup-seconds", 5);
+    private static final String OWN_PACKAGE = "com.screening.pettrackingapp.";
+    // The clients run on virtual threads in the same JVM, so their own frames are left out
+    private static final String CLIENT_PACKAGE = OWN_PACKAGE + "benchmark.";
+
+    // Methods of this application that pinned a virtual thread themselves, rather than in a library they called
+    private final Set<String> ownPinnedFrames = ConcurrentHashMap.newKeySet();
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        List<String> results = new ArrayList<>();
+        results.add(run("platform"));
+        results.add(run("virtual-threads"));
+
+        System.out.printf("%n=== %,d clients, %d s, %,d pets ===%n", CLIENTS, SECONDS, PETS);
+        System.out.printf("%-16s %12s %10s %10s %10s %8s%n", "mode", "requests/s", "p50 ms", "p99 ms", "max ms", "errors");
+        results.forEach(System.out::println);
+        assertTrue(ownPinnedFrames.isEmpty(), "virtual threads pinned at " + ownPinnedFrames);
+    }
+
+    private String run(String mode) throws Exception {
+        String[] args = {"--server.port=0",
+                "--spring.datasource.url=" + System.getProperty("spring.datasource.url", "jdbc:h2:mem:load-" + mode),
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"};
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(PetTrackingAppApplication.class);
+        if ("virtual-threads".equals(mode)) {
+            builder.profiles("virtual-threads");
+        }
+        try (ConfigurableApplicationContext context = builder.run(args);
+             RecordingStream pinning = new RecordingStream();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build()) {
+            PetService petService = context.getBean(PetService.class);
+            petService.savePets(BenchmarkFleet.batch(PETS));
+            PetView[] pets = petService.getPets(0L, PETS).toArray(PetView[]::new);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/pets";
+
+            Map<String, Integer> pinnedFrames = new ConcurrentHashMap<>();
+            // Every pin is recorded, however short. Waiting to enter a contended synchronized block also holds the
+            // carrier, but JDK 21 reports that only as a monitor enter, so those are counted on virtual threads too
+            pinning.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            pinning.enable("jdk.JavaMonitorEnter").withThreshold(Duration.ZERO).withStackTrace();
+            pinning.onEvent("jdk.VirtualThreadPinned", event -> recordPin(mode, event, pinnedFrames));
+            pinning.onEvent("jdk.JavaMonitorEnter", event -> {
+                if (event.getThread("eventThread") != null && event.getThread("eventThread").isVirtual()) {
+                    recordPin(mode, event, pinnedFrames);
+                }
+            });
+            pinning.startAsync();
+
+            drive(client, baseUrl, pets, WARMUP_SECONDS);
+            pinnedFrames.clear();
+            Result result = drive(client, baseUrl, pets, SECONDS);
+
+            if (!pinnedFrames.isEmpty()) {
+                System.out.printf("%n%s: virtual threads pinned at%n", mode);
+                pinnedFrames.forEach((frame, count) -> System.out.printf("  %,6d x %s%n", count, frame));
+            }
+            return String.format("%-16s %,12.0f %10.2f %10.2f %10.2f %8d", mode, result.count() / (double) SECONDS,
+                    result.percentile(0.50), result.percentile(0.99), result.percentile(1.0), result.errors());
+        }
+    }
+
+    private Result drive(HttpClient client, String baseUrl, PetView[] pets, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        Queue<long[]> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.execute(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = nextRequest(baseUrl, pets);
+                        long start = System.nanoTime();
+                        try {
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status >= 400 && status != 409) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception ex) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                    latencies.add(Arrays.copyOf(samples, count));
+                });
+            }
+        }
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, errors.get());
+    }
+
+    // 30% zone flips, 10% full updates, 25% owner lookups, 10% outside-zone polls, 15% change syncs, 10% creates
+    private static HttpRequest nextRequest(String baseUrl, PetView[] pets) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        PetView pet = pets[random.nextInt(pets.length)];
+        int roll = random.nextInt(20);
+        if (roll < 6) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/" + pet.id() + "/zone"))
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"inZone\":" + random.nextBoolean() + "}"))
+                    .build();
+        }
+        if (roll < 8) {
+            String lostTracker = pet.lostTracker() == null ? "" : ",\"lostTracker\":" + pet.lostTracker();
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/" + pet.id()))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"petType\":\"" + pet.petType() + "\",\"trackerType\":\""
+                            + pet.trackerType() + "\",\"ownerId\":" + pet.ownerId() + ",\"inZone\":"
+                            + random.nextBoolean() + lostTracker + "}"))
+                    .build();
+        }
+        if (roll < 13) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/owner/" + random.nextInt(5_000))).GET().build();
+        }
+        if (roll < 15) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/outside-zone")).GET().build();
+        }
+        if (roll < 18) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/changes")).GET().build();
+        }
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/cat"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"petType\":\"CAT\",\"trackerType\":\"SMALL\",\"ownerId\":"
+                        + random.nextInt(5_000) + ",\"inZone\":true,\"lostTracker\":false}"))
+                .build();
+    }
+
+    private void recordPin(String mode, RecordedEvent event, Map<String, Integer> pinnedFrames) {
+        String at = pinnedAt(event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames());
+        pinnedFrames.merge(at, 1, Integer::sum);
+        if ("virtual-threads".equals(mode) && at.startsWith(OWN_PACKAGE) && !at.startsWith(CLIENT_PACKAGE)) {
+            ownPinnedFrames.add(at);
+        }
+    }
+
+    private static String pinnedAt(List<RecordedFrame> frames) {
+        return frames.stream()
+                .map(ThreadModelLoadTest::name)
+                .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk.") && !frame.startsWith("sun."))
+                .findFirst()
+                .orElse(frames.isEmpty() ? "<no stack trace>" : frames.get(0).getMethod().getName());
+    }
+
+    private static String name(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    private record Result(long[] sortedNanos, long errors) {
+
+        long count() {
+            return sortedNanos.length;
+        }
+
+        double percentile(double p) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(0, index)] / 1e6;
+        }
+    }
+}
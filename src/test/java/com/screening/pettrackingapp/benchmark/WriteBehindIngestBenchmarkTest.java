@@ -0,0 +1,107 @@
+package com.screening.pettrackingapp.benchmark;
+
+import com.screening.pettrackingapp.config.PetIngestProperties;
+import com.screening.pettrackingapp.exception.IngestRejectedException;
+import com.screening.pettrackingapp.repository.PetRepository;
+import com.screening.pettrackingapp.repository.PetStore;
+import com.screening.pettrackingapp.service.PetService;
+import com.screening.pettrackingapp.service.PetWriteBehindBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares concurrent single-pet creates committed one transaction each against write-behind group commit.
+ * Write-behind is timed until every accepted pet is committed, and rejected (429) creates are retried.
+ * Run with {@code ./mvnw test -Dtest=WriteBehindIngestBenchmarkTest -Dbenchmark=true}.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.root=WARN"})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class WriteBehindIngestBenchmarkTest {
+
+    private static final int PETS = Integer.getInteger("benchmark.pets", 20_000);
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 64);
+
+    @Autowired
+    private PetService petService;
+    @Autowired
+    private PetStore petStore;
+    @Autowired
+    private PetRepository petRepository;
+
+    @BeforeEach
+    void setUp() {
+        petRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void compareSynchronousAndWriteBehindIngest() {
+        PetIngestProperties properties = new PetIngestProperties();
+        properties.getWriteBehind().setEnabled(true);
+        PetWriteBehindBuffer buffer = new PetWriteBehindBuffer(petService, petStore, properties);
+        AtomicLong rejected = new AtomicLong();
+        IntConsumer writeBehind = i -> {
+            while (true) {
+                try {
+                    buffer.submit(BenchmarkFleet.pet(i));
+                    return;
+                } catch (IngestRejectedException ex) {
+                    rejected.incrementAndGet();
+                    LockSupport.parkNanos(1_000_000);
+                }
+            }
+        };
+        try {
+            // Warm up both paths before measuring
+            run(2_000, i -> petService.savePet(BenchmarkFleet.pet(i)), buffer);
+            run(2_000, writeBehind, buffer);
+            petRepository.deleteAllInBatch();
+            rejected.set(0);
+
+            long syncNanos = run(PETS, i -> petService.savePet(BenchmarkFleet.pet(i)), buffer);
+            assertEquals(PETS, petRepository.count());
+            petRepository.deleteAllInBatch();
+
+            long writeBehindNanos = run(PETS, writeBehind, buffer);
+            assertEquals(PETS, petRepository.count());
+
+            System.out.printf("%n=== %,d pets, %d clients ===%n", PETS, CLIENTS);
+            System.out.printf("synchronous:  %,8d ms (%,.0f pets/s)%n", syncNanos / 1_000_000, PETS / (syncNanos / 1e9));
+            System.out.printf("write-behind: %,8d ms (%,.0f pets/s, %,d rejected and retried)%n",
+                    writeBehindNanos / 1_000_000, PETS / (writeBehindNanos / 1e9), rejected.get());
+        } finally {
+            buffer.shutdown();
+        }
+    }
+
+    private static long run(int count, IntConsumer create, PetWriteBehindBuffer buffer) {
+        AtomicInteger next = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.execute(() -> {
+                    for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                        create.accept(i);
+                    }
+                });
+            }
+        }
+        while (buffer.pendingCount() > 0) {
+            LockSupport.parkNanos(1_000_000);
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,73 @@
+package com.screening.pettrackingapp.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.screening.pettrackingapp.entity.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryFormatsConfigTest {
+
+    @Test
+    void testPetTypeOrdinals_MatchTheBinaryTypeIds() {
+        assertEquals(0, PetType.CAT.ordinal());
+        assertEquals(1, PetType.DOG.ordinal());
+    }
+
+    @Test
+    void testCbor_RoundTripsPolymorphicPetsWithEnumOrdinals() throws Exception {
+        ObjectMapper cbor = mapper(new CBORFactory());
+        Cat cat = new Cat();
+        cat.setTrackerType(TrackerType.MEDIUM);
+        cat.setOwnerId(3);
+        cat.setInZone(false);
+        cat.setLostTracker(true);
+
+        byte[] bytes = cbor.writeValueAsBytes(cat);
+        Map<?, ?> raw = cbor.readValue(bytes, Map.class);
+        assertEquals(0, raw.get("petType"));
+        assertEquals(1, raw.get("trackerType"));
+
+        Pet read = cbor.readerFor(Pet.class).readValue(bytes);
+        assertInstanceOf(Cat.class, read);
+        assertEquals(TrackerType.MEDIUM, read.getTrackerType());
+        assertTrue(((Cat) read).getLostTracker());
+    }
+
+    @Test
+    void testSmile_AcceptsEnumNamesAndOrdinals() throws Exception {
+        ObjectMapper smile = mapper(new SmileFactory());
+        Map<String, Object> byName = new LinkedHashMap<>(Map.of("petType", "DOG", "trackerType", "BIG", "ownerId", 1));
+        Map<String, Object> byOrdinal = new LinkedHashMap<>(Map.of("petType", 1, "trackerType", 2, "ownerId", 1));
+
+        Pet fromName = smile.readerFor(Pet.class).readValue(smile.writeValueAsBytes(byName));
+        Pet fromOrdinal = smile.readerFor(Pet.class).readValue(smile.writeValueAsBytes(byOrdinal));
+
+        assertInstanceOf(Dog.class, fromName);
+        assertEquals(fromName, fromOrdinal);
+    }
+
+    @Test
+    void testBinary_UnknownPropertyFailsLikeJson() throws Exception {
+        ObjectMapper cbor = mapper(new CBORFactory());
+        byte[] dogWithLostTracker = cbor.writeValueAsBytes(Map.of("petType", 1, "trackerType", 0, "lostTracker", true));
+
+        UnrecognizedPropertyException ex = assertThrows(UnrecognizedPropertyException.class,
+                () -> cbor.readerFor(Pet.class).readValue(dogWithLostTracker));
+        assertEquals("lostTracker", ex.getPropertyName());
+    }
+
+    private static ObjectMapper mapper(JsonFactory factory) {
+        return BinaryFormatsConfig.binaryMapper(Jackson2ObjectMapperBuilder.json()
+                .featuresToEnable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES), factory);
+    }
+}
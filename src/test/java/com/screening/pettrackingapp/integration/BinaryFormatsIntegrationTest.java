@@ -0,0 +1,125 @@
+package com.screening.pettrackingapp.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.screening.pettrackingapp.config.BinaryFormatsConfig;
+import com.screening.pettrackingapp.dto.BatchIngestResult;
+import com.screening.pettrackingapp.entity.Cat;
+import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+import com.screening.pettrackingapp.repository.PetRepository;
+import com.screening.pettrackingapp.service.OutsideZoneCounter;
+import com.screening.pettrackingapp.service.OwnerPetCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class BinaryFormatsIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private PetRepository petRepository;
+    @Autowired
+    private OutsideZoneCounter outsideZoneCounter;
+    @Autowired
+    private OwnerPetCache ownerPetCache;
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @BeforeEach
+    void setUp() {
+        petRepository.deleteAll();
+        outsideZoneCounter.rebuild();
+        ownerPetCache.invalidateAll();
+    }
+
+    @Test
+    void testAddCat_Cbor_RespondsInCbor() throws Exception {
+        ObjectMapper cbor = cborConverter.getObjectMapper();
+        byte[] body = cbor.writeValueAsBytes(Map.of("petType", 0, "trackerType", 0, "ownerId", 1,
+                "inZone", false, "lostTracker", true));
+
+        byte[] response = mockMvc.perform(post("/api/pets/cat")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Map<?, ?> raw = cbor.readValue(response, Map.class);
+        assertEquals(0, raw.get("petType"));
+        Pet saved = cbor.readerFor(Pet.class).readValue(response);
+        assertInstanceOf(Cat.class, saved);
+        assertNotNull(raw.get("id"));
+        assertEquals(1, petRepository.count());
+    }
+
+    @Test
+    void testAddDog_CborWithLostTracker_ReturnsSameErrorAsJson() throws Exception {
+        byte[] body = cborConverter.getObjectMapper().writeValueAsBytes(Map.of("petType", 1, "trackerType", 2,
+                "ownerId", 1, "inZone", true, "lostTracker", true));
+
+        mockMvc.perform(post("/api/pets/dog")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(
+                        "The 'lostTracker' property is not allowed for Dog type. This property is only valid for Cat type."));
+    }
+
+    @Test
+    void testAddCat_SmileWithUnknownProperty_ReturnsBadRequest() throws Exception {
+        byte[] body = smileConverter.getObjectMapper().writeValueAsBytes(Map.of("petType", 0, "trackerType", 0,
+                "color", "black"));
+
+        mockMvc.perform(post("/api/pets/cat")
+                        .contentType(BinaryFormatsConfig.APPLICATION_SMILE)
+                        .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unknown property 'color' found in request"));
+    }
+
+    @Test
+    void testBatch_SmileSequence_SavesValidItems() throws Exception {
+        ObjectMapper smile = smileConverter.getObjectMapper();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(smile.writeValueAsBytes(Map.of("petType", 0, "trackerType", 0, "ownerId", 1, "inZone", true)));
+        body.write(smile.writeValueAsBytes(Map.of("petType", 1, "trackerType", 2, "ownerId", 1, "lostTracker", true)));
+        body.write(smile.writeValueAsBytes(Map.of("petType", "DOG", "trackerType", "BIG", "ownerId", 2)));
+
+        byte[] response = mockMvc.perform(post("/api/pets/batch")
+                        .contentType(BinaryFormatsConfig.APPLICATION_SMILE)
+                        .accept(BinaryFormatsConfig.APPLICATION_SMILE)
+                        .content(body.toByteArray()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        BatchIngestResult result = smile.readValue(response, BatchIngestResult.class);
+        assertEquals(3, result.received());
+        assertEquals(2, result.saved());
+        assertEquals("Unknown property 'lostTracker' found in request", result.errors().getFirst().message());
+        assertEquals(2, petRepository.count());
+        assertEquals(PetType.DOG, petRepository.findDogViews().getFirst().petType());
+        assertEquals(TrackerType.BIG, petRepository.findDogViews().getFirst().trackerType());
+    }
+}
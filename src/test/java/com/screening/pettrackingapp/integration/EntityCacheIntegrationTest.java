@@ -0,0 +1,116 @@
+package com.screening.pettrackingapp.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.screening.pettrackingapp.dto.ZoneUpdate;
+import com.screening.pettrackingapp.entity.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class EntityCacheIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testLookupsById_AreServedFromTheCacheAndFollowWrites() throws Exception {
+        long catId = create("cat", cat(TrackerType.SMALL, 1, true, false));
+        CacheRegionStatistics statistics = regionStatistics();
+        long hits = statistics.getHitCount();
+
+        mockMvc.perform(get("/api/pets/" + catId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.petType").value("CAT"))
+                .andExpect(jsonPath("$.lostTracker").value(false));
+        assertEquals(hits + 1, statistics.getHitCount());
+
+        mockMvc.perform(put("/api/pets/" + catId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cat(TrackerType.BIG, 2, true, true))))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/pets/" + catId))
+                .andExpect(jsonPath("$.trackerType").value("BIG"))
+                .andExpect(jsonPath("$.ownerId").value(2))
+                .andExpect(jsonPath("$.lostTracker").value(true));
+
+        mockMvc.perform(patch("/api/pets/" + catId + "/zone")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ZoneUpdate(false))))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/pets/" + catId))
+                .andExpect(jsonPath("$.inZone").value(false));
+
+        long misses = statistics.getMissCount();
+        mockMvc.perform(delete("/api/pets/" + catId))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/pets/" + catId))
+                .andExpect(status().isNotFound());
+        assertEquals(misses + 1, statistics.getMissCount());
+    }
+
+    @Test
+    void testEvictedPets_AreReloadedAsTheirSubclass() throws Exception {
+        Dog dog = new Dog();
+        dog.setTrackerType(TrackerType.MEDIUM);
+        dog.setOwnerId(3);
+        dog.setInZone(true);
+        long dogId = create("dog", dog);
+        long catId = create("cat", cat(TrackerType.SMALL, 3, false, true));
+        entityManagerFactory.getCache().evict(Pet.class);
+        CacheRegionStatistics statistics = regionStatistics();
+        long misses = statistics.getMissCount();
+        long hits = statistics.getHitCount();
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/pets/" + dogId))
+                    .andExpect(jsonPath("$.petType").value("DOG"))
+                    .andExpect(jsonPath("$.lostTracker").doesNotExist());
+            mockMvc.perform(get("/api/pets/" + catId))
+                    .andExpect(jsonPath("$.petType").value("CAT"))
+                    .andExpect(jsonPath("$.lostTracker").value(true));
+        }
+        assertEquals(misses + 2, statistics.getMissCount());
+        assertEquals(hits + 2, statistics.getHitCount());
+    }
+
+    private long create(String type, Pet pet) throws Exception {
+        String response = mockMvc.perform(post("/api/pets/" + type)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(pet)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+
+    private CacheRegionStatistics regionStatistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+                .getDomainDataRegionStatistics(Pet.CACHE_REGION);
+    }
+
+    private static Cat cat(TrackerType trackerType, Integer ownerId, Boolean inZone, Boolean lostTracker) {
+        Cat cat = new Cat();
+        cat.setTrackerType(trackerType);
+        cat.setOwnerId(ownerId);
+        cat.setInZone(inZone);
+        cat.setLostTracker(lostTracker);
+        return cat;
+    }
+}
@@ -0,0 +1,60 @@
+package com.screening.pettrackingapp.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.screening.pettrackingapp.entity.Cat;
+import com.screening.pettrackingapp.entity.TrackerType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Starts on the schema script with validate only and lazy beans, as the fast-start profile does (without AOT).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "fast-start"})
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:pettrackingfaststart;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+public class FastStartProfileIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    void testEventListenerBeansStayEager_AndCountFirstWrite() throws Exception {
+        assertTrue(beanFactory.containsSingleton("outsideZoneCounter"));
+        assertFalse(beanFactory.getBeanDefinition("outsideZoneCounter").isLazyInit());
+        assertTrue(beanFactory.getBeanDefinition("petCompatibilityRules").isLazyInit());
+
+        Cat cat = new Cat();
+        cat.setTrackerType(TrackerType.SMALL);
+        cat.setOwnerId(1);
+        cat.setInZone(false);
+        cat.setLostTracker(false);
+        mockMvc.perform(post("/api/pets/cat")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cat)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/pets").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(get("/api/pets/outside-zone"))
+                .andExpect(jsonPath("$.CAT-SMALL").value(1));
+    }
+}
@@ -0,0 +1,110 @@
+package com.screening.pettrackingapp.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.screening.pettrackingapp.entity.Dog;
+import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.entity.TrackerType;
+import com.screening.pettrackingapp.repository.PetRepository;
+import com.screening.pettrackingapp.service.OutsideZoneCounter;
+import com.screening.pettrackingapp.service.OwnerPetCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class GeofenceIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private PetRepository petRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private OutsideZoneCounter outsideZoneCounter;
+    @Autowired
+    private OwnerPetCache ownerPetCache;
+
+    @BeforeEach
+    void setUp() {
+        petRepository.deleteAll();
+        outsideZoneCounter.rebuild();
+        ownerPetCache.invalidateAll();
+    }
+
+    @Test
+    void testLocation_IsMatchedAgainstTheOwnersZones() throws Exception {
+        Dog dog = new Dog();
+        dog.setTrackerType(TrackerType.BIG);
+        dog.setOwnerId(31);
+        dog.setInZone(true);
+        Pet saved = petRepository.save(dog);
+
+        String body = mockMvc.perform(post("/api/pets/owner/31/zones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"shape\": \"CIRCLE\", \"latitude\": 52.52, \"longitude\": 13.405, "
+                                + "\"radiusMeters\": 250}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ownerId").value(31))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode zone = objectMapper.readTree(body);
+
+        mockMvc.perform(post("/api/pets/" + saved.getId() + "/location")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"latitude\": 52.53, \"longitude\": 13.405}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inZone").value(false));
+        assertEquals(false, petRepository.findById(saved.getId()).orElseThrow().getInZone());
+        mockMvc.perform(get("/api/pets/outside-zone"))
+                .andExpect(jsonPath("$.DOG-BIG").value(1));
+
+        mockMvc.perform(put("/api/pets/owner/31/zones/" + zone.get("id").asLong())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"shape\": \"POLYGON\", \"vertices\": ["
+                                + "{\"latitude\": 52.5, \"longitude\": 13.4}, "
+                                + "{\"latitude\": 52.54, \"longitude\": 13.4}, "
+                                + "{\"latitude\": 52.54, \"longitude\": 13.41}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shape").value("POLYGON"));
+        mockMvc.perform(post("/api/pets/" + saved.getId() + "/location")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"latitude\": 52.53, \"longitude\": 13.402}"))
+                .andExpect(jsonPath("$.inZone").value(true));
+        assertEquals(true, petRepository.findById(saved.getId()).orElseThrow().getInZone());
+
+        mockMvc.perform(get("/api/pets/owner/31/zones"))
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(delete("/api/pets/owner/31/zones/" + zone.get("id").asLong()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/pets/owner/31/zones/" + zone.get("id").asLong()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testInvalidZonesAndLocations_AreRejected() throws Exception {
+        mockMvc.perform(post("/api/pets/owner/31/zones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"shape\": \"CIRCLE\", \"latitude\": 52.52, \"longitude\": 13.405}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/pets/999999/location")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"latitude\": 52.53, \"longitude\": 13.405}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/pets/999999/location")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"latitude\": 152.53, \"longitude\": 13.405}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,89 @@
+package com.screening.pettrackingapp.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.screening.pettrackingapp.entity.Cat;
+import com.screening.pettrackingapp.entity.Dog;
+import com.screening.pettrackingapp.entity.TrackerType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class PetChangesIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testChanges_ReportWritesAndDeletesSinceAVersion() throws Exception {
+        long since = read(mockMvc.perform(get("/api/pets/changes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(0))
+                .andReturn().getResponse().getContentAsString()).get("version").asLong();
+
+        Cat cat = new Cat();
+        cat.setTrackerType(TrackerType.SMALL);
+        cat.setOwnerId(51);
+        cat.setInZone(true);
+        cat.setLostTracker(false);
+        long catId = create("/api/pets/cat", cat);
+        Dog dog = new Dog();
+        dog.setTrackerType(TrackerType.BIG);
+        dog.setOwnerId(52);
+        dog.setInZone(true);
+        long dogId = create("/api/pets/dog", dog);
+        mockMvc.perform(patch("/api/pets/" + catId + "/zone")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"inZone\": false}"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/pets/" + dogId))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/pets/changes").param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(since + 4))
+                .andExpect(jsonPath("$.more").value(false))
+                .andExpect(jsonPath("$.changes.length()").value(2))
+                .andExpect(jsonPath("$.changes[0].id").value(catId))
+                .andExpect(jsonPath("$.changes[0].pet.inZone").value(false))
+                .andExpect(jsonPath("$.changes[0].pet.lostTracker").value(false))
+                .andExpect(jsonPath("$.changes[1].id").value(dogId))
+                .andExpect(jsonPath("$.changes[1].removed").value(true));
+        mockMvc.perform(get("/api/pets/changes").param("since", String.valueOf(since)).param("ownerId", "51"))
+                .andExpect(jsonPath("$.changes.length()").value(1))
+                .andExpect(jsonPath("$.changes[0].id").value(catId));
+        mockMvc.perform(get("/api/pets/changes").param("since", String.valueOf(since)).param("limit", "1"))
+                .andExpect(jsonPath("$.version").value(since + 1))
+                .andExpect(jsonPath("$.more").value(true));
+    }
+
+    @Test
+    void testChanges_UnknownVersion_AsksForResync() throws Exception {
+        mockMvc.perform(get("/api/pets/changes").param("since", "1"))
+                .andExpect(status().isGone());
+    }
+
+    private long create(String path, Object pet) throws Exception {
+        return read(mockMvc.perform(post(path)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(pet)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private JsonNode read(String json) throws Exception {
+        return objectMapper.readTree(json);
+    }
+}
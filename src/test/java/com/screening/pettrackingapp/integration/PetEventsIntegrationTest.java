@@ -0,0 +1,91 @@
+package com.screening.pettrackingapp.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.screening.pettrackingapp.dto.ZoneUpdate;
+import com.screening.pettrackingapp.entity.Cat;
+import com.screening.pettrackingapp.entity.TrackerType;
+import com.screening.pettrackingapp.repository.PetRepository;
+import com.screening.pettrackingapp.service.OutsideZoneCounter;
+import com.screening.pettrackingapp.service.OwnerPetCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class PetEventsIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private PetRepository petRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private OutsideZoneCounter outsideZoneCounter;
+    @Autowired
+    private OwnerPetCache ownerPetCache;
+
+    @BeforeEach
+    void setUp() {
+        petRepository.deleteAll();
+        outsideZoneCounter.rebuild();
+        ownerPetCache.invalidateAll();
+    }
+
+    @Test
+    void testEvents_StreamZoneLostTrackerAndOutsideZoneChanges() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/pets/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = stream.getResponse();
+        awaitContent(response, "event:outside-zone-snapshot");
+
+        Cat cat = new Cat();
+        cat.setTrackerType(TrackerType.SMALL);
+        cat.setOwnerId(7);
+        cat.setInZone(false);
+        cat.setLostTracker(true);
+        String body = mockMvc.perform(post("/api/pets/cat")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cat)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readTree(body).get("id").asLong();
+
+        awaitContent(response, "event:zone\ndata:{\"petId\":" + id + ",\"petType\":\"CAT\",\"trackerType\":\"SMALL\","
+                + "\"ownerId\":7,\"inZone\":false}");
+        awaitContent(response, "event:lost-tracker\ndata:{\"petId\":" + id + ",\"ownerId\":7,\"lostTracker\":true}");
+        awaitContent(response, "event:outside-zone\ndata:{\"key\":\"CAT-SMALL\",\"delta\":1,\"count\":1}");
+
+        mockMvc.perform(patch("/api/pets/" + id + "/zone")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ZoneUpdate(true))))
+                .andExpect(status().isNoContent());
+
+        awaitContent(response, "\"inZone\":true}");
+        awaitContent(response, "event:outside-zone\ndata:{\"key\":\"CAT-SMALL\",\"delta\":-1,\"count\":0}");
+    }
+
+    private static void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (response.getContentAsString().contains(expected)) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        fail("Event stream did not contain " + expected + ":\n" + response.getContentAsString());
+    }
+}
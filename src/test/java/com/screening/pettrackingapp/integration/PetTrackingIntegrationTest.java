@@ -3,6 +3,8 @@ package com.screening.pettrackingapp.integration;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.screening.pettrackingapp.entity.*;
 import com.screening.pettrackingapp.repository.PetRepository;
+import com.screening.pettrackingapp.service.OutsideZoneCounter;
+import com.screening.pettrackingapp.service.OwnerPetCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,14 +13,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -30,10 +34,16 @@ public class PetTrackingIntegrationTest {
     PetRepository petRepository;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private OutsideZoneCounter outsideZoneCounter;
+    @Autowired
+    private OwnerPetCache ownerPetCache;
 
     @BeforeEach
     void setUp() {
         petRepository.deleteAll(); // Cleaning up the repository before each test
+        outsideZoneCounter.rebuild(); // Direct repository writes bypass the service, so resync the counts
+        ownerPetCache.invalidateAll();
     }
 
     @Test
@@ -51,6 +61,26 @@ public class PetTrackingIntegrationTest {
         assertEquals(1, pets.size());
     }
 
+    @Test
+    void testAddPets_PostedIdIsIgnored() throws Exception {
+        String dog = "{\"id\":%d,\"petType\":\"DOG\",\"trackerType\":\"BIG\",\"ownerId\":1,\"inZone\":true}";
+        String response = mockMvc.perform(post("/api/pets/dog")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(dog.formatted(100_000)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(post("/api/pets/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + dog.formatted(100_001) + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saved").value(1));
+
+        assertNotEquals(100_000L, objectMapper.readTree(response).get("id").asLong());
+        assertEquals(2, petRepository.findAll().size());
+        assertTrue(petRepository.findById(100_000L).isEmpty());
+        assertTrue(petRepository.findById(100_001L).isEmpty());
+    }
+
     @Test
     void testAddDog_Success() throws Exception {
         Dog dog = createDog(PetType.DOG, TrackerType.BIG, 1, true);
@@ -79,13 +109,25 @@ public class PetTrackingIntegrationTest {
 
 
     @Test
-    void testAddDog_WithMediumTracker_fails() throws Exception {
+    void testAddDog_WithMediumTracker_Success() throws Exception {
         Dog dog = createDog(PetType.DOG, TrackerType.MEDIUM, 1, true);
 
         mockMvc.perform(post("/api/pets/dog")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(dog)))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.trackerType").value("MEDIUM"));
+    }
+
+    @Test
+    void testAddCat_WithMediumTracker_fails() throws Exception {
+        Cat cat = createCat(PetType.CAT, TrackerType.MEDIUM, 1, true, false);
+
+        mockMvc.perform(post("/api/pets/cat")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cat)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Tracker type MEDIUM is not applicable for CAT"));
     }
 
     @Test
@@ -94,12 +136,80 @@ public class PetTrackingIntegrationTest {
         Dog dog = createDog(PetType.DOG, TrackerType.BIG, 1, true);
         petRepository.save(cat);
         petRepository.save(dog);
+        outsideZoneCounter.rebuild();
 
         mockMvc.perform(get("/api/pets/outside-zone"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.CAT-SMALL").value(1));
     }
 
+    @Test
+    void testGetStats_FiltersAndGroupsInTheDatabase() throws Exception {
+        petRepository.saveAll(List.of(
+                createCat(PetType.CAT, TrackerType.SMALL, 1, false, true),
+                createCat(PetType.CAT, TrackerType.BIG, 1, true, false),
+                createCat(PetType.CAT, TrackerType.SMALL, 2, true, false),
+                createDog(PetType.DOG, TrackerType.BIG, 1, false)));
+
+        mockMvc.perform(get("/api/pets/stats").param("ownerId", "1").param("groupBy", "petType,inZone"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].group.petType").value("CAT"))
+                .andExpect(jsonPath("$[0].group.inZone").value(false))
+                .andExpect(jsonPath("$[0].total").value(1))
+                .andExpect(jsonPath("$[0].lostTrackers").value(1))
+                .andExpect(jsonPath("$[0].lostTrackerRatio").value(1.0))
+                .andExpect(jsonPath("$[1].group.inZone").value(true))
+                .andExpect(jsonPath("$[2].group.petType").value("DOG"))
+                .andExpect(jsonPath("$[2].outsideZone").value(1));
+
+        mockMvc.perform(get("/api/pets/stats").param("petType", "CAT"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].group").isEmpty())
+                .andExpect(jsonPath("$[0].total").value(3))
+                .andExpect(jsonPath("$[0].insideZone").value(2));
+
+        mockMvc.perform(get("/api/pets/stats").param("groupBy", "lostTracker"))
+                .andExpect(jsonPath("$[0].group.lostTracker").isEmpty())
+                .andExpect(jsonPath("$[0].total").value(1))
+                .andExpect(jsonPath("$[1].group.lostTracker").value(false))
+                .andExpect(jsonPath("$[1].total").value(2));
+
+        mockMvc.perform(get("/api/pets/stats").param("groupBy", "name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Cannot group by 'name'."));
+    }
+
+    @Test
+    void testGetPetsOutsideZone_FollowsWrites() throws Exception {
+        Cat cat = createCat(PetType.CAT, TrackerType.SMALL, 1, false, false);
+        String response = mockMvc.perform(post("/api/pets/cat")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cat)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Long catId = objectMapper.readTree(response).get("id").asLong();
+
+        mockMvc.perform(get("/api/pets/outside-zone"))
+                .andExpect(jsonPath("$.CAT-SMALL").value(1));
+
+        Cat movedCat = createCat(PetType.CAT, TrackerType.BIG, 1, false, false);
+        mockMvc.perform(put("/api/pets/" + catId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(movedCat)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/pets/outside-zone"))
+                .andExpect(jsonPath("$.CAT-BIG").value(1))
+                .andExpect(jsonPath("$.CAT-SMALL").doesNotExist());
+
+        mockMvc.perform(delete("/api/pets/" + catId))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/pets/outside-zone"))
+                .andExpect(jsonPath("$.CAT-BIG").doesNotExist());
+    }
+
     @Test
     void testGetAllPets() throws Exception {
         Cat cat = createCat(PetType.CAT, TrackerType.SMALL, 1, true, false);
@@ -110,6 +220,62 @@ public class PetTrackingIntegrationTest {
                 .andExpect(jsonPath("$[0].petType").value("CAT"));
     }
 
+    @Test
+    void testGetAllPets_KeysetPagination() throws Exception {
+        Pet first = petRepository.save(createCat(PetType.CAT, TrackerType.SMALL, 1, true, false));
+        Pet second = petRepository.save(createDog(PetType.DOG, TrackerType.BIG, 2, true));
+        Pet third = petRepository.save(createDog(PetType.DOG, TrackerType.SMALL, 3, false));
+
+        mockMvc.perform(get("/api/pets").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", org.hamcrest.Matchers.hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(first.getId()))
+                .andExpect(jsonPath("$[1].id").value(second.getId()))
+                .andExpect(header().string("Link", org.hamcrest.Matchers.containsString("after=" + second.getId())));
+
+        mockMvc.perform(get("/api/pets").param("after", second.getId().toString()).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", org.hamcrest.Matchers.hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(third.getId()))
+                .andExpect(header().doesNotExist("Link"));
+    }
+
+    @Test
+    void testStreamAllPets_Ndjson() throws Exception {
+        petRepository.save(createCat(PetType.CAT, TrackerType.SMALL, 1, true, true));
+        petRepository.save(createDog(PetType.DOG, TrackerType.BIG, 2, false));
+
+        MvcResult result = mockMvc.perform(get("/api/pets").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.trim().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(PetType.CAT, objectMapper.readValue(lines[0], Pet.class).getPetType());
+        assertEquals(PetType.DOG, objectMapper.readValue(lines[1], Pet.class).getPetType());
+    }
+
+    @Test
+    void testStreamPetsByOwnerId_Ndjson() throws Exception {
+        petRepository.save(createCat(PetType.CAT, TrackerType.SMALL, 7, true, false));
+        petRepository.save(createDog(PetType.DOG, TrackerType.BIG, 8, false));
+
+        MvcResult result = mockMvc.perform(get("/api/pets/owner/7").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(1, body.trim().split("\n").length);
+    }
+
     @Test
     void testUpdatePet_Success() throws Exception {
         Cat existingCat = createCat(PetType.CAT, TrackerType.SMALL, 1, false, false);
@@ -170,6 +336,33 @@ public class PetTrackingIntegrationTest {
                 .andExpect(jsonPath("$", org.hamcrest.Matchers.hasSize(2)));
     }
 
+    @Test
+    void testGetPetsByOwnerId_CacheFollowsOwnerChange() throws Exception {
+        Pet savedCat = petRepository.save(createCat(PetType.CAT, TrackerType.SMALL, 1, true, false));
+
+        mockMvc.perform(get("/api/pets/owner/1"))
+                .andExpect(jsonPath("$", org.hamcrest.Matchers.hasSize(1)));
+        mockMvc.perform(get("/api/pets/owner/2"))
+                .andExpect(jsonPath("$", org.hamcrest.Matchers.hasSize(0)));
+
+        Cat movedCat = createCat(PetType.CAT, TrackerType.SMALL, 2, true, false);
+        mockMvc.perform(put("/api/pets/" + savedCat.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(movedCat)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/pets/owner/1"))
+                .andExpect(jsonPath("$", org.hamcrest.Matchers.hasSize(0)));
+        mockMvc.perform(get("/api/pets/owner/2"))
+                .andExpect(jsonPath("$", org.hamcrest.Matchers.hasSize(1)));
+
+        mockMvc.perform(delete("/api/pets/" + savedCat.getId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/pets/owner/2"))
+                .andExpect(jsonPath("$", org.hamcrest.Matchers.hasSize(0)));
+    }
+
     @Test
     void testGetAllCats_Success() throws Exception {
         Cat cat1 = createCat(PetType.CAT, TrackerType.SMALL, 1, false, false);
@@ -214,6 +407,192 @@ public class PetTrackingIntegrationTest {
                 .andExpect(jsonPath("$", org.hamcrest.Matchers.hasSize(1)));
     }
 
+    @Test
+    void testUpdateZone_Success() throws Exception {
+        Dog dog = createDog(PetType.DOG, TrackerType.BIG, 1, true);
+        Pet savedDog = petRepository.save(dog);
+
+        mockMvc.perform(patch("/api/pets/" + savedDog.getId() + "/zone")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"inZone\": false}"))
+                .andExpect(status().isNoContent());
+
+        Pet retrievedDog = petRepository.findById(savedDog.getId()).orElseThrow();
+        assertEquals(false, retrievedDog.getInZone());
+        assertEquals(TrackerType.BIG, retrievedDog.getTrackerType());
+        mockMvc.perform(get("/api/pets/outside-zone"))
+                .andExpect(jsonPath("$.DOG-BIG").value(1));
+    }
+
+    @Test
+    void testUpdateZone_UnknownPet_NotFound() throws Exception {
+        mockMvc.perform(patch("/api/pets/999999/zone")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"inZone\": false}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testUpdatePets_Bulk_UpdatesEveryMatchAndKeepsCountsInStep() throws Exception {
+        Long dogId = create("/api/pets/dog", createDog(PetType.DOG, TrackerType.BIG, 1, true));
+        Long catId = create("/api/pets/cat", createCat(PetType.CAT, TrackerType.SMALL, 1, false, false));
+        create("/api/pets/dog", createDog(PetType.DOG, TrackerType.BIG, 2, true));
+        mockMvc.perform(get("/api/pets/owner/1"))
+                .andExpect(jsonPath("$[0].inZone").value(true));
+
+        mockMvc.perform(patch("/api/pets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ownerId\": 1, \"inZone\": false}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched").value(2))
+                .andExpect(jsonPath("$.affected").value(1));
+
+        assertEquals(false, petRepository.findById(dogId).orElseThrow().getInZone());
+        mockMvc.perform(get("/api/pets/owner/1"))
+                .andExpect(jsonPath("$[0].inZone").value(false));
+        mockMvc.perform(get("/api/pets/owner/2"))
+                .andExpect(jsonPath("$[0].inZone").value(true));
+        mockMvc.perform(get("/api/pets/outside-zone"))
+                .andExpect(jsonPath("$.DOG-BIG").value(1))
+                .andExpect(jsonPath("$.CAT-SMALL").value(1));
+
+        mockMvc.perform(patch("/api/pets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + dogId + ", " + catId + "], \"trackerType\": \"MEDIUM\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/pets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + dogId + "], \"trackerType\": \"MEDIUM\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(1));
+        mockMvc.perform(get("/api/pets/" + dogId))
+                .andExpect(jsonPath("$.trackerType").value("MEDIUM"))
+                .andExpect(jsonPath("$.inZone").value(false));
+        mockMvc.perform(get("/api/pets/outside-zone"))
+                .andExpect(jsonPath("$.DOG-MEDIUM").value(1))
+                .andExpect(jsonPath("$.DOG-BIG").doesNotExist());
+        mockMvc.perform(patch("/api/pets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"inZone\": true}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testDeletePets_Bulk_DeletesEveryMatch() throws Exception {
+        Long catId = create("/api/pets/cat", createCat(PetType.CAT, TrackerType.SMALL, 1, false, false));
+        create("/api/pets/dog", createDog(PetType.DOG, TrackerType.BIG, 1, false));
+        Long otherId = create("/api/pets/dog", createDog(PetType.DOG, TrackerType.SMALL, 2, true));
+
+        mockMvc.perform(delete("/api/pets").param("ownerId", "1").param("petType", "DOG"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched").value(1))
+                .andExpect(jsonPath("$.affected").value(1));
+        mockMvc.perform(get("/api/pets/owner/1"))
+                .andExpect(jsonPath("$", org.hamcrest.Matchers.hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(catId));
+        mockMvc.perform(get("/api/pets/outside-zone"))
+                .andExpect(jsonPath("$.DOG-BIG").doesNotExist())
+                .andExpect(jsonPath("$.CAT-SMALL").value(1));
+
+        mockMvc.perform(delete("/api/pets").param("ids", catId + "," + otherId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+        assertEquals(0, petRepository.findAll().size());
+        mockMvc.perform(get("/api/pets/" + otherId))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/pets"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testAddPetsBatch_JsonArray() throws Exception {
+        String payload = "["
+                + "{\"petType\":\"CAT\",\"trackerType\":\"SMALL\",\"ownerId\":1,\"inZone\":false,\"lostTracker\":false},"
+                + "{\"petType\":\"CAT\",\"trackerType\":\"MEDIUM\",\"ownerId\":1,\"inZone\":true},"
+                + "{\"petType\":\"DOG\",\"trackerType\":\"BIG\",\"ownerId\":2,\"inZone\":false,\"color\":\"brown\"},"
+                + "{\"petType\":\"DOG\",\"trackerType\":\"BIG\",\"ownerId\":2,\"inZone\":false}"
+                + "]";
+
+        mockMvc.perform(post("/api/pets/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(4))
+                .andExpect(jsonPath("$.saved").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[1].index").value(2))
+                .andExpect(jsonPath("$.errors[1].message").value("Unknown property 'color' found in request"));
+
+        assertEquals(2, petRepository.findAll().size());
+        mockMvc.perform(get("/api/pets/outside-zone"))
+                .andExpect(jsonPath("$.CAT-SMALL").value(1))
+                .andExpect(jsonPath("$.DOG-BIG").value(1));
+    }
+
+    @Test
+    void testAddPetsBatch_NdjsonStream() throws Exception {
+        String payload = "{\"petType\":\"CAT\",\"trackerType\":\"BIG\",\"ownerId\":3,\"inZone\":true,\"lostTracker\":true}\n"
+                + "{\"petType\":\"BIRD\",\"trackerType\":\"BIG\",\"ownerId\":3,\"inZone\":true}\n"
+                + "{\"petType\":\"DOG\",\"trackerType\":\"SMALL\",\"ownerId\":3,\"inZone\":true}\n";
+
+        mockMvc.perform(post("/api/pets/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(3))
+                .andExpect(jsonPath("$.saved").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(1));
+
+        assertEquals(2, petRepository.findByOwnerId(3).size());
+    }
+
+    @Test
+    void testTimeOutsideZone_ReportsPetOwnerAndTypeTotals() throws Exception {
+        Cat cat = createCat(PetType.CAT, TrackerType.SMALL, 42, false, false);
+        String body = mockMvc.perform(post("/api/pets/cat")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cat)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readTree(body).get("id").asLong();
+        Thread.sleep(5);
+
+        mockMvc.perform(get("/api/pets/" + id + "/time-outside-zone"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.petId").value(id))
+                .andExpect(jsonPath("$.outsideMillis").value(org.hamcrest.Matchers.greaterThan(0)));
+
+        mockMvc.perform(get("/api/pets/owner/42/time-outside-zone"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ownerId").value(42))
+                .andExpect(jsonPath("$.pets['" + id + "']").exists());
+
+        mockMvc.perform(get("/api/pets/time-outside-zone").param("petType", "CAT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.outsideMillis['CAT-SMALL']").exists());
+    }
+
+    @Test
+    void testTimeOutsideZone_InvalidRange_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/pets/1/time-outside-zone")
+                        .param("from", "2024-05-02T00:00:00Z")
+                        .param("to", "2024-05-01T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/pets/1/time-outside-zone").param("from", "yesterday"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Adds a pet through the API, so every derived view sees it
+    private Long create(String path, Pet pet) throws Exception {
+        String response = mockMvc.perform(post(path)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(pet)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+
     // Helper method to create cat
     private Cat createCat(PetType petType, TrackerType trackerType, int ownerId, boolean inZone, boolean lostTracker) {
         Cat cat = new Cat();
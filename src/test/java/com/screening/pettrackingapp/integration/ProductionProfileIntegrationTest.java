@@ -0,0 +1,72 @@
+package com.screening.pettrackingapp.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.screening.pettrackingapp.entity.Cat;
+import com.screening.pettrackingapp.entity.TrackerType;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Starts on the H2 migrations with validate only, as the production profile does against its database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "production"})
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:pettrackingproduction;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+public class ProductionProfileIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private Flyway flyway;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testMigrations_CreateTheQueryIndexes() {
+        assertEquals("2", flyway.info().current().getVersion().getVersion());
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select index_name from information_schema.indexes where table_name in ('PET', 'CAT')", String.class);
+        assertTrue(indexes.containsAll(List.of("IDX_PET_OWNER_ID", "IDX_PET_OUTSIDE_ZONE", "IDX_CAT_LOST_TRACKER",
+                "IDX_PET_TYPE_TRACKER_ZONE", "IDX_PET_OWNER_TYPE_TRACKER_ZONE")), indexes::toString);
+    }
+
+    @Test
+    void testPets_AreStoredAndQueriedOnTheMigratedSchema() throws Exception {
+        Cat cat = new Cat();
+        cat.setTrackerType(TrackerType.BIG);
+        cat.setOwnerId(7);
+        cat.setInZone(false);
+        cat.setLostTracker(true);
+        mockMvc.perform(post("/api/pets/cat")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cat)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/pets/owner/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(get("/api/pets/outside-zone"))
+                .andExpect(jsonPath("$.CAT-BIG").value(1));
+        mockMvc.perform(get("/api/pets/lost-trackers"))
+                .andExpect(jsonPath("$[0].ownerId").value(7));
+    }
+}
@@ -0,0 +1,101 @@
+package com.screening.pettrackingapp.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.screening.pettrackingapp.entity.Cat;
+import com.screening.pettrackingapp.entity.TrackerType;
+import com.screening.pettrackingapp.repository.PetStore;
+import com.screening.pettrackingapp.service.OutsideZoneCounter;
+import com.screening.pettrackingapp.service.OwnerPetCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs the API on the four shards of the sharded profile.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "sharded"})
+public class ShardedStoreIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private PetStore petStore;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private OutsideZoneCounter outsideZoneCounter;
+    @Autowired
+    private OwnerPetCache ownerPetCache;
+
+    @BeforeEach
+    void setUp() {
+        petStore.deleteAll();
+        outsideZoneCounter.rebuild();
+        ownerPetCache.invalidateAll();
+    }
+
+    @Test
+    void testOwnerChange_KeepsIdAndMovesOwnerLookups() throws Exception {
+        String body = mockMvc.perform(post("/api/pets/cat")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cat(1, false))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(body).get("id").asLong();
+
+        for (int owner = 2; owner <= 8; owner++) {
+            mockMvc.perform(put("/api/pets/" + id)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(cat(owner, false))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(id))
+                    .andExpect(jsonPath("$.ownerId").value(owner));
+        }
+
+        mockMvc.perform(get("/api/pets/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ownerId").value(8));
+        mockMvc.perform(get("/api/pets/owner/1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/pets/owner/8").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(id));
+    }
+
+    @Test
+    void testQueriesOverAllPets_MergeEveryShard() throws Exception {
+        for (int owner = 0; owner < 20; owner++) {
+            mockMvc.perform(post("/api/pets/cat")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(cat(owner, owner % 2 == 0))))
+                    .andExpect(status().isOk());
+        }
+
+        outsideZoneCounter.rebuild(); // Recounts from every shard
+        mockMvc.perform(get("/api/pets/outside-zone"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.CAT-SMALL").value(10));
+        mockMvc.perform(get("/api/pets/cats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(20));
+    }
+
+    private static Cat cat(int ownerId, boolean inZone) {
+        Cat cat = new Cat();
+        cat.setTrackerType(TrackerType.SMALL);
+        cat.setOwnerId(ownerId);
+        cat.setInZone(inZone);
+        cat.setLostTracker(false);
+        return cat;
+    }
+}
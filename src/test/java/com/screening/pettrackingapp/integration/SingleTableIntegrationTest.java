@@ -0,0 +1,12 @@
+package com.screening.pettrackingapp.integration;
+
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs the whole integration suite against the SINGLE_TABLE mapping of the pet hierarchy.
+ */
+@ActiveProfiles({"test", "single-table"})
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:pettrackingsingletable;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+public class SingleTableIntegrationTest extends PetTrackingIntegrationTest {
+}
@@ -0,0 +1,107 @@
+package com.screening.pettrackingapp.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.screening.pettrackingapp.entity.Cat;
+import com.screening.pettrackingapp.entity.Dog;
+import com.screening.pettrackingapp.entity.TrackerType;
+import com.screening.pettrackingapp.repository.PetRepository;
+import com.screening.pettrackingapp.service.OutsideZoneCounter;
+import com.screening.pettrackingapp.service.OwnerPetCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "pettracker.ingest.write-behind.enabled=true",
+        "pettracker.ingest.write-behind.max-group-delay=50ms"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class WriteBehindIngestIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private PetRepository petRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private OutsideZoneCounter outsideZoneCounter;
+    @Autowired
+    private OwnerPetCache ownerPetCache;
+
+    @BeforeEach
+    void setUp() {
+        petRepository.deleteAll();
+        outsideZoneCounter.rebuild();
+        ownerPetCache.invalidateAll();
+    }
+
+    @Test
+    void testAddCat_ReturnsAcceptedWithReservedId_AndReadWaitsForCommit() throws Exception {
+        Cat cat = new Cat();
+        cat.setTrackerType(TrackerType.SMALL);
+        cat.setOwnerId(1);
+        cat.setInZone(false);
+        cat.setLostTracker(true);
+
+        String body = mockMvc.perform(post("/api/pets/cat")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cat)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").isNumber())
+                .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readTree(body).get("id").asLong();
+
+        mockMvc.perform(get("/api/pets/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id))
+                .andExpect(jsonPath("$.lostTracker").value(true));
+        assertTrue(petRepository.findById(id).isPresent());
+        assertEquals(1L, outsideZoneCounter.snapshot().get("CAT-SMALL"));
+    }
+
+    @Test
+    void testAddDogs_AreCommittedTogether_AndKeepTheirIds() throws Exception {
+        Long[] ids = new Long[20];
+        for (int i = 0; i < ids.length; i++) {
+            Dog dog = new Dog();
+            dog.setTrackerType(TrackerType.BIG);
+            dog.setOwnerId(2);
+            dog.setInZone(true);
+            MockHttpServletResponse response = mockMvc.perform(post("/api/pets/dog")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dog)))
+                    .andExpect(status().isAccepted())
+                    .andReturn().getResponse();
+            ids[i] = objectMapper.readTree(response.getContentAsString()).get("id").asLong();
+            assertTrue(response.getHeader("Location").endsWith("/api/pets/" + ids[i]));
+        }
+
+        mockMvc.perform(delete("/api/pets/" + ids[ids.length - 1]))
+                .andExpect(status().isNoContent());
+        for (int i = 0; i < ids.length - 1; i++) {
+            assertTrue(petRepository.findById(ids[i]).isPresent());
+        }
+        assertEquals(ids.length - 1, petRepository.findByOwnerId(2).size());
+    }
+
+    @Test
+    void testAddCat_Invalid_IsRejectedSynchronously() throws Exception {
+        mockMvc.perform(post("/api/pets/cat")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"petType\":\"CAT\",\"trackerType\":\"MEDIUM\",\"ownerId\":3,\"inZone\":true}"))
+                .andExpect(status().isBadRequest());
+        assertTrue(petRepository.findByOwnerId(3).isEmpty());
+    }
+}
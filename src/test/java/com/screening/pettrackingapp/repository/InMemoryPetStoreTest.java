@@ -0,0 +1,61 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.entity.Pet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryPetStoreTest extends PetStoreContractTest {
+
+    private final InMemoryPetStore petStore = new InMemoryPetStore();
+
+    @Override
+    protected PetStore store() {
+        return petStore;
+    }
+
+    @Test
+    void testConcurrentOwnerAndZoneChanges_KeepIndexesConsistent() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ids.add(petStore.save(cat(i % 5, true, i % 2 == 0)).getId());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 5_000; i++) {
+                    Long id = ids.get(random.nextInt(ids.size()));
+                    Pet pet = petStore.findById(id).orElseThrow();
+                    pet.setOwnerId(random.nextInt(5));
+                    pet.setInZone(random.nextBoolean());
+                    try {
+                        petStore.save(pet);
+                    } catch (RuntimeException ex) {
+                        // Lost the race to another writer; the next iteration reads the new version
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        int owned = 0;
+        for (int owner = 0; owner < 5; owner++) {
+            for (Pet pet : petStore.findByOwnerId(owner)) {
+                assertEquals(owner, pet.getOwnerId());
+                owned++;
+            }
+        }
+        assertEquals(ids.size(), owned);
+        long outside = petStore.findAll().stream().filter(pet -> !pet.getInZone()).count();
+        assertEquals(outside, petStore.countOutsideZone().stream().mapToLong(OutsideZoneCount::getTotal).sum());
+    }
+}
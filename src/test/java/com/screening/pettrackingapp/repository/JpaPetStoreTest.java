@@ -0,0 +1,70 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.entity.Dog;
+import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class JpaPetStoreTest extends PetStoreContractTest {
+
+    @Autowired
+    private PetStore petStore;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    protected PetStore store() {
+        assertInstanceOf(JpaPetStore.class, petStore);
+        return petStore;
+    }
+
+    @Test
+    void testBulkWrites_PetsAtDifferentVersions_TakeOneStatementPerTable() {
+        List<Pet> pets = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Dog dog = new Dog();
+            dog.setPetType(PetType.DOG);
+            dog.setTrackerType(TrackerType.BIG);
+            dog.setOwnerId(1);
+            dog.setInZone(true);
+            pets.add(dog);
+        }
+        List<Pet> saved = store().saveAll(pets);
+        for (int i = 0; i < saved.size(); i++) {
+            for (long version = 0; version < i; version++) {
+                store().updateInZone(saved.get(i).getId(), version % 2 == 1, version);
+            }
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<PetState> states = store().findStates(new PetSelection(null, 1, null));
+        assertEquals(saved.size(), states.stream().map(PetState::version).distinct().count());
+        statistics.clear();
+        store().updateAll(states, false, null);
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        states = store().findStates(new PetSelection(null, 1, null));
+        statistics.clear();
+        store().deleteAll(states);
+        // The version check, then the dog and cat tables and the pet table
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertTrue(store().findByOwnerId(1).isEmpty());
+    }
+}
@@ -0,0 +1,404 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.entity.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every {@link PetStore} implementation has to provide; subclasses only supply the store.
+ */
+abstract class PetStoreContractTest {
+
+    protected abstract PetStore store();
+
+    @BeforeEach
+    void clearStore() {
+        store().deleteAll();
+    }
+
+    @Test
+    void testSave_AssignsIdAndInitialVersion() {
+        Cat saved = (Cat) store().save(cat(1, true, false));
+
+        assertNotNull(saved.getId());
+        assertEquals(0L, saved.getVersion());
+        Cat found = (Cat) store().findById(saved.getId()).orElseThrow();
+        assertEquals(PetType.CAT, found.getPetType());
+        assertEquals(TrackerType.SMALL, found.getTrackerType());
+        assertEquals(1, found.getOwnerId());
+        assertTrue(found.getInZone());
+        assertFalse(found.getLostTracker());
+    }
+
+    @Test
+    void testSave_ReservedId_IsKept() {
+        Pet pet = cat(1, true, false);
+        Long reserved = store().reserveId(pet);
+        pet.setId(reserved);
+
+        Pet saved = store().save(pet);
+        Long next = store().save(dog(2, true)).getId();
+
+        assertEquals(reserved, saved.getId());
+        assertEquals(0L, saved.getVersion());
+        assertEquals(1, store().findById(reserved).orElseThrow().getOwnerId());
+        assertNotEquals(reserved, next);
+        assertNotEquals(reserved, store().reserveId(cat(1, true, false)));
+    }
+
+    @Test
+    void testFindById_ReturnsDetachedCopy() {
+        Long id = store().save(dog(1, true)).getId();
+
+        Pet found = store().findById(id).orElseThrow();
+        found.setOwnerId(99);
+
+        assertEquals(1, store().findById(id).orElseThrow().getOwnerId());
+        assertTrue(store().findByOwnerId(99).isEmpty());
+    }
+
+    @Test
+    void testFindById_Missing_ReturnsEmpty() {
+        assertTrue(store().findById(Long.MAX_VALUE).isEmpty());
+        assertTrue(store().findStateById(Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    void testSave_ExistingPet_BumpsVersionAndReindexes() {
+        Pet pet = store().save(cat(1, true, false));
+        Cat existing = (Cat) store().findById(pet.getId()).orElseThrow();
+        existing.setOwnerId(2);
+        existing.setInZone(false);
+        existing.setLostTracker(true);
+
+        Pet updated = store().save(existing);
+
+        assertEquals(1L, updated.getVersion());
+        assertTrue(store().findByOwnerId(1).isEmpty());
+        assertEquals(List.of(pet.getId()), ids(store().findByOwnerId(2)));
+        assertEquals(List.of(pet.getId()), ids(store().findByLostTrackerTrue()));
+        assertEquals(Map.of("CAT-SMALL", 1L), outsideZone());
+    }
+
+    @Test
+    void testSave_StaleVersion_ThrowsOptimisticLockingFailure() {
+        Long id = store().save(dog(1, true)).getId();
+        Pet first = store().findById(id).orElseThrow();
+        Pet second = store().findById(id).orElseThrow();
+        first.setInZone(false);
+        store().save(first);
+
+        second.setOwnerId(5);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> store().save(second));
+        assertEquals(1, store().findById(id).orElseThrow().getOwnerId());
+    }
+
+    @Test
+    void testSaveAll_AssignsAscendingIds() {
+        List<Pet> saved = store().saveAll(List.of(cat(1, true, false), dog(1, false), cat(2, false, true)));
+
+        assertEquals(3, saved.size());
+        assertTrue(saved.get(0).getId() < saved.get(1).getId());
+        assertTrue(saved.get(1).getId() < saved.get(2).getId());
+        assertEquals(3, store().findAll().size());
+    }
+
+    @Test
+    void testSaveAll_FailingPet_StoresNoneOfTheOthers() {
+        Long existing = store().save(dog(1, true)).getId();
+        Pet duplicate = dog(1, false);
+        duplicate.setId(existing);
+
+        assertThrows(RuntimeException.class,
+                () -> store().saveAll(List.of(cat(3, false, true), duplicate, dog(3, false))));
+
+        assertEquals(List.of(existing), ids(store().findAll()));
+        assertTrue(store().findByOwnerId(3).isEmpty());
+        assertTrue(store().findByLostTrackerTrue().isEmpty());
+        assertTrue(store().countOutsideZone().isEmpty());
+        assertTrue(store().findById(existing).orElseThrow().getInZone());
+    }
+
+    @Test
+    void testFindStateById_ReturnsScalarState() {
+        Long id = store().save(cat(3, false, true)).getId();
+
+        assertEquals(new PetState(id, PetType.CAT, TrackerType.SMALL, 3, false, true, 0L),
+                store().findStateById(id).orElseThrow());
+    }
+
+    @Test
+    void testUpdateInZone_CurrentVersion_Updates() {
+        Long id = store().save(dog(1, true)).getId();
+
+        assertEquals(1, store().updateInZone(id, false, 0L));
+
+        Pet pet = store().findById(id).orElseThrow();
+        assertFalse(pet.getInZone());
+        assertEquals(1L, pet.getVersion());
+        assertEquals(Map.of("DOG-BIG", 1L), outsideZone());
+    }
+
+    @Test
+    void testUpdateInZone_StaleVersion_UpdatesNothing() {
+        Long id = store().save(dog(1, true)).getId();
+        store().updateInZone(id, false, 0L);
+
+        assertEquals(0, store().updateInZone(id, true, 0L));
+        assertFalse(store().findById(id).orElseThrow().getInZone());
+    }
+
+    @Test
+    void testDelete_RemovesFromEveryLookup() {
+        Pet pet = store().save(cat(4, false, true));
+
+        store().delete(store().findById(pet.getId()).orElseThrow());
+
+        assertTrue(store().findById(pet.getId()).isEmpty());
+        assertTrue(store().findByOwnerId(4).isEmpty());
+        assertTrue(store().findByLostTrackerTrue().isEmpty());
+        assertTrue(store().findViewsByPetType(PetType.CAT).isEmpty());
+        assertTrue(store().countOutsideZone().isEmpty());
+    }
+
+    @Test
+    void testFindStates_MatchesEveryCriterionInIdOrder() {
+        List<Long> ids = ids(store().saveAll(List.of(dog(1, true), cat(1, false, true), dog(2, true),
+                dog(1, false))));
+
+        assertEquals(List.of(ids.get(0), ids.get(1), ids.get(3)), stateIds(new PetSelection(null, 1, null)));
+        assertEquals(List.of(ids.get(0), ids.get(2), ids.get(3)),
+                stateIds(new PetSelection(null, null, PetType.DOG)));
+        assertEquals(List.of(ids.get(0), ids.get(3)),
+                stateIds(new PetSelection(List.of(ids.get(3), ids.get(0), ids.get(2)), 1, PetType.DOG)));
+        assertTrue(stateIds(new PetSelection(List.of(), 1, null)).isEmpty());
+        assertEquals(new PetState(ids.get(1), PetType.CAT, TrackerType.SMALL, 1, false, true, 0L),
+                store().findStates(new PetSelection(List.of(ids.get(1)), null, null)).getFirst());
+    }
+
+    @Test
+    void testUpdateAll_UpdatesEveryPetAndReindexes() {
+        List<Long> ids = ids(store().saveAll(List.of(dog(1, true), dog(1, true), cat(1, true, false))));
+        store().updateInZone(ids.get(0), false, 0L);
+
+        store().updateAll(store().findStates(new PetSelection(null, 1, null)), false, null);
+        store().updateAll(store().findStates(new PetSelection(null, null, PetType.DOG)), null, TrackerType.SMALL);
+
+        List<Pet> pets = store().findByOwnerId(1);
+        assertTrue(pets.stream().noneMatch(Pet::getInZone));
+        assertTrue(pets.stream().allMatch(pet -> pet.getTrackerType() == TrackerType.SMALL));
+        assertEquals(List.of(3L, 2L, 1L), pets.stream().map(Pet::getVersion).toList());
+        assertEquals(Map.of("DOG-SMALL", 2L, "CAT-SMALL", 1L), outsideZone());
+    }
+
+    @Test
+    void testUpdateAll_StalePet_UpdatesNothing() {
+        List<Long> ids = ids(store().saveAll(List.of(dog(1, true), dog(1, true), dog(1, true))));
+        List<PetState> states = store().findStates(new PetSelection(null, 1, null));
+        store().updateInZone(ids.get(1), false, 0L);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> store().updateAll(states, false, null));
+
+        assertEquals(List.of(true, false, true), store().findByOwnerId(1).stream().map(Pet::getInZone).toList());
+        assertEquals(List.of(0L, 1L, 0L), store().findByOwnerId(1).stream().map(Pet::getVersion).toList());
+    }
+
+    @Test
+    void testUpdateAll_PetsAtDifferentVersions_ChecksEachPetsOwn() {
+        List<Long> ids = ids(store().saveAll(List.of(dog(1, true), dog(1, true), dog(1, true))));
+        for (int flips = 1; flips < ids.size(); flips++) {
+            for (int flip = 0; flip < flips; flip++) {
+                store().updateInZone(ids.get(flips), flip % 2 == 1, (long) flip);
+            }
+        }
+        List<PetState> states = store().findStates(new PetSelection(null, 1, null));
+        store().updateInZone(ids.get(1), true, 1L);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> store().updateAll(states, true, null));
+        assertEquals(List.of(0L, 2L, 2L), store().findByOwnerId(1).stream().map(Pet::getVersion).toList());
+
+        store().updateAll(store().findStates(new PetSelection(null, 1, null)), true, null);
+
+        assertEquals(List.of(1L, 3L, 3L), store().findByOwnerId(1).stream().map(Pet::getVersion).toList());
+        assertTrue(store().findByOwnerId(1).stream().allMatch(Pet::getInZone));
+    }
+
+    @Test
+    void testUpdateAll_MorePetsThanOneStatementBinds() {
+        List<Pet> pets = new ArrayList<>();
+        for (int i = 0; i <= PetRepository.MAX_IN_LIST; i++) {
+            pets.add(dog(i % 5, true));
+        }
+        List<Long> ids = ids(store().saveAll(pets));
+
+        store().updateAll(store().findStates(new PetSelection(ids, null, null)), false, null);
+
+        assertEquals(Map.of("DOG-BIG", (long) ids.size()), outsideZone());
+    }
+
+    @Test
+    void testDeleteAll_RemovesEveryPetOrNone() {
+        List<Long> ids = ids(store().saveAll(List.of(cat(1, false, true), dog(1, true), dog(2, true))));
+        List<PetState> owner1 = store().findStates(new PetSelection(null, 1, null));
+        List<PetState> owner2 = store().findStates(new PetSelection(null, 2, null));
+        store().updateInZone(ids.get(2), false, 0L);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> store().deleteAll(owner2));
+        store().deleteAll(owner1);
+
+        assertEquals(List.of(ids.get(2)), ids(store().findAll()));
+        assertTrue(store().findByOwnerId(1).isEmpty());
+        assertTrue(store().findByLostTrackerTrue().isEmpty());
+        assertEquals(Map.of("DOG-BIG", 1L), outsideZone());
+    }
+
+    @Test
+    void testFindAfter_PagesInIdOrder() {
+        List<Long> ids = ids(store().saveAll(List.of(dog(1, true), dog(2, true), dog(3, true), dog(4, true))));
+
+        assertEquals(ids.subList(0, 2), ids(store().findAfter(null, 2)));
+        assertEquals(ids.subList(2, 4), ids(store().findAfter(ids.get(1), 2)));
+        assertTrue(store().findAfter(ids.get(3), 2).isEmpty());
+    }
+
+    @Test
+    void testFindByOwnerIdAfter_PagesOneOwnersPetsInIdOrder() {
+        List<Long> ids = ids(store().saveAll(List.of(dog(7, true), cat(8, true, false), cat(7, true, false),
+                dog(7, false))));
+
+        assertEquals(List.of(ids.get(0), ids.get(2)), ids(store().findByOwnerIdAfter(7, null, 2)));
+        assertEquals(List.of(ids.get(3)), ids(store().findByOwnerIdAfter(7, ids.get(2), 2)));
+    }
+
+    @Test
+    void testForEach_VisitsMatchingPets() {
+        store().saveAll(List.of(dog(1, true), cat(1, true, false), dog(2, true)));
+
+        List<Pet> all = new ArrayList<>();
+        store().forEachPet(all::add);
+        List<Pet> owned = new ArrayList<>();
+        store().forEachPetByOwnerId(1, owned::add);
+
+        assertEquals(3, all.size());
+        assertEquals(2, owned.size());
+    }
+
+    @Test
+    void testTypedQueries_SplitCatsDogsAndLostTrackers() {
+        store().saveAll(List.of(cat(1, true, true), cat(1, true, false), dog(1, true)));
+
+        List<PetView> cats = store().findViewsByPetType(PetType.CAT);
+        List<PetView> dogs = store().findViewsByPetType(PetType.DOG);
+        assertEquals(2, cats.size());
+        assertTrue(cats.stream().allMatch(view -> view.petType() == PetType.CAT && view.lostTracker() != null));
+        assertEquals(1, dogs.size());
+        assertEquals(PetType.DOG, dogs.getFirst().petType());
+        assertNull(dogs.getFirst().lostTracker());
+        assertEquals(1, store().findByLostTrackerTrue().size());
+        assertTrue(store().findByLostTrackerTrue().getFirst().getLostTracker());
+    }
+
+    @Test
+    void testCountOutsideZone_GroupsByPetAndTrackerType() {
+        store().saveAll(List.of(cat(1, false, false), cat(2, false, true), dog(1, false), dog(2, true),
+                cat(3, true, false)));
+
+        assertEquals(Map.of("CAT-SMALL", 2L, "DOG-BIG", 1L), outsideZone());
+    }
+
+    @Test
+    void testCountStats_CountsOneRowPerGroup() {
+        store().saveAll(List.of(cat(1, false, false), cat(2, false, true), dog(1, false), dog(2, true),
+                cat(3, true, false)));
+
+        Map<List<Object>, List<Long>> stats = stats(new PetStatsQuery(null, null, null, null, null,
+                List.of(PetStatsQuery.Dimension.PET_TYPE, PetStatsQuery.Dimension.IN_ZONE)));
+
+        assertEquals(Map.of(
+                List.of(PetType.CAT, false), List.of(2L, 0L, 2L, 1L),
+                List.of(PetType.CAT, true), List.of(1L, 1L, 0L, 0L),
+                List.of(PetType.DOG, false), List.of(1L, 0L, 1L, 0L),
+                List.of(PetType.DOG, true), List.of(1L, 1L, 0L, 0L)), stats);
+    }
+
+    @Test
+    void testCountStats_FiltersAndGroupsDogsWithoutLostTracker() {
+        store().saveAll(List.of(cat(1, false, false), cat(2, false, true), dog(1, false), dog(2, true),
+                cat(3, true, false)));
+
+        assertEquals(Map.of(
+                        List.of(PetType.CAT), List.of(2L, 0L, 2L, 1L),
+                        List.of(PetType.DOG), List.of(1L, 0L, 1L, 0L)),
+                stats(new PetStatsQuery(null, null, null, false, null, List.of(PetStatsQuery.Dimension.PET_TYPE))));
+        assertEquals(Map.of(List.of(), List.of(2L, 0L, 2L, 0L)),
+                stats(new PetStatsQuery(null, null, 1, null, null, null)));
+        assertEquals(Map.of(List.of(TrackerType.SMALL), List.of(2L, 1L, 1L, 0L)),
+                stats(new PetStatsQuery(PetType.CAT, null, null, null, false,
+                        List.of(PetStatsQuery.Dimension.TRACKER_TYPE))));
+
+        Map<List<Object>, List<Long>> byLostTracker = stats(new PetStatsQuery(null, null, null, null, null,
+                List.of(PetStatsQuery.Dimension.LOST_TRACKER)));
+        assertEquals(List.of(2L, 1L, 1L, 0L), byLostTracker.get(Collections.singletonList(null)));
+        assertEquals(List.of(2L, 1L, 1L, 0L), byLostTracker.get(List.of(false)));
+        assertEquals(List.of(1L, 0L, 1L, 1L), byLostTracker.get(List.of(true)));
+    }
+
+    @Test
+    void testCountStats_NothingMatches() {
+        store().save(dog(1, true));
+
+        assertEquals(Map.of(List.of(), List.of(0L, 0L, 0L, 0L)),
+                stats(new PetStatsQuery(null, null, 2, null, null, null)));
+        assertTrue(stats(new PetStatsQuery(null, null, 2, null, null,
+                List.of(PetStatsQuery.Dimension.OWNER_ID))).isEmpty());
+    }
+
+    // Group values in order, mapped to total, insideZone, outsideZone and lostTrackers
+    private Map<List<Object>, List<Long>> stats(PetStatsQuery query) {
+        List<PetStats> stats = store().countStats(query);
+        Map<List<Object>, List<Long>> counts = stats.stream().collect(Collectors.toMap(
+                row -> new ArrayList<>(row.group().values()),
+                row -> List.of(row.total(), row.insideZone(), row.outsideZone(), row.lostTrackers())));
+        assertEquals(stats.size(), counts.size(), "one row per group");
+        return counts;
+    }
+
+    private Map<String, Long> outsideZone() {
+        return store().countOutsideZone().stream().collect(Collectors.toMap(
+                count -> count.getPetType() + "-" + count.getTrackerType(), OutsideZoneCount::getTotal));
+    }
+
+    private List<Long> stateIds(PetSelection selection) {
+        return store().findStates(selection).stream().map(PetState::id).toList();
+    }
+
+    private static List<Long> ids(List<? extends Pet> pets) {
+        return pets.stream().map(Pet::getId).toList();
+    }
+
+    static Cat cat(int ownerId, boolean inZone, boolean lostTracker) {
+        Cat cat = new Cat();
+        cat.setTrackerType(TrackerType.SMALL);
+        cat.setOwnerId(ownerId);
+        cat.setInZone(inZone);
+        cat.setLostTracker(lostTracker);
+        return cat;
+    }
+
+    static Dog dog(int ownerId, boolean inZone) {
+        Dog dog = new Dog();
+        dog.setTrackerType(TrackerType.BIG);
+        dog.setOwnerId(ownerId);
+        dog.setInZone(inZone);
+        return dog;
+    }
+}
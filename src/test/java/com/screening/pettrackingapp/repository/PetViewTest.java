@@ -0,0 +1,63 @@
+package com.screening.pettrackingapp.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.screening.pettrackingapp.config.BinaryFormatsConfig;
+import com.screening.pettrackingapp.entity.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PetViewTest {
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void testJson_MatchesTheEntityShape() throws Exception {
+        Cat cat = new Cat();
+        cat.setId(1L);
+        cat.setTrackerType(TrackerType.SMALL);
+        cat.setOwnerId(3);
+        cat.setInZone(false);
+        cat.setLostTracker(true);
+        cat.setVersion(4L);
+        Dog dog = new Dog();
+        dog.setId(2L);
+        dog.setTrackerType(TrackerType.BIG);
+        dog.setInZone(true);
+
+        List<Pet> pets = List.of(cat, dog);
+        List<PetView> views = pets.stream().map(PetView::of).toList();
+
+        assertEquals(json.writeValueAsString(pets), json.writeValueAsString(views));
+        assertEquals("[{\"id\":1,\"petType\":\"CAT\",\"trackerType\":\"SMALL\",\"ownerId\":3,\"inZone\":false,"
+                        + "\"lostTracker\":true},{\"id\":2,\"petType\":\"DOG\",\"trackerType\":\"BIG\",\"ownerId\":null,"
+                        + "\"inZone\":true}]",
+                json.writeValueAsString(views));
+    }
+
+    @Test
+    void testJson_CatWithoutLostTrackerStillWritesTheField() throws Exception {
+        Cat cat = new Cat();
+        cat.setTrackerType(TrackerType.BIG);
+
+        assertEquals(json.writeValueAsString(cat), json.writeValueAsString(PetView.of(cat)));
+    }
+
+    @Test
+    void testCbor_WritesEnumOrdinalsLikeTheEntity() throws Exception {
+        ObjectMapper cbor = BinaryFormatsConfig.binaryMapper(Jackson2ObjectMapperBuilder.json(), new CBORFactory());
+        Cat cat = new Cat();
+        cat.setId(5L);
+        cat.setTrackerType(TrackerType.MEDIUM);
+        cat.setOwnerId(1);
+        cat.setInZone(true);
+        cat.setLostTracker(false);
+
+        assertArrayEquals(cbor.writeValueAsBytes(cat), cbor.writeValueAsBytes(PetView.of(cat)));
+    }
+}
@@ -0,0 +1,147 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.config.ReadingHistoryProperties;
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadingLogTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    ReadingLog readingLog;
+
+    @BeforeEach
+    void setUp() {
+        ReadingHistoryProperties properties = new ReadingHistoryProperties();
+        properties.setSegmentDuration(Duration.ofHours(1));
+        readingLog = new ReadingLog(properties);
+    }
+
+    @Test
+    void testAppend_RoundTripsEveryField() {
+        Reading cat = new Reading(10, 1, 7, PetType.CAT, TrackerType.MEDIUM, false, true, false);
+        Reading dog = new Reading(20, 2, null, PetType.DOG, TrackerType.BIG, true, null, false);
+        Reading removed = new Reading(30, 1, 7, PetType.CAT, TrackerType.MEDIUM, null, null, true);
+        readingLog.append(cat);
+        readingLog.append(dog);
+        readingLog.append(removed);
+
+        assertEquals(List.of(cat, dog, removed), readings(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testAppend_PartitionsByTimeAndScansInOrder() {
+        readingLog.append(reading(2 * HOUR + 5, 1, false));
+        readingLog.append(reading(5, 1, true));
+        readingLog.append(reading(HOUR + 5, 2, false));
+
+        assertEquals(3, readingLog.segmentCount());
+        assertEquals(List.of(5L, HOUR + 5, 2 * HOUR + 5),
+                readings(Long.MAX_VALUE).stream().map(Reading::timestamp).toList());
+        assertEquals(List.of(5L), readings(HOUR).stream().map(Reading::timestamp).toList());
+    }
+
+    @Test
+    void testDownsample_KeepsLastReadingPerPetAndWindow() {
+        readingLog.append(reading(1_000, 1, false));
+        readingLog.append(reading(2_000, 1, true));
+        readingLog.append(reading(3_000, 2, false));
+        readingLog.append(reading(61_000, 1, false));
+        readingLog.append(reading(2 * HOUR, 1, true));
+
+        readingLog.downsample(HOUR, 60_000);
+
+        assertEquals(List.of(reading(2_000, 1, true), reading(3_000, 2, false), reading(61_000, 1, false),
+                reading(2 * HOUR, 1, true)), readings(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testExpire_FoldsOldSegmentsIntoLastReadingPerPet() {
+        readingLog.append(reading(1_000, 1, false));
+        readingLog.append(reading(2_000, 1, true));
+        readingLog.append(reading(HOUR + 1_000, 2, false));
+        readingLog.append(new Reading(HOUR + 2_000, 3, 1, PetType.DOG, TrackerType.BIG, false, null, false));
+        readingLog.append(new Reading(HOUR + 3_000, 3, 1, PetType.DOG, TrackerType.BIG, null, null, true));
+        readingLog.append(reading(3 * HOUR, 1, false));
+
+        readingLog.expire(2 * HOUR);
+
+        assertEquals(1, readingLog.segmentCount());
+        assertEquals(List.of(reading(2_000, 1, true), reading(HOUR + 1_000, 2, false), reading(3 * HOUR, 1, false)),
+                readings(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testForEach_NarrowRange_StartsFromCheckpointOfSegmentHoldingFrom() {
+        readingLog.append(reading(1_000, 1, false));
+        readingLog.append(reading(2_000, 2, false));
+        readingLog.append(reading(HOUR + 1_000, 1, true));
+        readingLog.append(reading(HOUR + 2_000, 3, false));
+        readingLog.append(new Reading(HOUR + 3_000, 3, 1, PetType.CAT, TrackerType.SMALL, null, null, true));
+        readingLog.append(reading(2 * HOUR + 1_000, 2, true));
+        readingLog.append(reading(3 * HOUR + 1_000, 1, false));
+
+        List<Reading> readings = new ArrayList<>();
+        readingLog.forEach(2 * HOUR + 500, 3 * HOUR, readings::add);
+
+        assertEquals(List.of(reading(2_000, 2, false), reading(HOUR + 1_000, 1, true),
+                reading(2 * HOUR + 1_000, 2, true)), readings);
+    }
+
+    @Test
+    void testForEachPet_VisitsOnlyThatPetsReadings() {
+        for (long hour = 0; hour < 4; hour++) {
+            for (long petId = 1; petId <= 3; petId++) {
+                readingLog.append(reading(hour * HOUR + petId, petId, hour % 2 == 0));
+            }
+        }
+
+        List<Reading> readings = new ArrayList<>();
+        readingLog.forEach(2, 2 * HOUR + 500, Long.MAX_VALUE, readings::add);
+
+        assertEquals(List.of(reading(HOUR + 2, 2, false), reading(2 * HOUR + 2, 2, true),
+                reading(3 * HOUR + 2, 2, false)), readings);
+    }
+
+    @Test
+    void testForEach_ReadingBehindLatestSegment_RebuildsCheckpoints() {
+        readingLog.append(reading(1_000, 1, false));
+        readingLog.append(reading(2 * HOUR + 1_000, 1, true));
+        assertEquals(List.of(reading(1_000, 1, false)), readings(2 * HOUR, 3 * HOUR, 1));
+
+        readingLog.append(reading(HOUR + 1_000, 1, true));
+        readingLog.append(reading(2_000, 2, false));
+
+        assertEquals(List.of(reading(HOUR + 1_000, 1, true)), readings(2 * HOUR, 3 * HOUR, 1));
+        assertEquals(List.of(reading(2_000, 2, false)), readings(2 * HOUR, 3 * HOUR, 2));
+    }
+
+    private List<Reading> readings(long toMillis) {
+        List<Reading> readings = new ArrayList<>();
+        readingLog.forEach(Long.MIN_VALUE, toMillis, readings::add);
+        return readings;
+    }
+
+    // Everything visited for the pet before the range, i.e. what the range starts from
+    private List<Reading> readings(long fromMillis, long toMillis, long petId) {
+        List<Reading> readings = new ArrayList<>();
+        readingLog.forEach(petId, fromMillis, toMillis, reading -> {
+            if (reading.timestamp() < fromMillis) {
+                readings.add(reading);
+            }
+        });
+        return readings;
+    }
+
+    private static Reading reading(long timestamp, long petId, boolean inZone) {
+        return new Reading(timestamp, petId, 1, PetType.CAT, TrackerType.SMALL, inZone, false, false);
+    }
+}
@@ -0,0 +1,118 @@
+package com.screening.pettrackingapp.repository;
+
+import com.screening.pettrackingapp.config.ShardingProperties;
+import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedPetStoreTest extends PetStoreContractTest {
+
+    private static final int SHARDS = 3;
+
+    private static ShardedPetStore petStore;
+
+    @BeforeAll
+    static void startShards() {
+        ShardingProperties properties = new ShardingProperties();
+        for (int i = 0; i < SHARDS; i++) {
+            ShardingProperties.Shard shard = new ShardingProperties.Shard();
+            shard.setUrl("jdbc:h2:mem:sharded-store-test-" + i + ";DB_CLOSE_DELAY=-1");
+            shard.setUsername("sa");
+            shard.setPassword("password");
+            properties.getShards().add(shard);
+        }
+        HibernateProperties hibernateProperties = new HibernateProperties();
+        hibernateProperties.setDdlAuto("create-drop");
+        petStore = new ShardedPetStore(properties, new JpaProperties(), hibernateProperties);
+    }
+
+    @AfterAll
+    static void stopShards() {
+        petStore.shutdown();
+    }
+
+    @Override
+    protected PetStore store() {
+        return petStore;
+    }
+
+    @Test
+    void testSave_PlacesPetsOnTheirOwnersShard() {
+        List<Pet> saved = petStore.saveAll(IntStream.range(0, 30).mapToObj(owner -> (Pet) dog(owner, true)).toList());
+
+        for (Pet pet : saved) {
+            int shard = ShardedPetStore.shardIndex(pet.getOwnerId(), SHARDS);
+            assertEquals(shard, petStore.shardOf(pet.getId()));
+            assertEquals(shard, ShardedPetStore.homeShard(pet.getId()));
+        }
+        Set<Integer> used = saved.stream().map(pet -> petStore.shardOf(pet.getId())).collect(Collectors.toSet());
+        assertEquals(SHARDS, used.size());
+    }
+
+    @Test
+    void testOwnerChange_MovesPetToNewShardUnderSameId() {
+        int owner = 1;
+        int otherOwner = IntStream.range(2, 100)
+                .filter(candidate -> ShardedPetStore.shardIndex(candidate, SHARDS)
+                        != ShardedPetStore.shardIndex(owner, SHARDS))
+                .findFirst().orElseThrow();
+        Long id = petStore.save(cat(owner, true, true)).getId();
+
+        Pet pet = petStore.findById(id).orElseThrow();
+        pet.setOwnerId(otherOwner);
+        Pet moved = petStore.save(pet);
+
+        assertEquals(id, moved.getId());
+        assertEquals(1L, moved.getVersion());
+        assertEquals(ShardedPetStore.shardIndex(otherOwner, SHARDS), petStore.shardOf(id));
+        assertEquals(List.of(id), petStore.findByOwnerId(otherOwner).stream().map(Pet::getId).toList());
+        assertTrue(petStore.findByOwnerId(owner).isEmpty());
+        assertEquals(1, petStore.findAll().size());
+        assertEquals(1, petStore.updateInZone(id, false, 1L));
+        assertEquals(2L, petStore.findById(id).orElseThrow().getVersion());
+    }
+
+    @Test
+    void testScatterGather_MergesEveryShardInIdOrder() {
+        List<Pet> pets = IntStream.range(0, 12)
+                .mapToObj(owner -> owner % 2 == 0 ? (Pet) cat(owner, false, owner % 4 == 0) : dog(owner, false))
+                .toList();
+        List<Long> ids = petStore.saveAll(pets).stream().map(Pet::getId).toList();
+
+        assertEquals(ids, petStore.findAll().stream().map(Pet::getId).toList());
+        assertEquals(ids.subList(0, 5), petStore.findAfter(null, 5).stream().map(Pet::getId).toList());
+        assertEquals(3, petStore.findByLostTrackerTrue().size());
+        assertEquals(12L, petStore.countOutsideZone().stream().mapToLong(OutsideZoneCount::getTotal).sum());
+        assertEquals(2, petStore.countOutsideZone().size());
+    }
+
+    @Test
+    void testBulkWrites_ConflictOnOneShard_UndoesTheOthers() {
+        List<Long> ids = petStore.saveAll(IntStream.range(0, 30).mapToObj(owner -> (Pet) dog(owner, true)).toList())
+                .stream().map(Pet::getId).toList();
+        List<PetState> states = petStore.findStates(new PetSelection(null, null, PetType.DOG));
+        petStore.updateInZone(ids.getLast(), false, 0L);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> petStore.updateAll(states, false, TrackerType.SMALL));
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> petStore.deleteAll(states));
+
+        List<Pet> pets = petStore.findAll();
+        assertEquals(ids, pets.stream().map(Pet::getId).toList());
+        assertEquals(29, pets.stream().filter(pet -> pet.getInZone() && pet.getVersion() == 0L).count());
+        assertTrue(pets.stream().allMatch(pet -> pet.getTrackerType() == TrackerType.BIG));
+    }
+}
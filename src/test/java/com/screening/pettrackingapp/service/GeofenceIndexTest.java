@@ -0,0 +1,103 @@
+package com.screening.pettrackingapp.service;
+
+import com.screening.pettrackingapp.config.GeofenceProperties;
+import com.screening.pettrackingapp.dto.CircleGeofence;
+import com.screening.pettrackingapp.dto.GeoPoint;
+import com.screening.pettrackingapp.dto.Geofence;
+import com.screening.pettrackingapp.dto.PolygonGeofence;
+import com.screening.pettrackingapp.exception.PetValidationException;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeofenceIndexTest {
+
+    // Roughly 0.1 x 0.1 degrees around central Berlin, ten grid cells on a side
+    static final PolygonGeofence SQUARE = new PolygonGeofence(null, null, List.of(
+            new GeoPoint(52.45, 13.35), new GeoPoint(52.45, 13.45),
+            new GeoPoint(52.55, 13.45), new GeoPoint(52.55, 13.35)));
+
+    GeofenceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new GeofenceIndex(new GeofenceProperties());
+    }
+
+    @Test
+    void testCircle_ContainsPointsWithinRadius() {
+        index.addZone(1, new CircleGeofence(null, null, 52.52, 13.405, 200.0));
+
+        // 150 m north and 150 m east of the centre; the second lies outside, though inside the bounding box
+        assertTrue(index.contains(1, 52.52 + 150 / 111_320.0, 13.405));
+        assertFalse(index.contains(1, 52.52 + 150 / 111_320.0, 13.405 + 150 / 67_700.0));
+        assertFalse(index.contains(1, 52.53, 13.405));
+    }
+
+    @Test
+    void testPolygon_UsesEvenOddRule() {
+        // An L shape: the notch at the top right is outside
+        index.addZone(1, new PolygonGeofence(null, null, List.of(
+                new GeoPoint(0.0, 0.0), new GeoPoint(0.0, 0.2), new GeoPoint(0.1, 0.2),
+                new GeoPoint(0.1, 0.1), new GeoPoint(0.2, 0.1), new GeoPoint(0.2, 0.0))));
+
+        assertTrue(index.contains(1, 0.05, 0.15));
+        assertTrue(index.contains(1, 0.15, 0.05));
+        assertFalse(index.contains(1, 0.15, 0.15));
+    }
+
+    @Test
+    void testZones_AreScopedToTheirOwner() {
+        index.addZone(1, SQUARE);
+
+        assertTrue(index.contains(1, 52.5, 13.4));
+        assertFalse(index.contains(2, 52.5, 13.4));
+    }
+
+    @Test
+    void testLargeZones_AreCheckedWithoutTheGrid() {
+        GeofenceProperties properties = new GeofenceProperties();
+        properties.setMaxCellsPerZone(4);
+        index = new GeofenceIndex(properties);
+        index.addZone(1, SQUARE);
+        index.addZone(1, new CircleGeofence(null, null, 48.85, 2.35, 100.0));
+
+        assertTrue(index.contains(1, 52.5, 13.4));
+        assertTrue(index.contains(1, 48.85, 2.35));
+        assertFalse(index.contains(1, 50.0, 8.0));
+    }
+
+    @Test
+    void testReplaceAndRemove_RebuildTheOwnersZones() {
+        Geofence zone = index.addZone(1, SQUARE);
+        assertEquals(1, zone.ownerId());
+
+        index.replaceZone(1, zone.id(), new CircleGeofence(null, null, 48.85, 2.35, 100.0));
+        assertFalse(index.contains(1, 52.5, 13.4));
+        assertTrue(index.contains(1, 48.85, 2.35));
+        assertEquals(List.of(index.getZone(1, zone.id())), index.getZones(1));
+
+        index.removeZone(1, zone.id());
+        assertFalse(index.contains(1, 48.85, 2.35));
+        assertEquals(List.of(), index.getZones(1));
+        assertThrows(EntityNotFoundException.class, () -> index.getZone(1, zone.id()));
+        assertThrows(EntityNotFoundException.class, () -> index.removeZone(1, zone.id()));
+    }
+
+    @Test
+    void testInvalidZones_AreRejected() {
+        assertThrows(PetValidationException.class,
+                () -> index.addZone(1, new CircleGeofence(null, null, 52.52, 13.405, 0.0)));
+        assertThrows(PetValidationException.class,
+                () -> index.addZone(1, new CircleGeofence(null, null, 95.0, 13.405, 100.0)));
+        assertThrows(PetValidationException.class,
+                () -> index.addZone(1, new PolygonGeofence(null, null, SQUARE.vertices().subList(0, 2))));
+        assertThrows(PetValidationException.class,
+                () -> index.addZone(1, new CircleGeofence(null, null, 0.0, 179.9999, 100.0)));
+        assertEquals(List.of(), index.getZones(1));
+    }
+}
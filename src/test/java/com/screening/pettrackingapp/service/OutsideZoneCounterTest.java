@@ -0,0 +1,125 @@
+package com.screening.pettrackingapp.service;
+
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+import com.screening.pettrackingapp.event.PetSnapshot;
+import com.screening.pettrackingapp.repository.OutsideZoneCount;
+import com.screening.pettrackingapp.repository.PetStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OutsideZoneCounterTest {
+
+    @Mock
+    PetStore petStore;
+
+    OutsideZoneCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new OutsideZoneCounter(petStore);
+    }
+
+    @Test
+    void testRebuild_LoadsCountsFromStore() {
+        when(petStore.countOutsideZone()).thenReturn(List.of(
+                count(PetType.CAT, TrackerType.SMALL, 3L),
+                count(PetType.DOG, TrackerType.BIG, 2L)));
+
+        counter.rebuild();
+
+        assertEquals(Map.of("CAT-SMALL", 3L, "DOG-BIG", 2L), counter.snapshot());
+    }
+
+    @Test
+    void testApply_CreateOutsideZone_Increments() {
+        counter.apply(null, snapshot(PetType.CAT, TrackerType.SMALL, false));
+
+        assertEquals(Map.of("CAT-SMALL", 1L), counter.snapshot());
+    }
+
+    @Test
+    void testApply_CreateInsideZone_IsIgnored() {
+        counter.apply(null, snapshot(PetType.CAT, TrackerType.SMALL, true));
+
+        assertTrue(counter.snapshot().isEmpty());
+    }
+
+    @Test
+    void testApply_ZoneAndTrackerChanges_MoveCounts() {
+        PetSnapshot outside = snapshot(PetType.DOG, TrackerType.SMALL, false);
+        counter.apply(null, outside);
+
+        PetSnapshot biggerTracker = snapshot(PetType.DOG, TrackerType.BIG, false);
+        counter.apply(outside, biggerTracker);
+        assertEquals(Map.of("DOG-BIG", 1L), counter.snapshot());
+
+        PetSnapshot backInZone = snapshot(PetType.DOG, TrackerType.BIG, true);
+        counter.apply(biggerTracker, backInZone);
+        assertTrue(counter.snapshot().isEmpty());
+    }
+
+    @Test
+    void testApply_Delete_Decrements() {
+        PetSnapshot outside = snapshot(PetType.CAT, TrackerType.BIG, false);
+        counter.apply(null, outside);
+
+        counter.apply(outside, null);
+
+        assertTrue(counter.snapshot().isEmpty());
+    }
+
+    @Test
+    void testApply_ConcurrentWrites_AreNotLost() throws InterruptedException {
+        PetSnapshot outside = snapshot(PetType.CAT, TrackerType.SMALL, false);
+        PetSnapshot inside = snapshot(PetType.CAT, TrackerType.SMALL, true);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 10_000; i++) {
+            executor.execute(() -> {
+                counter.apply(null, outside);
+                counter.apply(outside, inside);
+                counter.apply(null, outside);
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(Map.of("CAT-SMALL", 10_000L), counter.snapshot());
+    }
+
+    private PetSnapshot snapshot(PetType petType, TrackerType trackerType, boolean inZone) {
+        return new PetSnapshot(1L, petType, trackerType, 1, inZone, null);
+    }
+
+    private OutsideZoneCount count(PetType petType, TrackerType trackerType, long total) {
+        return new OutsideZoneCount() {
+            @Override
+            public PetType getPetType() {
+                return petType;
+            }
+
+            @Override
+            public TrackerType getTrackerType() {
+                return trackerType;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.screening.pettrackingapp.service;
+
+import com.screening.pettrackingapp.config.OwnerCacheProperties;
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+import com.screening.pettrackingapp.event.PetChangedEvent;
+import com.screening.pettrackingapp.event.PetSnapshot;
+import com.screening.pettrackingapp.repository.PetView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class OwnerPetCacheTest {
+
+    SimpleMeterRegistry meterRegistry;
+    OwnerPetCache cache;
+    AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new OwnerPetCache(new OwnerCacheProperties(), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testRepeatedReads_LoadOnce() {
+        cache.get(1, this::load);
+        cache.get(1, this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testOwnerChange_InvalidatesOldAndNewOwner() {
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+
+        PetSnapshot before = new PetSnapshot(5L, PetType.DOG, TrackerType.BIG, 1, true, null);
+        PetSnapshot after = new PetSnapshot(5L, PetType.DOG, TrackerType.BIG, 2, true, null);
+        cache.onPetChanged(new PetChangedEvent(before, after));
+
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void testInvalidationDuringLoad_IsNotCached() {
+        cache.get(1, ownerId -> {
+            // A write to the same owner commits while the old rows are being read
+            cache.invalidate(ownerId);
+            return load(ownerId);
+        });
+
+        cache.get(1, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    private List<PetView> load(Integer ownerId) {
+        loads.incrementAndGet();
+        return List.of(new PetView((long) ownerId, PetType.DOG, TrackerType.BIG, ownerId, true, null));
+    }
+}
@@ -0,0 +1,153 @@
+package com.screening.pettrackingapp.service;
+
+import com.screening.pettrackingapp.config.ChangeLogProperties;
+import com.screening.pettrackingapp.dto.PetChange;
+import com.screening.pettrackingapp.dto.PetChanges;
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+import com.screening.pettrackingapp.event.PetChangedEvent;
+import com.screening.pettrackingapp.event.PetSnapshot;
+import com.screening.pettrackingapp.exception.ResyncRequiredException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PetChangeLogTest {
+
+    static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    ChangeLogProperties properties;
+    MutableClock clock;
+    PetChangeLog changeLog;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ChangeLogProperties();
+        properties.setCapacity(4);
+        properties.setRetention(Duration.ofHours(1));
+        clock = new MutableClock(START);
+        changeLog = new PetChangeLog(properties, clock);
+    }
+
+    @Test
+    void testChanges_ReportTheLatestStatePerPetAndTombstones() {
+        long since = changeLog.currentVersion();
+        changeLog.onPetChanged(new PetChangedEvent(null, dog(1L, 7, true)));
+        changeLog.onPetChanged(new PetChangedEvent(null, dog(2L, 7, true)));
+        changeLog.onPetChanged(new PetChangedEvent(dog(1L, 7, true), dog(1L, 7, false)));
+        changeLog.onPetChanged(new PetChangedEvent(dog(2L, 7, true), null));
+
+        PetChanges changes = changeLog.changesSince(since, null, 100);
+
+        assertEquals(since + 4, changes.version());
+        assertFalse(changes.more());
+        assertEquals(List.of(1L, 2L), changes.changes().stream().map(PetChange::id).toList());
+        PetChange updated = changes.changes().get(0);
+        assertEquals(since + 3, updated.version());
+        assertFalse(updated.removed());
+        assertEquals(false, updated.pet().inZone());
+        assertTrue(changes.changes().get(1).removed());
+        assertNull(changes.changes().get(1).pet());
+        assertEquals(List.of(), changeLog.changesSince(changes.version(), null, 100).changes());
+    }
+
+    @Test
+    void testOwnerChanges_ReportPetsThatLeftAsRemoved() {
+        long since = changeLog.currentVersion();
+        changeLog.onPetChanged(new PetChangedEvent(null, dog(1L, 7, true)));
+        changeLog.onPetChanged(new PetChangedEvent(null, dog(2L, 8, true)));
+        changeLog.onPetChanged(new PetChangedEvent(dog(1L, 7, true), dog(1L, 8, true)));
+
+        List<PetChange> owner7 = changeLog.changesSince(since, 7, 100).changes();
+        List<PetChange> owner8 = changeLog.changesSince(since, 8, 100).changes();
+
+        assertEquals(1, owner7.size());
+        assertTrue(owner7.getFirst().removed());
+        assertEquals(List.of(2L, 1L), owner8.stream().map(PetChange::id).toList());
+        assertTrue(owner8.stream().noneMatch(PetChange::removed));
+    }
+
+    @Test
+    void testLimit_PagesThroughTheLog() {
+        long since = changeLog.currentVersion();
+        for (long id = 1; id <= 3; id++) {
+            changeLog.onPetChanged(new PetChangedEvent(null, dog(id, 7, true)));
+        }
+
+        PetChanges first = changeLog.changesSince(since, null, 2);
+        PetChanges second = changeLog.changesSince(first.version(), null, 2);
+
+        assertTrue(first.more());
+        assertEquals(2, first.changes().size());
+        assertFalse(second.more());
+        assertEquals(List.of(3L), second.changes().stream().map(PetChange::id).toList());
+    }
+
+    @Test
+    void testClientsBehindTheLog_MustResync() {
+        long since = changeLog.currentVersion();
+        for (long id = 1; id <= 5; id++) {
+            changeLog.onPetChanged(new PetChangedEvent(null, dog(id, 7, true)));
+        }
+
+        // Capacity 4: the first change is gone, so a client at the start can no longer catch up
+        assertThrows(ResyncRequiredException.class, () -> changeLog.changesSince(since, null, 100));
+        assertEquals(4, changeLog.changesSince(since + 1, null, 100).changes().size());
+        assertThrows(ResyncRequiredException.class, () -> changeLog.changesSince(since + 6, null, 100));
+
+        clock.set(START.plus(Duration.ofHours(2)));
+        assertThrows(ResyncRequiredException.class, () -> changeLog.changesSince(since + 1, null, 100));
+        assertEquals(List.of(), changeLog.changesSince(since + 5, null, 100).changes());
+    }
+
+    @Test
+    void testVersions_KeepIncreasingAcrossRestarts() {
+        changeLog.onPetChanged(new PetChangedEvent(null, dog(1L, 7, true)));
+        long beforeRestart = changeLog.currentVersion();
+
+        clock.set(START.plusSeconds(1));
+        PetChangeLog restarted = new PetChangeLog(properties, clock);
+
+        assertTrue(restarted.currentVersion() > beforeRestart);
+        assertThrows(ResyncRequiredException.class, () -> restarted.changesSince(beforeRestart, null, 100));
+    }
+
+    private static PetSnapshot dog(Long id, Integer ownerId, boolean inZone) {
+        return new PetSnapshot(id, PetType.DOG, TrackerType.BIG, ownerId, inZone, null);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void set(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.screening.pettrackingapp.service;
+
+import com.screening.pettrackingapp.config.PetValidationProperties;
+import com.screening.pettrackingapp.entity.*;
+import com.screening.pettrackingapp.exception.PetValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PetCompatibilityRulesTest {
+
+    private final PetCompatibilityRules defaults = new PetCompatibilityRules(new PetValidationProperties());
+
+    @Test
+    void testDefaults_FollowTheTrackerMatrix() {
+        assertEquals(0, defaults.check(cat(TrackerType.SMALL)));
+        assertEquals(0, defaults.check(cat(TrackerType.BIG)));
+        assertNotEquals(0, defaults.check(cat(TrackerType.MEDIUM)));
+        for (TrackerType trackerType : TrackerType.values()) {
+            assertEquals(0, defaults.check(dog(trackerType)), trackerType.name());
+        }
+    }
+
+    @Test
+    void testValidate_ReportsTrackerTypeInTheExistingFormat() {
+        PetValidationException ex = assertThrows(PetValidationException.class,
+                () -> defaults.validate(cat(TrackerType.MEDIUM)));
+
+        assertEquals("Tracker type MEDIUM is not applicable for CAT", ex.getMessage());
+    }
+
+    @Test
+    void testPetTypeNotMatchingTheEntity_IsRejected() {
+        Cat cat = cat(TrackerType.SMALL);
+        cat.setPetType(PetType.DOG);
+
+        assertEquals("Pet type DOG does not match a Cat; 'lostTracker' is not applicable for DOG",
+                defaults.violations(cat));
+    }
+
+    @Test
+    void testMissingPetType_IsRejected() {
+        Dog dog = dog(TrackerType.SMALL);
+        dog.setPetType(null);
+
+        assertEquals("Pet type is required", defaults.violations(dog));
+    }
+
+    @Test
+    void testConfiguredRules_ReportEveryViolationInOnePass() {
+        PetCompatibilityRules rules = rules(Map.of(
+                "pettracker.validation.tracker-types.CAT", "SMALL",
+                "pettracker.validation.fields.owner-id.required-for", "CAT,DOG",
+                "pettracker.validation.fields.lost-tracker.allowed-for", "DOG"));
+        Cat cat = cat(TrackerType.BIG);
+        cat.setOwnerId(null);
+
+        long violations = rules.check(cat);
+
+        assertEquals(List.of("Tracker type BIG is not applicable for CAT", "'ownerId' is required for CAT",
+                "'lostTracker' is not applicable for CAT"), rules.describe(cat, violations));
+        // Configured entries are merged into the defaults, so DOG keeps its tracker types
+        assertEquals(0, rules.check(dog(TrackerType.MEDIUM)));
+    }
+
+    private static PetCompatibilityRules rules(Map<String, String> properties) {
+        PetValidationProperties bound = new Binder(new MapConfigurationPropertySource(properties))
+                .bind("pettracker.validation", PetValidationProperties.class)
+                .get();
+        return new PetCompatibilityRules(bound);
+    }
+
+    private static Cat cat(TrackerType trackerType) {
+        Cat cat = new Cat();
+        cat.setTrackerType(trackerType);
+        cat.setOwnerId(1);
+        cat.setInZone(true);
+        cat.setLostTracker(false);
+        return cat;
+    }
+
+    private static Dog dog(TrackerType trackerType) {
+        Dog dog = new Dog();
+        dog.setTrackerType(trackerType);
+        dog.setOwnerId(1);
+        dog.setInZone(true);
+        return dog;
+    }
+}
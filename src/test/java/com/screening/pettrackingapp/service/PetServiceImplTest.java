@@ -1,14 +1,33 @@
 package com.screening.pettrackingapp.service;
 
+import com.screening.pettrackingapp.config.GeofenceProperties;
+import com.screening.pettrackingapp.config.OwnerCacheProperties;
+import com.screening.pettrackingapp.config.PetIngestProperties;
+import com.screening.pettrackingapp.config.PetValidationProperties;
+import com.screening.pettrackingapp.dto.BatchIngestResult;
+import com.screening.pettrackingapp.dto.BatchItem;
+import com.screening.pettrackingapp.dto.BulkWriteResult;
+import com.screening.pettrackingapp.dto.CircleGeofence;
+import com.screening.pettrackingapp.dto.GeoPoint;
 import com.screening.pettrackingapp.entity.*;
+import com.screening.pettrackingapp.event.PetChangedEvent;
+import com.screening.pettrackingapp.event.PetSnapshot;
 import com.screening.pettrackingapp.exception.PetValidationException;
-import com.screening.pettrackingapp.repository.PetRepository;
+import com.screening.pettrackingapp.repository.PetSelection;
+import com.screening.pettrackingapp.repository.PetState;
+import com.screening.pettrackingapp.repository.PetStore;
+import com.screening.pettrackingapp.repository.PetView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.util.Arrays;
 import java.util.List;
@@ -22,7 +41,28 @@ import static org.mockito.Mockito.*;
 public class PetServiceImplTest {
 
     @Mock
-    PetRepository petRepository;
+    PetStore petStore;
+
+    @Mock
+    OutsideZoneCounter outsideZoneCounter;
+
+    @Spy
+    OwnerPetCache ownerPetCache = new OwnerPetCache(new OwnerCacheProperties(), new SimpleMeterRegistry());
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
+    @Spy
+    PetIngestProperties ingestProperties = new PetIngestProperties();
+
+    @Spy
+    PetCompatibilityRules compatibilityRules = new PetCompatibilityRules(new PetValidationProperties());
+
+    @Spy
+    GeofenceIndex geofenceIndex = new GeofenceIndex(new GeofenceProperties());
 
     @InjectMocks
     PetServiceImpl petService;
@@ -30,64 +70,163 @@ public class PetServiceImplTest {
     @Test
     void testSaveCat_Success() {
         Cat cat = createCat(PetType.CAT, TrackerType.SMALL, 1, true, false);
-        when(petRepository.save(cat)).thenReturn(cat);
+        when(petStore.save(cat)).thenReturn(cat);
 
         Pet savedCat = petService.savePet(cat);
 
         assertEquals(cat, savedCat);
-        verify(petRepository, times(1)).save(cat);
+        verify(petStore, times(1)).save(cat);
+        verify(eventPublisher, times(1)).publishEvent(PetChangedEvent.created(cat));
     }
 
     @Test
     void testSaveDog_Success() {
         Dog dog = createDog(PetType.DOG, TrackerType.BIG, 2, false);
-        when(petRepository.save(dog)).thenReturn(dog);
+        when(petStore.save(dog)).thenReturn(dog);
 
         Pet savedDog = petService.savePet(dog);
 
         assertEquals(dog, savedDog);
-        verify(petRepository, times(1)).save(dog);
+        verify(petStore, times(1)).save(dog);
+    }
+
+    @Test
+    void testSavePets_ReportsInvalidItemsAndSavesTheRest() {
+        ingestProperties.setChunkSize(2);
+        Cat cat = createCat(PetType.CAT, TrackerType.SMALL, 1, true, false);
+        Cat invalidCat = createCat(PetType.CAT, TrackerType.MEDIUM, 2, true, false);
+        Dog dog = createDog(PetType.DOG, TrackerType.MEDIUM, 3, false);
+        Cat anotherCat = createCat(PetType.CAT, TrackerType.BIG, 4, false, true);
+        when(petStore.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Pet> pets = invocation.getArgument(0);
+            pets.forEach(pet -> pet.setId((long) pet.getOwnerId()));
+            return pets;
+        });
+
+        BatchIngestResult result = petService.savePets(List.of(
+                BatchItem.of(0, cat),
+                BatchItem.of(1, invalidCat),
+                BatchItem.failed(2, "Unknown property 'color' found in request"),
+                BatchItem.of(3, dog),
+                BatchItem.of(4, anotherCat)).iterator());
+
+        assertEquals(5, result.received());
+        assertEquals(3, result.saved());
+        assertEquals(2, result.failed());
+        assertEquals(List.of(1L, 3L, 4L), result.ids());
+        assertEquals(1, result.errors().get(0).index());
+        assertEquals("Tracker type MEDIUM is not applicable for CAT", result.errors().get(0).message());
+        assertEquals(2, result.errors().get(1).index());
+        verify(petStore, times(2)).saveAll(anyList());
+        verify(eventPublisher, times(3)).publishEvent(any(PetChangedEvent.class));
+    }
+
+    @Test
+    void testSavePets_FailedChunkReportsEveryItem() {
+        Cat cat = createCat(PetType.CAT, TrackerType.SMALL, 1, true, false);
+        Dog dog = createDog(PetType.DOG, TrackerType.BIG, 2, false);
+        when(petStore.saveAll(anyList())).thenThrow(new IllegalStateException("constraint violated"));
+
+        BatchIngestResult result = petService.savePets(List.of(BatchItem.of(0, cat), BatchItem.of(1, dog)).iterator());
+
+        assertEquals(0, result.saved());
+        assertEquals(2, result.failed());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     void testGetAllPets_Success() {
         Cat cat = createCat(PetType.CAT, TrackerType.SMALL, 1, true, false);
         Dog dog = createDog(PetType.DOG, TrackerType.BIG, 2, false);
-        when(petRepository.findAll()).thenReturn(Arrays.asList(cat, dog));
+        when(petStore.findViews()).thenReturn(views(cat, dog));
 
-        List<Pet> pets = petService.getAllPets();
+        List<PetView> pets = petService.getAllPets();
 
         assertEquals(2, pets.size());
-        verify(petRepository, times(1)).findAll();
+        verify(petStore, times(1)).findViews();
     }
 
     @Test
-    void testGetPetsOutsideZone_Success() {
-        Cat cat = createCat(PetType.CAT, TrackerType.SMALL, 1, false, false);
+    void testGetPets_UsesKeysetQuery() {
         Dog dog = createDog(PetType.DOG, TrackerType.BIG, 2, false);
-        when(petRepository.findByInZoneFalse()).thenReturn(Arrays.asList(cat, dog));
+        when(petStore.findViewsAfter(10L, 5)).thenReturn(views(dog));
+
+        List<PetView> pets = petService.getPets(10L, 5);
+
+        assertEquals(views(dog), pets);
+        verify(petStore, never()).findViews();
+    }
+
+    @Test
+    void testGetPets_WithoutCursor_StartsAtTheBeginning() {
+        petService.getPets(null, 5);
+
+        verify(petStore, times(1)).findViewsAfter(null, 5);
+    }
+
+    @Test
+    void testGetPetsOutsideZone_Success() {
+        when(outsideZoneCounter.snapshot()).thenReturn(Map.of("CAT-SMALL", 1L, "DOG-BIG", 1L));
 
         Map<String, Long> result = petService.getPetsOutsideZone();
 
         assertEquals(2, result.size());
         assertEquals(1L, result.get("CAT-SMALL"));
         assertEquals(1L, result.get("DOG-BIG"));
-        verify(petRepository, times(1)).findByInZoneFalse();
+        verifyNoInteractions(petStore);
+    }
+
+    @Test
+    void testValidateCat_WithInvalidTrackerType_ThrowsException() {
+        Cat invalidCat = createCat(PetType.CAT, TrackerType.MEDIUM, 2, true, false);
+
+        PetValidationException exception = assertThrows(PetValidationException.class, () -> petService.savePet(invalidCat));
+        assertEquals("Tracker type MEDIUM is not applicable for CAT", exception.getMessage());
+        verifyNoInteractions(petStore);
     }
 
     @Test
-    void testValidateDog_WithInvalidTrackerType_ThrowsException() {
-        Dog invalidDog = createDog(PetType.DOG, TrackerType.MEDIUM, 2, true);
+    void testSaveDog_WithMediumTracker_Success() {
+        Dog dog = createDog(PetType.DOG, TrackerType.MEDIUM, 2, true);
+        when(petStore.save(dog)).thenReturn(dog);
+
+        assertEquals(dog, petService.savePet(dog));
+    }
+
+    @Test
+    void testUpdatePet_ToIncompatibleTracker_ThrowsException() {
+        Cat existingCat = createCat(PetType.CAT, TrackerType.SMALL, 1, true, false);
+        existingCat.setId(1L);
+        when(petStore.findById(1L)).thenReturn(Optional.of(existingCat));
 
-        PetValidationException exception = assertThrows(PetValidationException.class, () -> petService.savePet(invalidDog));
-        assertEquals("Tracker type MEDIUM is not applicable for DOG", exception.getMessage());
+        assertThrows(PetValidationException.class,
+                () -> petService.updatePet(1L, createCat(PetType.CAT, TrackerType.MEDIUM, 1, true, false)));
+        verify(petStore, never()).save(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     void testDeletePet_Success() {
         Long petId = 1L;
+        Dog dog = createDog(PetType.DOG, TrackerType.BIG, 2, false);
+        dog.setId(petId);
+        when(petStore.findById(petId)).thenReturn(Optional.of(dog));
+
+        petService.deletePet(petId);
+
+        verify(petStore, times(1)).delete(dog);
+        verify(eventPublisher, times(1)).publishEvent(PetChangedEvent.deleted(dog));
+    }
+
+    @Test
+    void testDeletePet_UnknownId_DoesNothing() {
+        Long petId = 1L;
+        when(petStore.findById(petId)).thenReturn(Optional.empty());
+
         petService.deletePet(petId);
-        verify(petRepository, times(1)).deleteById(petId);
+
+        verify(petStore, never()).delete(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -96,23 +235,23 @@ public class PetServiceImplTest {
         Cat cat = createCat(PetType.CAT, TrackerType.SMALL, 1, true, false);
         cat.setId(petId);
 
-        when(petRepository.findById(petId)).thenReturn(Optional.of(cat));
+        when(petStore.findById(petId)).thenReturn(Optional.of(cat));
 
         Pet foundPet = petService.getPetById(petId);
 
         assertEquals(cat, foundPet);
-        verify(petRepository, times(1)).findById(petId);
+        verify(petStore, times(1)).findById(petId);
     }
 
     @Test
     void testGetPetById_ThrowsEntityNotFoundException() {
         Long petId = 1L;
 
-        when(petRepository.findById(petId)).thenReturn(Optional.empty());
+        when(petStore.findById(petId)).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> petService.getPetById(petId));
         assertEquals("Pet with ID " + petId + " not found.", exception.getMessage());
-        verify(petRepository, times(1)).findById(petId);
+        verify(petStore, times(1)).findById(petId);
     }
 
     @Test
@@ -120,13 +259,13 @@ public class PetServiceImplTest {
         Cat catWithLostTracker = new Cat();
         catWithLostTracker.setLostTracker(true);
 
-        when(petRepository.findByLostTrackerTrue()).thenReturn(List.of(catWithLostTracker));
+        when(petStore.findByLostTrackerTrue()).thenReturn(List.of(catWithLostTracker));
 
         List<Cat> lostTrackerCats = petService.getLostTrackerCats();
 
         assertEquals(1, lostTrackerCats.size());
         assertTrue(lostTrackerCats.getFirst().getLostTracker());
-        verify(petRepository, times(1)).findByLostTrackerTrue();
+        verify(petStore, times(1)).findByLostTrackerTrue();
     }
 
     @Test
@@ -137,9 +276,9 @@ public class PetServiceImplTest {
 
         Cat updatedCat = createCat(PetType.CAT, TrackerType.BIG, 2, false, true);
 
-        when(petRepository.findById(petId)).thenReturn(Optional.of(existingCat));
+        when(petStore.findById(petId)).thenReturn(Optional.of(existingCat));
 
-        when(petRepository.save(any(Cat.class))).thenAnswer(invocation -> {
+        when(petStore.save(any(Cat.class))).thenAnswer(invocation -> {
             Cat catToUpdate = invocation.getArgument(0);
             existingCat.setPetType(catToUpdate.getPetType());
             existingCat.setTrackerType(catToUpdate.getTrackerType());
@@ -161,8 +300,140 @@ public class PetServiceImplTest {
         assertEquals(updatedCat.getInZone(), updatedCatResult.getInZone());
         assertEquals(updatedCat.getLostTracker(), updatedCatResult.getLostTracker());
 
-        verify(petRepository, times(1)).findById(petId);
-        verify(petRepository, times(1)).save(existingCat);
+        verify(petStore, times(1)).findById(petId);
+        verify(petStore, times(1)).save(existingCat);
+        verify(eventPublisher, times(1)).publishEvent(any(PetChangedEvent.class));
+    }
+
+    @Test
+    void testUpdateZone_FlipsZoneWithTargetedUpdate() {
+        Long petId = 1L;
+        when(petStore.findStateById(petId))
+                .thenReturn(Optional.of(new PetState(petId, PetType.DOG, TrackerType.BIG, 2, true, null, 3L)));
+        when(petStore.updateInZone(petId, false, 3L)).thenReturn(1);
+
+        petService.updateZone(petId, false);
+
+        verify(petStore, never()).findById(any());
+        verify(petStore, never()).save(any());
+        verify(eventPublisher, times(1)).publishEvent(new PetChangedEvent(
+                new PetSnapshot(petId, PetType.DOG, TrackerType.BIG, 2, true, null),
+                new PetSnapshot(petId, PetType.DOG, TrackerType.BIG, 2, false, null)));
+    }
+
+    @Test
+    void testUpdateZone_UnchangedZone_SkipsWrite() {
+        Long petId = 1L;
+        when(petStore.findStateById(petId))
+                .thenReturn(Optional.of(new PetState(petId, PetType.CAT, TrackerType.SMALL, 1, true, false, 0L)));
+
+        petService.updateZone(petId, true);
+
+        verify(petStore, never()).updateInZone(any(), any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testUpdateZone_ConcurrentModification_ThrowsConflict() {
+        Long petId = 1L;
+        when(petStore.findStateById(petId))
+                .thenReturn(Optional.of(new PetState(petId, PetType.CAT, TrackerType.SMALL, 1, true, false, 0L)));
+        when(petStore.updateInZone(petId, false, 0L)).thenReturn(0);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> petService.updateZone(petId, false));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testUpdateZone_UnknownPet_ThrowsEntityNotFoundException() {
+        Long petId = 1L;
+        when(petStore.findStateById(petId)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> petService.updateZone(petId, false));
+    }
+
+    @Test
+    void testUpdatePets_UpdatesChangedPetsInOneStoreCall() {
+        PetSelection selection = new PetSelection(null, 2, null);
+        PetState outside = new PetState(1L, PetType.DOG, TrackerType.BIG, 2, false, null, 3L);
+        PetState inside = new PetState(2L, PetType.CAT, TrackerType.SMALL, 2, true, false, 0L);
+        when(petStore.findStates(selection)).thenReturn(List.of(outside, inside));
+
+        BulkWriteResult result = petService.updatePets(selection, true, null);
+
+        assertEquals(new BulkWriteResult(2, 1), result);
+        verify(petStore, times(1)).updateAll(List.of(outside), true, null);
+        verify(petStore, never()).findById(any());
+        verify(eventPublisher, times(1)).publishEvent(new PetChangedEvent(
+                new PetSnapshot(1L, PetType.DOG, TrackerType.BIG, 2, false, null),
+                new PetSnapshot(1L, PetType.DOG, TrackerType.BIG, 2, true, null)));
+    }
+
+    @Test
+    void testUpdatePets_TrackerTypeNotAllowedForASelectedPet_ThrowsValidationException() {
+        PetSelection selection = new PetSelection(null, 2, null);
+        when(petStore.findStates(selection)).thenReturn(List.of(
+                new PetState(1L, PetType.DOG, TrackerType.BIG, 2, true, null, 0L),
+                new PetState(2L, PetType.CAT, TrackerType.SMALL, 2, true, false, 0L)));
+
+        assertThrows(PetValidationException.class, () -> petService.updatePets(selection, null, TrackerType.MEDIUM));
+        verify(petStore, never()).updateAll(any(), any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testBulkWrites_WithoutCriteriaOrValues_ThrowValidationException() {
+        assertThrows(PetValidationException.class,
+                () -> petService.updatePets(new PetSelection(null, null, null), true, null));
+        assertThrows(PetValidationException.class,
+                () -> petService.updatePets(new PetSelection(null, 2, null), null, null));
+        assertThrows(PetValidationException.class, () -> petService.deletePets(new PetSelection(null, null, null)));
+        verifyNoInteractions(petStore);
+    }
+
+    @Test
+    void testDeletePets_DeletesEveryMatchAndPublishesTombstones() {
+        PetSelection selection = new PetSelection(List.of(1L), null, PetType.CAT);
+        PetState cat = new PetState(1L, PetType.CAT, TrackerType.SMALL, 2, true, true, 4L);
+        when(petStore.findStates(selection)).thenReturn(List.of(cat));
+
+        assertEquals(new BulkWriteResult(1, 1), petService.deletePets(selection));
+
+        verify(petStore, times(1)).deleteAll(List.of(cat));
+        verify(eventPublisher, times(1)).publishEvent(new PetChangedEvent(cat.toSnapshot(), null));
+    }
+
+    @Test
+    void testUpdateLocation_OutsideOwnersZones_LeavesZone() {
+        Long petId = 1L;
+        geofenceIndex.addZone(2, new CircleGeofence(null, null, 52.52, 13.405, 100.0));
+        when(petStore.findStateById(petId))
+                .thenReturn(Optional.of(new PetState(petId, PetType.DOG, TrackerType.BIG, 2, true, null, 3L)));
+        when(petStore.updateInZone(petId, false, 3L)).thenReturn(1);
+
+        assertFalse(petService.updateLocation(petId, new GeoPoint(52.53, 13.405)));
+
+        verify(petStore, times(1)).updateInZone(petId, false, 3L);
+    }
+
+    @Test
+    void testUpdateLocation_InsideOwnersZone_SkipsWriteWhenAlreadyInZone() {
+        Long petId = 1L;
+        geofenceIndex.addZone(2, new CircleGeofence(null, null, 52.52, 13.405, 100.0));
+        when(petStore.findStateById(petId))
+                .thenReturn(Optional.of(new PetState(petId, PetType.DOG, TrackerType.BIG, 2, true, null, 3L)));
+
+        assertTrue(petService.updateLocation(petId, new GeoPoint(52.5203, 13.4052)));
+
+        verify(petStore, never()).updateInZone(any(), any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testUpdateLocation_InvalidCoordinates_ThrowsValidationException() {
+        assertThrows(PetValidationException.class, () -> petService.updateLocation(1L, new GeoPoint(91.0, 0.0)));
+        assertThrows(PetValidationException.class, () -> petService.updateLocation(1L, new GeoPoint(null, 0.0)));
+        verifyNoInteractions(petStore);
     }
 
     @Test
@@ -173,20 +444,33 @@ public class PetServiceImplTest {
         Dog dog = createDog(PetType.DOG, TrackerType.BIG, ownerId, false);
         Dog anotherDog = createDog(PetType.DOG, TrackerType.SMALL, 2, true);
 
-        List<Pet> petsByOwner = Arrays.asList(cat, dog);
-        when(petRepository.findByOwnerId(ownerId)).thenReturn(petsByOwner);
+        List<PetView> petsByOwner = views(cat, dog);
+        when(petStore.findViewsByOwnerId(ownerId)).thenReturn(petsByOwner);
 
         // When: Getting pets by owner ID
-        List<Pet> pets = petService.getPetsByOwnerId(ownerId);
+        List<PetView> pets = petService.getPetsByOwnerId(ownerId);
 
         // Then: Assert that the returned list contains only pets for the specified owner ID
         assertEquals(2, pets.size());
-        assertTrue(pets.contains(cat));
-        assertTrue(pets.contains(dog));
-        assertFalse(pets.contains(anotherDog));
+        assertTrue(pets.contains(PetView.of(cat)));
+        assertTrue(pets.contains(PetView.of(dog)));
+        assertFalse(pets.contains(PetView.of(anotherDog)));
 
         // Verify repository interaction
-        verify(petRepository, times(1)).findByOwnerId(ownerId);
+        verify(petStore, times(1)).findViewsByOwnerId(ownerId);
+    }
+
+    @Test
+    void testGetPetsByOwnerId_RepeatedReadsAreServedFromCache() {
+        Integer ownerId = 1;
+        Cat cat = createCat(PetType.CAT, TrackerType.SMALL, ownerId, true, false);
+        when(petStore.findViewsByOwnerId(ownerId)).thenReturn(views(cat));
+
+        petService.getPetsByOwnerId(ownerId);
+        List<PetView> pets = petService.getPetsByOwnerId(ownerId);
+
+        assertEquals(views(cat), pets);
+        verify(petStore, times(1)).findViewsByOwnerId(ownerId);
     }
 
     @Test
@@ -195,15 +479,17 @@ public class PetServiceImplTest {
         Cat cat2 = createCat(PetType.CAT, TrackerType.BIG, 2, false, true);
         Dog dog = createDog(PetType.DOG, TrackerType.MEDIUM, 3, true);
 
-        when(petRepository.findAll()).thenReturn(Arrays.asList(cat1, cat2, dog));
+        when(petStore.findViewsByPetType(PetType.CAT)).thenReturn(views(cat1, cat2));
 
-        List<Cat> cats = petService.getAllCats();
+        List<PetView> cats = petService.getAllCats();
 
         assertEquals(2, cats.size());
-        assertTrue(cats.contains(cat1));
-        assertTrue(cats.contains(cat2));
+        assertTrue(cats.contains(PetView.of(cat1)));
+        assertTrue(cats.contains(PetView.of(cat2)));
+        assertFalse(cats.contains(PetView.of(dog)));
 
-        verify(petRepository, times(1)).findAll();
+        verify(petStore, times(1)).findViewsByPetType(PetType.CAT);
+        verify(petStore, never()).findViews();
     }
     @Test
     void testGetAllDogs_Success() {
@@ -211,15 +497,21 @@ public class PetServiceImplTest {
         Dog dog2 = createDog(PetType.DOG, TrackerType.SMALL, 2, false);
         Cat cat = createCat(PetType.CAT, TrackerType.SMALL, 3, true, false);
 
-        when(petRepository.findAll()).thenReturn(Arrays.asList(dog1, dog2, cat));
+        when(petStore.findViewsByPetType(PetType.DOG)).thenReturn(views(dog1, dog2));
 
-        List<Dog> dogs = petService.getAllDogs();
+        List<PetView> dogs = petService.getAllDogs();
 
         assertEquals(2, dogs.size());
-        assertTrue(dogs.contains(dog1));
-        assertTrue(dogs.contains(dog2));
+        assertTrue(dogs.contains(PetView.of(dog1)));
+        assertTrue(dogs.contains(PetView.of(dog2)));
+        assertFalse(dogs.contains(PetView.of(cat)));
+
+        verify(petStore, times(1)).findViewsByPetType(PetType.DOG);
+        verify(petStore, never()).findViews();
+    }
 
-        verify(petRepository, times(1)).findAll();
+    private static List<PetView> views(Pet... pets) {
+        return Arrays.stream(pets).map(PetView::of).toList();
     }
 
     // Helper method to create a Cat object
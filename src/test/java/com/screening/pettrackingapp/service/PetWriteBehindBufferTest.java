@@ -0,0 +1,223 @@
+package com.screening.pettrackingapp.service;
+
+import com.screening.pettrackingapp.config.PetIngestProperties;
+import com.screening.pettrackingapp.dto.BatchIngestResult;
+import com.screening.pettrackingapp.dto.BatchItem;
+import com.screening.pettrackingapp.dto.BatchItemError;
+import com.screening.pettrackingapp.entity.Cat;
+import com.screening.pettrackingapp.entity.Pet;
+import com.screening.pettrackingapp.entity.TrackerType;
+import com.screening.pettrackingapp.exception.IngestRejectedException;
+import com.screening.pettrackingapp.exception.PetValidationException;
+import com.screening.pettrackingapp.repository.PetStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PetWriteBehindBufferTest {
+
+    @Mock
+    PetService petService;
+    @Mock
+    PetStore petStore;
+
+    PetIngestProperties properties;
+    PetWriteBehindBuffer buffer;
+    // Ids of the pets in each savePets call, in call order
+    List<List<Long>> groups = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch writerStarted = new CountDownLatch(1);
+    CountDownLatch releaseWriter = new CountDownLatch(0);
+    // A savePets call including a pet of one of these owners fails as a whole, like a rolled back chunk
+    Set<Integer> failingOwners = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        properties = new PetIngestProperties();
+        properties.getWriteBehind().setEnabled(true);
+        properties.getWriteBehind().setMaxGroupDelay(Duration.ofMillis(1));
+        properties.getWriteBehind().setReadTimeout(Duration.ofSeconds(5));
+        AtomicLong sequence = new AtomicLong();
+        lenient().when(petStore.reserveId(any())).thenAnswer(invocation -> sequence.incrementAndGet());
+        lenient().when(petService.savePets(any())).thenAnswer(invocation -> {
+            writerStarted.countDown();
+            releaseWriter.await();
+            List<BatchItem> items = new ArrayList<>();
+            Iterator<BatchItem> iterator = invocation.getArgument(0);
+            iterator.forEachRemaining(items::add);
+            if (items.stream().anyMatch(item -> failingOwners.contains(item.pet().getOwnerId()))) {
+                return new BatchIngestResult(items.size(), 0, items.size(), List.of(), items.stream()
+                        .map(item -> new BatchItemError(item.index(), "Could not persist pet: duplicate key"))
+                        .toList());
+            }
+            List<Long> ids = items.stream().map(item -> item.pet().getId()).toList();
+            groups.add(ids);
+            return new BatchIngestResult(ids.size(), ids.size(), 0, ids, List.of());
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (buffer != null) {
+            buffer.shutdown();
+        }
+    }
+
+    @Test
+    void testSubmit_ReservesIdAndCommitsInBackground() {
+        buffer = new PetWriteBehindBuffer(petService, petStore, properties);
+
+        Pet accepted = buffer.submit(cat(1));
+        buffer.awaitCommitted(accepted.getId());
+
+        assertEquals(1L, accepted.getId());
+        assertEquals(List.of(List.of(1L)), groups);
+        assertEquals(0, buffer.pendingCount());
+    }
+
+    @Test
+    void testQueuedPets_AreCommittedInGroupsOfMaxGroupSize() throws Exception {
+        properties.getWriteBehind().setMaxGroupSize(2);
+        releaseWriter = new CountDownLatch(1);
+        buffer = new PetWriteBehindBuffer(petService, petStore, properties);
+
+        buffer.submit(cat(1));
+        assertTrue(writerStarted.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            buffer.submit(cat(1));
+        }
+        releaseWriter.countDown();
+        buffer.awaitCommitted(6L);
+
+        assertEquals(List.of(List.of(1L), List.of(2L, 3L), List.of(4L, 5L), List.of(6L)), groups);
+    }
+
+    @Test
+    void testFailingGroup_CommitsTheOtherPetsAndReportsTheOneAtFault() throws Exception {
+        failingOwners.add(-1);
+        releaseWriter = new CountDownLatch(1);
+        buffer = new PetWriteBehindBuffer(petService, petStore, properties);
+
+        buffer.submit(cat(1));
+        assertTrue(writerStarted.await(5, TimeUnit.SECONDS));
+        buffer.submit(cat(2));
+        Long failedId = buffer.submit(cat(-1)).getId();
+        buffer.submit(cat(2));
+        releaseWriter.countDown();
+
+        IngestRejectedException ex = assertThrows(IngestRejectedException.class,
+                () -> buffer.awaitCommitted(failedId));
+        assertEquals(HttpStatus.GONE, ex.getStatus());
+        assertTrue(ex.getMessage().contains("duplicate key"));
+        buffer.awaitCommitted(4L);
+        assertEquals(List.of(1L, 2L, 4L), groups.stream().flatMap(List::stream).sorted().toList());
+        assertEquals(0, buffer.pendingCount());
+    }
+
+    @Test
+    void testFullBuffer_IsRejectedWithTooManyRequests() throws Exception {
+        properties.getWriteBehind().setCapacity(1);
+        releaseWriter = new CountDownLatch(1);
+        buffer = new PetWriteBehindBuffer(petService, petStore, properties);
+
+        buffer.submit(cat(1));
+        assertTrue(writerStarted.await(5, TimeUnit.SECONDS));
+        buffer.submit(cat(2));
+
+        IngestRejectedException ex = assertThrows(IngestRejectedException.class, () -> buffer.submit(cat(3)));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, ex.getStatus());
+        verify(petStore, times(2)).reserveId(any());
+        releaseWriter.countDown();
+    }
+
+    @Test
+    void testRead_StillQueuedAfterTimeout_IsRejectedWithServiceUnavailable() throws Exception {
+        properties.getWriteBehind().setReadTimeout(Duration.ofMillis(10));
+        releaseWriter = new CountDownLatch(1);
+        buffer = new PetWriteBehindBuffer(petService, petStore, properties);
+
+        Long id = buffer.submit(cat(1)).getId();
+        assertTrue(writerStarted.await(5, TimeUnit.SECONDS));
+
+        IngestRejectedException ex = assertThrows(IngestRejectedException.class, () -> buffer.awaitCommitted(id));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatus());
+        releaseWriter.countDown();
+    }
+
+    @Test
+    void testInvalidPet_IsRejectedBeforeReservingAnId() {
+        buffer = new PetWriteBehindBuffer(petService, petStore, properties);
+        Pet pet = cat(1);
+        doThrow(new PetValidationException("invalid")).when(petService).validatePet(pet);
+
+        assertThrows(PetValidationException.class, () -> buffer.submit(pet));
+        verify(petStore, never()).reserveId(any());
+    }
+
+    @Test
+    void testShutdown_CommitsQueuedPetsAndRejectsNewOnes() {
+        properties.getWriteBehind().setMaxGroupSize(100);
+        properties.getWriteBehind().setMaxGroupDelay(Duration.ofHours(1));
+        buffer = new PetWriteBehindBuffer(petService, petStore, properties);
+        buffer.submit(cat(1));
+        buffer.submit(cat(2));
+        buffer.submit(cat(3));
+
+        buffer.shutdown();
+
+        assertEquals(List.of(1L, 2L, 3L), groups.stream().flatMap(List::stream).toList());
+        assertEquals(0, buffer.pendingCount());
+        IngestRejectedException ex = assertThrows(IngestRejectedException.class, () -> buffer.submit(cat(4)));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatus());
+    }
+
+    @Test
+    void testShutdown_PetsNotCommittedInTime_AreReportedAsNotSaved() throws Exception {
+        properties.getWriteBehind().setShutdownTimeout(Duration.ofMillis(10));
+        releaseWriter = new CountDownLatch(1);
+        buffer = new PetWriteBehindBuffer(petService, petStore, properties);
+        buffer.submit(cat(1));
+        assertTrue(writerStarted.await(5, TimeUnit.SECONDS));
+        Long queuedId = buffer.submit(cat(2)).getId();
+
+        buffer.shutdown();
+
+        IngestRejectedException ex = assertThrows(IngestRejectedException.class,
+                () -> buffer.awaitCommitted(queuedId));
+        assertEquals(HttpStatus.GONE, ex.getStatus());
+        releaseWriter.countDown();
+    }
+
+    @Test
+    void testDisabled_StartsNoWriter() {
+        properties.getWriteBehind().setEnabled(false);
+        buffer = new PetWriteBehindBuffer(petService, petStore, properties);
+
+        assertFalse(buffer.isEnabled());
+        buffer.awaitCommitted(1L);
+        verifyNoInteractions(petService, petStore);
+    }
+
+    private static Cat cat(int ownerId) {
+        Cat cat = new Cat();
+        cat.setTrackerType(TrackerType.SMALL);
+        cat.setOwnerId(ownerId);
+        cat.setInZone(true);
+        cat.setLostTracker(false);
+        return cat;
+    }
+}
@@ -0,0 +1,78 @@
+package com.screening.pettrackingapp.service;
+
+import com.screening.pettrackingapp.config.ZoneHeartbeatProperties;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ZoneHeartbeatBufferTest {
+
+    @Mock
+    PetService petService;
+
+    ZoneHeartbeatBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        ZoneHeartbeatProperties properties = new ZoneHeartbeatProperties();
+        properties.setCoalesceWindow(Duration.ofHours(1)); // flushed manually by the tests
+        buffer = new ZoneHeartbeatBuffer(petService, properties);
+    }
+
+    @Test
+    void testRepeatedHeartbeats_AreCollapsedIntoOneWrite() {
+        buffer.submit(1L, false);
+        buffer.submit(1L, true);
+        buffer.submit(1L, false);
+        buffer.submit(2L, true);
+
+        buffer.flush();
+
+        verify(petService, times(1)).updateZone(1L, false);
+        verify(petService, times(1)).updateZone(2L, true);
+        assertEquals(0, buffer.pendingCount());
+    }
+
+    @Test
+    void testConflictingWrite_IsRetriedOnNextFlush() {
+        doThrow(new ObjectOptimisticLockingFailureException("Pet", 1L)).doNothing()
+                .when(petService).updateZone(1L, false);
+        buffer.submit(1L, false);
+
+        buffer.flush();
+        assertEquals(1, buffer.pendingCount());
+
+        buffer.flush();
+        assertEquals(0, buffer.pendingCount());
+        verify(petService, times(2)).updateZone(1L, false);
+    }
+
+    @Test
+    void testUnknownPet_IsDropped() {
+        doThrow(new EntityNotFoundException("missing")).when(petService).updateZone(3L, true);
+        buffer.submit(3L, true);
+
+        buffer.flush();
+
+        assertEquals(0, buffer.pendingCount());
+    }
+
+    @Test
+    void testDisabledBuffer() {
+        ZoneHeartbeatBuffer disabled = new ZoneHeartbeatBuffer(petService, new ZoneHeartbeatProperties());
+
+        assertFalse(disabled.isEnabled());
+        assertTrue(buffer.isEnabled());
+        buffer.shutdown();
+    }
+}
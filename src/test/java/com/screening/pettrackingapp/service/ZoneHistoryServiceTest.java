@@ -0,0 +1,170 @@
+package com.screening.pettrackingapp.service;
+
+import com.screening.pettrackingapp.config.ReadingHistoryProperties;
+import com.screening.pettrackingapp.dto.OwnerTimeOutsideZone;
+import com.screening.pettrackingapp.entity.PetType;
+import com.screening.pettrackingapp.entity.TrackerType;
+import com.screening.pettrackingapp.event.PetChangedEvent;
+import com.screening.pettrackingapp.event.PetSnapshot;
+import com.screening.pettrackingapp.exception.PetValidationException;
+import com.screening.pettrackingapp.repository.ReadingLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZoneHistoryServiceTest {
+
+    private static final Instant START = Instant.parse("2024-05-01T00:00:00Z");
+
+    MutableClock clock;
+    ReadingLog readingLog;
+    ZoneHistoryService zoneHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        ReadingHistoryProperties properties = new ReadingHistoryProperties();
+        properties.setMaintenanceInterval(Duration.ZERO);
+        properties.setRetention(Duration.ofHours(6));
+        properties.setDownsampleAfter(Duration.ofHours(6));
+        clock = new MutableClock(START);
+        readingLog = new ReadingLog(properties);
+        zoneHistoryService = new ZoneHistoryService(readingLog, properties, clock);
+    }
+
+    @Test
+    void testTimeOutsideZone_SumsIntervalsClippedToTheRange() {
+        PetSnapshot dog = snapshot(1L, PetType.DOG, TrackerType.BIG, 5, true);
+        report(0, null, dog);
+        report(10, dog, dog = withZone(dog, false));
+        report(30, dog, dog = withZone(dog, true));
+        report(40, dog, withZone(dog, false));
+
+        // outside 10-30 and from 40 on; the range 20-50 sees 10 + 10 minutes
+        assertEquals(Duration.ofMinutes(20).toMillis(),
+                zoneHistoryService.getTimeOutsideZone(1L, at(20), at(50)).outsideMillis());
+        assertEquals(Duration.ofMinutes(30).toMillis(),
+                zoneHistoryService.getTimeOutsideZone(1L, at(0), at(50)).outsideMillis());
+        assertEquals(0, zoneHistoryService.getTimeOutsideZone(2L, at(0), at(50)).outsideMillis());
+    }
+
+    @Test
+    void testTimeOutsideZone_DeletionEndsTheInterval() {
+        PetSnapshot cat = snapshot(1L, PetType.CAT, TrackerType.SMALL, 5, false);
+        report(0, null, cat);
+        report(15, cat, null);
+
+        assertEquals(Duration.ofMinutes(15).toMillis(),
+                zoneHistoryService.getTimeOutsideZone(1L, at(0), at(60)).outsideMillis());
+    }
+
+    @Test
+    void testTimeOutsideZoneByOwner_AttributesIntervalsToTheOwnerAtTheTime() {
+        PetSnapshot cat = snapshot(1L, PetType.CAT, TrackerType.SMALL, 5, false);
+        PetSnapshot dog = snapshot(2L, PetType.DOG, TrackerType.BIG, 5, false);
+        report(0, null, cat);
+        report(0, null, dog);
+        PetSnapshot movedCat = new PetSnapshot(1L, PetType.CAT, TrackerType.SMALL, 6, false, false);
+        report(20, cat, movedCat);
+
+        OwnerTimeOutsideZone owner5 = zoneHistoryService.getTimeOutsideZoneByOwner(5, at(0), at(60));
+        OwnerTimeOutsideZone owner6 = zoneHistoryService.getTimeOutsideZoneByOwner(6, at(0), at(60));
+
+        assertEquals(Map.of(1L, minutes(20), 2L, minutes(60)), owner5.pets());
+        assertEquals(minutes(80), owner5.outsideMillis());
+        assertEquals(Map.of(1L, minutes(40)), owner6.pets());
+    }
+
+    @Test
+    void testTimeOutsideZoneByType_GroupsAndFilters() {
+        report(0, null, snapshot(1L, PetType.CAT, TrackerType.SMALL, 5, false));
+        report(30, null, snapshot(2L, PetType.DOG, TrackerType.BIG, 5, false));
+        report(30, null, snapshot(3L, PetType.DOG, TrackerType.BIG, 6, true));
+
+        assertEquals(Map.of("CAT-SMALL", minutes(60), "DOG-BIG", minutes(30)),
+                zoneHistoryService.getTimeOutsideZoneByType(null, null, at(0), at(60)).outsideMillis());
+        assertEquals(Map.of("DOG-BIG", minutes(30)),
+                zoneHistoryService.getTimeOutsideZoneByType(PetType.DOG, null, at(0), at(60)).outsideMillis());
+    }
+
+    @Test
+    void testTimeOutsideZone_SurvivesRetention() {
+        PetSnapshot dog = snapshot(1L, PetType.DOG, TrackerType.BIG, 5, true);
+        report(0, null, dog);
+        report(60, dog, withZone(dog, false));
+
+        clock.set(at(24 * 60));
+        zoneHistoryService.maintain();
+
+        assertEquals(0, readingLog.segmentCount());
+        assertEquals(minutes(60), zoneHistoryService.getTimeOutsideZone(1L, at(23 * 60), at(24 * 60)).outsideMillis());
+    }
+
+    @Test
+    void testTimeOutsideZone_DefaultsToTheLastDay() {
+        report(0, null, snapshot(1L, PetType.CAT, TrackerType.SMALL, 5, false));
+        clock.set(at(48 * 60));
+
+        var result = zoneHistoryService.getTimeOutsideZone(1L, null, null);
+
+        assertEquals(at(24 * 60), result.from());
+        assertEquals(at(48 * 60), result.to());
+        assertEquals(minutes(24 * 60), result.outsideMillis());
+    }
+
+    @Test
+    void testTimeOutsideZone_EmptyRange_Throws() {
+        assertThrows(PetValidationException.class, () -> zoneHistoryService.getTimeOutsideZone(1L, at(10), at(10)));
+    }
+
+    private void report(int minute, PetSnapshot before, PetSnapshot after) {
+        clock.set(at(minute));
+        zoneHistoryService.onPetChanged(new PetChangedEvent(before, after));
+    }
+
+    private static PetSnapshot snapshot(Long id, PetType petType, TrackerType trackerType, int ownerId, boolean inZone) {
+        return new PetSnapshot(id, petType, trackerType, ownerId, inZone, petType == PetType.CAT ? false : null);
+    }
+
+    private static PetSnapshot withZone(PetSnapshot pet, boolean inZone) {
+        return new PetSnapshot(pet.id(), pet.petType(), pet.trackerType(), pet.ownerId(), inZone, pet.lostTracker());
+    }
+
+    private static Instant at(int minute) {
+        return START.plus(Duration.ofMinutes(minute));
+    }
+
+    private static long minutes(int minutes) {
+        return Duration.ofMinutes(minutes).toMillis();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void set(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}